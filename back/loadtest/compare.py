@@ -0,0 +1,44 @@
+"""thread-compare.js 결과 두 개(기준, 비교 대상)의 처리량/지연을 나란히 출력합니다.
+
+python3 loadtest/compare.py loadtest/results/platform.json loadtest/results/virtual.json
+"""
+import json
+import sys
+
+
+def load(path):
+    with open(path, encoding="utf-8") as f:
+        return json.load(f)
+
+
+def value(result, metric, stat):
+    values = result.get(metric) or {}
+    return values.get(stat)
+
+
+ROWS = [
+    ("recipes req/s", "recipeRequests", "rate", True),
+    ("recipes p50 ms", "recipes", "p(50)", False),
+    ("recipes p99 ms", "recipes", "p(99)", False),
+    ("chat msg/s", "chatReceived", "rate", True),
+    ("chat p50 ms", "chat", "p(50)", False),
+    ("chat p99 ms", "chat", "p(99)", False),
+]
+
+
+def main(base_path, other_path):
+    base, other = load(base_path), load(other_path)
+    print(f"{'':16}{base['label']:>14}{other['label']:>14}{'change':>10}")
+    for name, metric, stat, higher_is_better in ROWS:
+        a, b = value(base, metric, stat), value(other, metric, stat)
+        if a is None or b is None:
+            continue
+        change = (b - a) / a * 100 if a else 0.0
+        mark = "+" if (change > 0) == higher_is_better else "-"
+        print(f"{name:16}{a:14.1f}{b:14.1f}{change:9.1f}% {mark if change else ''}")
+
+
+if __name__ == "__main__":
+    if len(sys.argv) != 3:
+        sys.exit(__doc__)
+    main(sys.argv[1], sys.argv[2])
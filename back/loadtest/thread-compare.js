@@ -0,0 +1,113 @@
+// 플랫폼 스레드 / 가상 스레드(virtual-threads 프로필) 처리량, p99 지연 비교용 k6 스크립트
+//
+// 1) 같은 장비에서 서버를 한 번씩 띄우고 같은 조건으로 실행합니다.
+//    ./gradlew bootRun
+//    k6 run -e LABEL=platform -e ROOM_ID=<방 id> -e MEMBER_IDS=1,2,3 loadtest/thread-compare.js
+//    ./gradlew bootRun -PjavaVersion=21 --args='--spring.profiles.active=virtual-threads'
+//    k6 run -e LABEL=virtual -e ROOM_ID=<방 id> -e MEMBER_IDS=1,2,3 loadtest/thread-compare.js
+// 2) python3 loadtest/compare.py loadtest/results/platform.json loadtest/results/virtual.json
+//
+// 시나리오
+// - recipes : /api/recipes/search 를 VUS 명이 DURATION 동안 호출 (사이드카 대기가 대부분인 요청)
+// - chat    : CHAT_VUS 개 세션이 한 방에 들어가고, 첫 세션이 SEND_INTERVAL_MS 마다 보낸 메시지가
+//             모든 세션에 도착하기까지의 지연(chat_fanout_latency)을 잽니다. ROOM_ID 는 미리 만든 방, MEMBER_IDS 는 실제 회원 id.
+// 환경 변수: BASE_URL(http://localhost:8111), WS_URL(ws://localhost:8111/ws/chat), SCENARIOS(recipes,chat)
+import http from 'k6/http';
+import ws from 'k6/ws';
+import { check } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8111';
+const WS_URL = __ENV.WS_URL || 'ws://localhost:8111/ws/chat';
+const LABEL = __ENV.LABEL || 'run';
+const DURATION = __ENV.DURATION || '60s';
+const VUS = parseInt(__ENV.VUS || '200', 10);
+const CHAT_VUS = parseInt(__ENV.CHAT_VUS || '100', 10);
+const SEND_INTERVAL_MS = parseInt(__ENV.SEND_INTERVAL_MS || '200', 10);
+const ROOM_ID = __ENV.ROOM_ID;
+const MEMBER_IDS = (__ENV.MEMBER_IDS || '1').split(',').map(Number);
+const QUERIES = ['모히또', '김치', '마티니', '된장', '하이볼', '불고기'];
+
+const recipeLatency = new Trend('recipe_search_latency', true);
+const chatLatency = new Trend('chat_fanout_latency', true);
+const chatReceived = new Counter('chat_received');
+
+const enabled = (__ENV.SCENARIOS || 'recipes,chat').split(',');
+const scenarios = {};
+if (enabled.includes('recipes')) {
+    scenarios.recipes = { executor: 'constant-vus', exec: 'recipes', vus: VUS, duration: DURATION };
+}
+if (enabled.includes('chat')) {
+    if (!ROOM_ID) throw new Error('chat 시나리오는 ROOM_ID 가 필요합니다.');
+    scenarios.chat = { executor: 'per-vu-iterations', exec: 'chat', vus: CHAT_VUS, iterations: 1, maxDuration: '10m' };
+}
+
+export const options = {
+    scenarios,
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function recipes() {
+    const q = QUERIES[Math.floor(Math.random() * QUERIES.length)];
+    const type = Math.random() < 0.5 ? 'cocktail' : 'food';
+    const res = http.get(`${BASE_URL}/api/recipes/search?type=${type}&q=${encodeURIComponent(q)}&page=1&size=10`,
+        { tags: { name: 'recipes-search' } });
+    recipeLatency.add(res.timings.duration);
+    check(res, { 'status 200': r => r.status === 200 });
+}
+
+export function chat() {
+    const memberId = MEMBER_IDS[(__VU - 1) % MEMBER_IDS.length];
+    const sender = __VU === 1;
+    const durationMs = parseDuration(DURATION);
+
+    ws.connect(WS_URL, {}, socket => {
+        socket.on('open', () => {
+            socket.send(JSON.stringify({ type: 'ENTER', roomId: ROOM_ID, memberId }));
+            if (sender) {
+                // 다른 세션이 모두 입장할 시간을 둔 뒤 전송 시작
+                socket.setTimeout(() => {
+                    socket.setInterval(() => {
+                        socket.send(JSON.stringify({ type: 'TALK', roomId: ROOM_ID, memberId, msg: `lt:${Date.now()}` }));
+                    }, SEND_INTERVAL_MS);
+                }, 3000);
+            }
+        });
+        socket.on('message', raw => {
+            const data = JSON.parse(raw);
+            for (const msg of Array.isArray(data) ? data : [data]) {
+                const text = Array.isArray(msg) ? msg[3] : msg.msg;
+                if (typeof text === 'string' && text.startsWith('lt:')) {
+                    chatLatency.add(Date.now() - Number(text.substring(3)));
+                    chatReceived.add(1);
+                }
+            }
+        });
+        socket.setTimeout(() => {
+            socket.send(JSON.stringify({ type: 'CLOSE', roomId: ROOM_ID, memberId }));
+            socket.close();
+        }, durationMs + 3000);
+    });
+}
+
+function parseDuration(value) {
+    const match = /^(\d+)(ms|s|m)$/.exec(value);
+    if (!match) return 60000;
+    const unit = { ms: 1, s: 1000, m: 60000 }[match[2]];
+    return Number(match[1]) * unit;
+}
+
+export function handleSummary(data) {
+    const pick = name => (data.metrics[name] ? data.metrics[name].values : null);
+    const result = {
+        label: LABEL,
+        recipes: pick('recipe_search_latency'),
+        recipeRequests: pick('http_reqs'),
+        chat: pick('chat_fanout_latency'),
+        chatReceived: pick('chat_received'),
+    };
+    return {
+        stdout: JSON.stringify(result, null, 2) + '\n',
+        [`loadtest/results/${LABEL}.json`]: JSON.stringify(result, null, 2),
+    };
+}
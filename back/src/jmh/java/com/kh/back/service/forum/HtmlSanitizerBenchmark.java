@@ -0,0 +1,74 @@
+package com.kh.back.service.forum;
+
+import org.jsoup.Jsoup;
+import org.jsoup.safety.Safelist;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 게시글 HTML 정제 비용 비교 (./gradlew jmh -PjmhIncludes=HtmlSanitizer)
+ * - perCallSafelist : 예전 ForumPostService.sanitizeHtml (호출마다 Safelist 생성 + Jsoup.clean)
+ * - prebuilt        : HtmlSanitizer, 캐시 미적중 (새 본문 작성)
+ * - cached          : HtmlSanitizer, 같은 본문 재전송 (해시만 계산)
+ * paragraphs 로 TipTap 출력 크기를 바꿔 봅니다. (문단 1개 ≈ 400자)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HtmlSanitizerBenchmark {
+
+    @Param({"5", "50", "250"})
+    public int paragraphs;
+
+    private String html;
+    private HtmlSanitizer uncached;
+    private HtmlSanitizer cached;
+
+    @Setup
+    public void setUp() {
+        html = tiptapHtml(paragraphs);
+        uncached = new HtmlSanitizer(Integer.MAX_VALUE, 0);
+        cached = new HtmlSanitizer(Integer.MAX_VALUE, 20_000_000);
+        cached.sanitize(html);
+    }
+
+    @Benchmark
+    public String perCallSafelist() {
+        Safelist safelist = Safelist.relaxed()
+                .addAttributes("blockquote", "class")
+                .addAttributes("a", "href", "rel", "target")
+                .addProtocols("a", "href", "#", "http", "https", "mailto", "tel", "ftp");
+        return Jsoup.clean(html, safelist);
+    }
+
+    @Benchmark
+    public String prebuilt() {
+        return uncached.sanitize(html);
+    }
+
+    @Benchmark
+    public String cached() {
+        return cached.sanitize(html);
+    }
+
+    // TipTap StarterKit + Link + Image 확장이 만드는 형태의 본문
+    static String tiptapHtml(int paragraphs) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<h2>레시피 후기</h2>");
+        for (int i = 0; i < paragraphs; i++) {
+            switch (i % 5) {
+                case 0 -> sb.append("<p>오늘은 <strong>모히또</strong>를 만들어 봤어요. 라임 <em>두 조각</em>과 민트 잎을 충분히 넣고 ")
+                        .append("<a href=\"https://example.com/mojito\" target=\"_blank\" rel=\"noopener noreferrer nofollow\">원래 레시피</a>")
+                        .append("보다 설탕을 조금 줄였습니다. 얼음은 크게 깨서 넣어야 덜 녹아요.</p>");
+                case 1 -> sb.append("<ul><li><p>화이트 럼 45ml</p></li><li><p>라임 주스 20ml</p></li>")
+                        .append("<li><p>설탕 시럽 15ml</p></li><li><p>탄산수 적당량</p></li></ul>");
+                case 2 -> sb.append("<blockquote class=\"quote\"><p>민트는 세게 으깨면 쓴맛이 나니 가볍게 눌러 주세요.</p></blockquote>");
+                case 3 -> sb.append("<pre><code class=\"language-text\">1. 민트와 라임을 잔에 넣는다\n2. 시럽을 붓고 가볍게 누른다\n3. 얼음, 럼, 탄산수 순서로 채운다</code></pre>");
+                default -> sb.append("<p><img src=\"https://example.com/images/").append(i).append(".jpg\" alt=\"완성 사진\" onerror=\"alert(1)\">")
+                        .append("<span style=\"color: red\" onclick=\"steal()\">사진</span>은 자연광에서 찍었습니다.</p>");
+            }
+        }
+        return sb.toString();
+    }
+}
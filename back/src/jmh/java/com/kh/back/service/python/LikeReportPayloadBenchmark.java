@@ -0,0 +1,80 @@
+package com.kh.back.service.python;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kh.back.dto.python.LikeReportDeltaDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 좋아요/신고 증감분 청크의 요청 본문 작성 비용 비교 (./gradlew jmh -PjmhIncludes=LikeReportPayload)
+ * - mapThenString : 예전 방식 (항목마다 HashMap, 요청 본문 Map 을 writeValueAsString 한 뒤 String 을 요청 본문에 씀)
+ * - streaming     : ElasticService.writeLikeReportPayload (LikeReportDeltaDto 를 JsonGenerator 로 요청 본문에 바로 씀)
+ * 두 방식 모두 Redis 에서 읽은 값(문자열)에서 항목 객체를 만드는 비용부터 포함합니다. 요청 본문은 재사용하는 버퍼로 대신합니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class LikeReportPayloadBenchmark {
+
+    @Param({"100", "500"})
+    public int chunkSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ByteArrayOutputStream requestBody = new ByteArrayOutputStream(64 * 1024);
+    private final String deltaId = UUID.randomUUID().toString();
+    private String[] postIds;
+    private String[] types;
+    private long[] values;
+    private String[] keyTypes;
+
+    @Setup
+    public void setUp() {
+        postIds = new String[chunkSize];
+        types = new String[chunkSize];
+        values = new long[chunkSize];
+        keyTypes = new String[chunkSize];
+        for (int i = 0; i < chunkSize; i++) {
+            postIds[i] = "AZ" + Integer.toHexString(0x100000 + i) + "recipeDoc";
+            types[i] = i % 2 == 0 ? "cocktail" : "food";
+            values[i] = i % 5 - 2;
+            keyTypes[i] = i % 4 == 0 ? "report" : "like";
+        }
+    }
+
+    @Benchmark
+    public int mapThenString() throws IOException {
+        List<Map<String, Object>> chunk = new ArrayList<>(chunkSize);
+        for (int i = 0; i < chunkSize; i++) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("postId", postIds[i]);
+            entry.put("type", types[i]);
+            entry.put("value", values[i]);
+            entry.put("keyType", keyTypes[i]);
+            chunk.add(entry);
+        }
+        Map<String, Object> body = new HashMap<>();
+        body.put("delta_id", deltaId);
+        body.put("like_report_data", chunk);
+        String jsonData = objectMapper.writeValueAsString(body);
+
+        requestBody.reset();
+        requestBody.write(jsonData.getBytes(StandardCharsets.UTF_8)); // StringHttpMessageConverter
+        return requestBody.size();
+    }
+
+    @Benchmark
+    public int streaming() throws IOException {
+        List<LikeReportDeltaDto> chunk = new ArrayList<>(chunkSize);
+        for (int i = 0; i < chunkSize; i++) {
+            chunk.add(new LikeReportDeltaDto(postIds[i], types[i], values[i], keyTypes[i]));
+        }
+        requestBody.reset();
+        ElasticService.writeLikeReportPayload(objectMapper.getFactory(), requestBody, deltaId, chunk);
+        return requestBody.size();
+    }
+}
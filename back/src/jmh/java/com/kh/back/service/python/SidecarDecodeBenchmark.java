@@ -0,0 +1,69 @@
+package com.kh.back.service.python;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kh.back.dto.recipe.res.CocktailListResDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 사이드카 응답 역직렬화 비용 비교 (./gradlew jmh -PjmhIncludes=SidecarDecode)
+ * - stringThenReadValue : 예전 방식 (getForEntity(..., String.class) 로 본문 전체를 String 으로 받은 뒤 readValue)
+ * - streaming           : SidecarClient.exchange/get (응답 InputStream 에서 바로 readValue)
+ * 레시피 검색 목록(/search) 응답 형태로 docs 건수를 바꿔 봅니다. 할당량 차이는 jmh { profilers = ['gc'] } 로 확인합니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SidecarDecodeBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int docs;
+
+    private ObjectMapper objectMapper;
+    private JavaType listType;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false); // 스프링 부트 기본값과 같게
+        listType = objectMapper.getTypeFactory().constructCollectionType(List.class, CocktailListResDto.class);
+        body = searchResponse(docs).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<CocktailListResDto> stringThenReadValue() throws IOException {
+        // StringHttpMessageConverter 와 같은 방식으로 본문을 String 으로 읽음
+        String response = StreamUtils.copyToString(new ByteArrayInputStream(body), StandardCharsets.UTF_8);
+        return objectMapper.readValue(response, listType);
+    }
+
+    @Benchmark
+    public List<CocktailListResDto> streaming() throws IOException {
+        return objectMapper.readValue(new ByteArrayInputStream(body), listType);
+    }
+
+    // Flask /search (type=cocktail) 응답과 같은 형태
+    static String searchResponse(int docs) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < docs; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":\"cocktail-").append(i).append('"')
+                    .append(",\"name\":\"모히또 ").append(i).append('"')
+                    .append(",\"category\":\"하이볼\"")
+                    .append(",\"like\":").append(i * 7 % 300)
+                    .append(",\"report\":").append(i % 3)
+                    .append(",\"image\":\"https://example.com/images/cocktail-").append(i).append(".jpg\"")
+                    .append(",\"abv\":12.5}");
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -1,14 +1,62 @@
 package com.kh.back.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class AppConfig {
-	
+
+	// Flask 사이드카 공용 커넥션 풀 (모든 RestTemplate 이 공유)
+	@Bean(destroyMethod = "close")
+	public PoolingHttpClientConnectionManager sidecarConnectionManager(
+			@Value("${sidecar.pool.max-total:100}") int maxTotal,
+			@Value("${sidecar.pool.max-per-route:50}") int maxPerRoute,
+			@Value("${sidecar.pool.connect-timeout-ms:1000}") long connectTimeoutMs,
+			@Value("${sidecar.pool.time-to-live-sec:300}") long timeToLiveSec) {
+		return PoolingHttpClientConnectionManagerBuilder.create()
+				.setMaxConnTotal(maxTotal)
+				.setMaxConnPerRoute(maxPerRoute)
+				.setDefaultConnectionConfig(ConnectionConfig.custom()
+						.setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+						.setValidateAfterInactivity(TimeValue.ofSeconds(5))
+						.setTimeToLive(TimeValue.ofSeconds(timeToLiveSec))
+						.build())
+				.build();
+	}
+
+	@Bean(destroyMethod = "close")
+	public CloseableHttpClient sidecarHttpClient(
+			PoolingHttpClientConnectionManager sidecarConnectionManager,
+			@Value("${sidecar.pool.keep-alive-sec:30}") long keepAliveSec) {
+		return HttpClients.custom()
+				.setConnectionManager(sidecarConnectionManager)
+				// Flask 는 Keep-Alive 헤더를 주지 않으므로 고정 시간 동안 커넥션을 재사용
+				.setKeepAliveStrategy((response, context) -> TimeValue.ofSeconds(keepAliveSec))
+				.evictExpiredConnections()
+				.evictIdleConnections(TimeValue.ofSeconds(keepAliveSec))
+				.build();
+	}
+
+	// 사이드카 전용 (커넥션 풀과 10초 응답 타임아웃을 쓰므로 다른 외부 호출에는 쓰지 않음)
 	@Bean
-	public RestTemplate restTemplate() {
-		return new RestTemplate();
+	public RestTemplate sidecarRestTemplate(RestTemplateBuilder builder, CloseableHttpClient sidecarHttpClient) {
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectionRequestTimeout(Timeout.ofSeconds(2))
+				.setResponseTimeout(Timeout.ofSeconds(10))
+				.build();
+		return builder
+				.requestFactory(() -> new HttpClient5RequestFactory(sidecarHttpClient, requestConfig))
+				.build();
 	}
 }
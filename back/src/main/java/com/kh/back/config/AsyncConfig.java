@@ -0,0 +1,67 @@
+package com.kh.back.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 비동기 처리 설정
+ * - sidecarExecutor : Flask 사이드카 호출 전용 스레드 풀.
+ *   Tomcat 워커 스레드는 요청을 넘긴 뒤 바로 반환되고, 느린 검색은 이 풀에서만 대기합니다.
+ * - chatSendExecutor : 채팅 메시지 실제 전송 전용 스레드 풀. 세션별 송신 큐를 이 풀에서 비웁니다. (ChatFanout)
+ * - taskScheduler : @Scheduled 작업 스레드 풀. 스프링 부트 기본값은 스레드 1개라 오래 걸리는 사이드카 반영(좋아요/신고, 조회수)이
+ *   채팅 저장/접속자 보정 같은 짧은 주기 작업을 막으므로 여러 개로 둡니다.
+ * - MVC 비동기 응답(CompletableFuture)의 기본 타임아웃을 지정합니다.
+ */
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+	@Value("${sidecar.async.timeout-ms:15000}")
+	private long asyncTimeoutMs;
+
+	@Bean(name = "sidecarExecutor")
+	public ThreadPoolTaskExecutor sidecarExecutor(
+			@Value("${sidecar.async.core-size:16}") int coreSize,
+			@Value("${sidecar.async.max-size:64}") int maxSize,
+			@Value("${sidecar.async.queue-capacity:500}") int queueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(coreSize);
+		executor.setMaxPoolSize(maxSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("sidecar-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(10);
+		return executor;
+	}
+
+	// 작업은 세션당 최대 하나만 예약되므로 큐 길이는 접속 세션 수를 넘지 않음
+	@Bean(name = "chatSendExecutor")
+	public ThreadPoolTaskExecutor chatSendExecutor(@Value("${chat.fanout.send-threads:8}") int threads) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(threads);
+		executor.setMaxPoolSize(threads);
+		executor.setThreadNamePrefix("chat-send-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(5);
+		return executor;
+	}
+
+	@Bean(name = "taskScheduler")
+	public ThreadPoolTaskScheduler taskScheduler(@Value("${scheduling.pool-size:8}") int poolSize) {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setPoolSize(poolSize);
+		scheduler.setThreadNamePrefix("scheduling-");
+		scheduler.setWaitForTasksToCompleteOnShutdown(true);
+		scheduler.setAwaitTerminationSeconds(10);
+		return scheduler;
+	}
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setDefaultTimeout(asyncTimeoutMs);
+	}
+}
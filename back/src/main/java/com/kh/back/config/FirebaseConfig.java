@@ -9,11 +9,15 @@ import org.springframework.context.annotation.Configuration;
 import javax.annotation.PostConstruct;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Slf4j
 @Configuration
 public class FirebaseConfig {
 
+    // synchronized 는 가상 스레드를 캐리어에 고정(pinning)하므로 ReentrantLock 사용
+    private static final ReentrantLock INIT_LOCK = new ReentrantLock();
+
     @PostConstruct
     public void initialize() {
         try {
@@ -30,14 +34,17 @@ public class FirebaseConfig {
                     .setStorageBucket("finalproject-public.firebasestorage.app")
                     .build();
 
-            // 동기화 블록을 사용해 멀티스레드 환경에서 안전하게 초기화
-            synchronized (this) {
+            // 락을 사용해 멀티스레드 환경에서 안전하게 초기화
+            INIT_LOCK.lock();
+            try {
                 if (FirebaseApp.getApps().isEmpty()) {
                     FirebaseApp.initializeApp(options);
                     log.info("Firebase가 성공적으로 초기화되었습니다.");
                 } else {
                     log.info("Firebase는 이미 초기화되어 있습니다.");
                 }
+            } finally {
+                INIT_LOCK.unlock();
             }
 
         } catch (IOException e) {
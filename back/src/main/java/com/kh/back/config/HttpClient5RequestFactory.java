@@ -0,0 +1,149 @@
+package com.kh.back.config;
+
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * httpclient5 기반 ClientHttpRequestFactory
+ * - Spring 5.3 의 HttpComponentsClientHttpRequestFactory 는 httpclient 4 만 지원하므로,
+ *   공유 커넥션 풀(CloseableHttpClient)을 RestTemplate 에서 쓰기 위한 어댑터입니다.
+ * - 팩토리마다 RequestConfig(연결/응답 타임아웃)를 따로 가질 수 있어
+ *   하나의 풀을 공유하면서도 엔드포인트별로 타임아웃을 다르게 줄 수 있습니다.
+ */
+public class HttpClient5RequestFactory implements ClientHttpRequestFactory {
+
+	private final CloseableHttpClient httpClient;
+	private final RequestConfig requestConfig;
+
+	public HttpClient5RequestFactory(CloseableHttpClient httpClient, RequestConfig requestConfig) {
+		this.httpClient = httpClient;
+		this.requestConfig = requestConfig;
+	}
+
+	@Override
+	public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+		HttpUriRequestBase request = new HttpUriRequestBase(httpMethod.name(), uri);
+		request.setConfig(requestConfig);
+		return new HttpClient5Request(httpClient, request);
+	}
+
+	private static class HttpClient5Request extends AbstractClientHttpRequest {
+		private final CloseableHttpClient httpClient;
+		private final HttpUriRequestBase request;
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+		HttpClient5Request(CloseableHttpClient httpClient, HttpUriRequestBase request) {
+			this.httpClient = httpClient;
+			this.request = request;
+		}
+
+		@Override
+		public String getMethodValue() {
+			return request.getMethod();
+		}
+
+		@Override
+		public URI getURI() {
+			try {
+				return request.getUri();
+			} catch (Exception e) {
+				throw new IllegalStateException(e.getMessage(), e);
+			}
+		}
+
+		@Override
+		protected OutputStream getBodyInternal(HttpHeaders headers) {
+			return body;
+		}
+
+		@Override
+		protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+			// Content-Length / Transfer-Encoding 은 엔티티가 직접 결정하므로 제외
+			headers.forEach((name, values) -> {
+				if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)
+						&& !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)) {
+					for (String value : values) {
+						request.addHeader(name, value);
+					}
+				}
+			});
+			if (body.size() > 0) {
+				request.setEntity(new ByteArrayEntity(body.toByteArray(), null));
+			}
+			return new HttpClient5Response(httpClient.executeOpen(null, request, null));
+		}
+	}
+
+	private static class HttpClient5Response implements ClientHttpResponse {
+		private final ClassicHttpResponse response;
+		private HttpHeaders headers;
+
+		HttpClient5Response(ClassicHttpResponse response) {
+			this.response = response;
+		}
+
+		@Override
+		public HttpStatus getStatusCode() {
+			return HttpStatus.valueOf(response.getCode());
+		}
+
+		@Override
+		public int getRawStatusCode() {
+			return response.getCode();
+		}
+
+		@Override
+		public String getStatusText() {
+			return response.getReasonPhrase();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			if (headers == null) {
+				headers = new HttpHeaders();
+				for (Header header : response.getHeaders()) {
+					headers.add(header.getName(), header.getValue());
+				}
+			}
+			return headers;
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			HttpEntity entity = response.getEntity();
+			return entity != null ? entity.getContent() : InputStream.nullInputStream();
+		}
+
+		@Override
+		public void close() {
+			// 남은 본문을 끝까지 읽어야 커넥션이 폐기되지 않고 풀로 반환됩니다.
+			try {
+				try {
+					EntityUtils.consume(response.getEntity());
+				} finally {
+					response.close();
+				}
+			} catch (IOException ignored) {
+			}
+		}
+	}
+}
@@ -1,9 +1,11 @@
 package com.kh.back.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -17,8 +19,19 @@ public class RedisConfig {
 		// Key와 Value의 직렬화 방식을 설정
 		template.setKeySerializer(new StringRedisSerializer());
 		template.setValueSerializer(new StringRedisSerializer());
+		template.setHashKeySerializer(new StringRedisSerializer());
+		template.setHashValueSerializer(new StringRedisSerializer());
 		
 		return template;
 	}
+
+	// 채팅 클러스터 모드에서 방별 pub/sub 채널 구독용 (ChatRelay)
+	@Bean
+	@ConditionalOnProperty(name = "chat.cluster.enabled", havingValue = "true")
+	public RedisMessageListenerContainer chatListenerContainer(RedisConnectionFactory connectionFactory) {
+		RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+		container.setConnectionFactory(connectionFactory);
+		return container;
+	}
 }
 
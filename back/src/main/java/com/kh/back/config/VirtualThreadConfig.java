@@ -0,0 +1,87 @@
+package com.kh.back.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ExecutorConfigurationSupport;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 가상 스레드 실행 프로필 (spring.profiles.active=virtual-threads, JDK 21 이상)
+ * - Tomcat 요청 처리를 요청마다 새 가상 스레드에서 수행합니다. WebSocket 메시지 수신(WebSocketHandler)도 Tomcat 스레드에서 실행되므로 함께 옮겨집니다.
+ * - @Scheduled 스케줄러(taskScheduler)와 sidecarExecutor/chatSendExecutor 풀의 스레드를 가상 스레드로 만듭니다.
+ *   풀 크기는 그대로 두므로 동시 실행 수 제한(사이드카 bulkhead, 세션별 전송 순서)은 유지됩니다.
+ * - 기본 빌드 툴체인은 17 이라 가상 스레드 API 는 리플렉션으로 찾습니다. JDK 21 미만에서 이 프로필을 켜면 기동에 실패합니다.
+ *   빌드/실행 : ./gradlew bootRun -PjavaVersion=21 --args='--spring.profiles.active=virtual-threads'
+ *
+ * pinning 점검 (JDK 21~23 에서는 synchronized 안에서 대기하면 캐리어 스레드가 묶임, -Djdk.tracePinnedThreads=short 로 확인)
+ * - FirebaseConfig : 기동 시 한 번 실행되지만 synchronized 대신 ReentrantLock 으로 변경
+ * - RecipeDetailLoader, SidecarCircuitBreaker, ChatRecentMessages : 메모리 연산만 하고 I/O 대기가 없어 그대로 둠
+ * - ChatPersister, ChatPresence : 이미 ReentrantLock 사용
+ * - MySQL Connector/J 8.0 은 소켓 I/O 를 synchronized 안에서 수행하므로, -PjavaVersion=21 빌드는 9.x 드라이버를 사용 (build.gradle)
+ */
+@Slf4j
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadConfig {
+
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+		ExecutorService executor = newThreadPerTaskExecutor(virtualThreadFactory("http-vt-"));
+		log.info("[VirtualThreadConfig] Tomcat 요청 처리를 가상 스레드로 실행합니다. (JDK {})", Runtime.version());
+		return protocolHandler -> protocolHandler.setExecutor(executor);
+	}
+
+	// 스레드 풀은 초기화(afterPropertiesSet) 전에 스레드 팩토리를 바꿔야 하므로 BeanPostProcessor 로 처리
+	@Bean
+	public static BeanPostProcessor virtualThreadPoolPostProcessor(Environment environment) {
+		Integer schedulingPoolSize = environment.getProperty("virtual-threads.scheduling.pool-size", Integer.class);
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				if (bean instanceof ExecutorConfigurationSupport) {
+					((ExecutorConfigurationSupport) bean).setThreadFactory(virtualThreadFactory(beanName + "-vt-"));
+					// 스케줄러 풀 크기는 AsyncConfig(scheduling.pool-size)를 따르고, 지정한 경우에만 바꿈
+					if (schedulingPoolSize != null && bean instanceof ThreadPoolTaskScheduler) {
+						((ThreadPoolTaskScheduler) bean).setPoolSize(schedulingPoolSize);
+					}
+					log.info("[VirtualThreadConfig] {} 를 가상 스레드로 실행합니다.", beanName);
+				}
+				return bean;
+			}
+		};
+	}
+
+	private static ExecutorService newThreadPerTaskExecutor(ThreadFactory threadFactory) {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+					.invoke(null, threadFactory);
+		} catch (ReflectiveOperationException e) {
+			throw unsupported(e);
+		}
+	}
+
+	// Thread.ofVirtual().name(prefix, 0).factory()
+	private static ThreadFactory virtualThreadFactory(String prefix) {
+		try {
+			Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+			return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException e) {
+			throw unsupported(e);
+		}
+	}
+
+	private static IllegalStateException unsupported(Exception e) {
+		return new IllegalStateException("virtual-threads 프로필은 JDK 21 이상에서 실행해야 합니다. 현재 JDK: " + Runtime.version(), e);
+	}
+}
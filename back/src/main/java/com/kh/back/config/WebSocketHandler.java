@@ -1,17 +1,20 @@
 package com.kh.back.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kh.back.constant.MsgType;
 import com.kh.back.dto.chat.request.ChatDto;
 import com.kh.back.service.ChatService;
+import com.kh.back.service.chat.ChatCompactCodec;
+import com.kh.back.service.chat.ChatFanout;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.SubProtocolCapable;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -19,18 +22,24 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 @Component
 //WebSocketHandler 를 상속받아 WebSocketHandler 를 구현
-public class WebSocketHandler extends TextWebSocketHandler {
-	private final ObjectMapper objectMapper; //JSON 문자열로 변환하기 위한 객체
+public class WebSocketHandler extends TextWebSocketHandler implements SubProtocolCapable {
+	private final ChatCompactCodec chatCompactCodec; // 기존 JSON / 압축 프로토콜 메시지를 ChatDto 로 변환
 	private final ChatService chatService; // 채팅방 관련 비즈니스 로직을 처리할 서비스
+	private final ChatFanout chatFanout; // 세션별 송신 큐
 	private final Map<WebSocketSession, String> sessionRoomIdMap = new ConcurrentHashMap<>();
 	@Override
+	// 클라이언트가 핸드셰이크에서 요청하면 압축 프로토콜로 협상 (요청하지 않으면 기존 JSON)
+	public List<String> getSubProtocols() {
+		return List.of(ChatCompactCodec.PROTOCOL);
+	}
+	@Override
 	//클라이언트가 서버로 연결을 시도할 때 호출
 	protected void handleTextMessage(WebSocketSession session, TextMessage msg) {
 		try {
 			String payload = msg.getPayload();
-			log.warn("payload : {}", payload);
+			log.debug("payload : {}", payload); // 도배 시 로그가 넘치지 않도록 debug
 			// JSON 문자열을 ChatMessageDto 변환 작업
-			ChatDto chatMsg = objectMapper.readValue(payload, ChatDto.class);
+			ChatDto chatMsg = chatCompactCodec.decode(payload);
 			String roomId = chatMsg.getRoomId();
 
 			if (chatMsg.getType() == MsgType.ENTER) {
@@ -38,9 +47,10 @@ public class WebSocketHandler extends TextWebSocketHandler {
 				chatService.addSessionAndHandlerEnter(roomId, session, chatMsg);
 			} else if (chatMsg.getType() == MsgType.CLOSE) {
 				chatService.removeSessionAndHandleExit(roomId, session, chatMsg);
+			} else if (chatMsg.getType() == MsgType.BOT) {
+				chatService.askBot(session, chatMsg); // 챗봇 답변은 이 세션에만 전송, 채팅 내역에 저장하지 않음
 			} else {
-				chatService.sendMsgToAll(roomId, chatMsg);
-				chatService.saveMsg(chatMsg.getRoomId(), chatMsg.getMemberId(), chatMsg.getMsg());
+				chatService.receiveMsg(session, roomId, chatMsg); // 세션/방 전송 한도 확인 후 전송/저장
 			}
 		} catch (Exception e) {
 			log.error("handleTextMessage에서 에러 발생", e);
@@ -51,6 +61,8 @@ public class WebSocketHandler extends TextWebSocketHandler {
 		//세션과 매핑된 채팅방 ID 가져오기
 		try {
 			log.error("연결 해제 이후 동작(채팅방 종료) : {}", session);
+			chatFanout.unregister(session);
+			chatService.releaseSession(session);
 			String roomId = sessionRoomIdMap.remove(session);
 			if (roomId != null) {
 				ChatDto chatMsg = new ChatDto();
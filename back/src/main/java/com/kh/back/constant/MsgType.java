@@ -1,5 +1,5 @@
 package com.kh.back.constant;
 
 public enum MsgType {
-	ENTER, TALK, CLOSE
+	ENTER, TALK, CLOSE, BOT
 }
@@ -7,13 +7,16 @@ import com.kh.back.dto.chat.res.ChatRoomResDto;
 import com.kh.back.service.ChatService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -94,9 +97,20 @@ public class ChatController {
         return ResponseEntity.ok(chatMsgDto);
     }
 
-    // 채팅 내역 리스트
+    // 채팅 내역 리스트 (커서가 없으면 최근 내역, 있으면 그 메시지보다 이전 내역)
+    // 커서: 가장 오래된 메시지의 id(before), id 가 아직 없으면(저장 대기 중) 보낸 시각(beforeSentAt, ISO)
     @GetMapping("/message/{roomId}")
-    public ResponseEntity<List<ChatDto>> findAll(@PathVariable String roomId) {
+    public ResponseEntity<List<ChatDto>> findAll(@PathVariable String roomId,
+                                                 @RequestParam(required = false) Long before,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeSentAt,
+                                                 @RequestParam(defaultValue = "50") int size) {
+        int pageSize = Math.min(Math.max(size, 1), 100);
+        if (before != null) {
+            return ResponseEntity.ok(chatService.findChattingBefore(roomId, before, pageSize));
+        }
+        if (beforeSentAt != null) {
+            return ResponseEntity.ok(chatService.findChattingBefore(roomId, beforeSentAt, pageSize));
+        }
         return ResponseEntity.ok(chatService.findAllChatting(roomId));
     }
 
@@ -107,8 +121,10 @@ public class ChatController {
         return ResponseEntity.ok(isTrue);
     }
     
+    // 챗봇 답변 (사이드카 응답을 기다리는 동안 요청 스레드를 점유하지 않도록 비동기로 반환)
+    // 답변을 도착하는 대로 받으려면 WebSocket 으로 {type: "BOT", msg} 를 보냄
     @GetMapping("/public/bot/{message}")
-    public ResponseEntity<List<Map<String, String>>> getBotAns(@PathVariable String message) {
-        return ResponseEntity.ok(chatService.getBotResponse(message));
+    public CompletableFuture<ResponseEntity<List<Map<String, String>>>> getBotAns(@PathVariable String message) {
+        return chatService.getBotResponse(message).thenApply(ResponseEntity::ok);
     }
 }
@@ -0,0 +1,126 @@
+package com.kh.back.controller;
+
+import com.kh.back.service.action.ReActionService;
+import com.kh.back.service.chat.ChatBot;
+import com.kh.back.service.chat.ChatFanout;
+import com.kh.back.service.chat.ChatPersister;
+import com.kh.back.service.chat.ChatPresence;
+import com.kh.back.service.chat.ChatRateLimiter;
+import com.kh.back.service.chat.ChatRelay;
+import com.kh.back.service.chat.ChatRoomRegistry;
+import com.kh.back.service.forum.ForumViewCounter;
+import com.kh.back.service.forum.HtmlSanitizer;
+import com.kh.back.service.member.MemberService;
+import com.kh.back.service.python.RecipeDetailLoader;
+import com.kh.back.service.python.RecipeResultCache;
+import com.kh.back.service.python.RecipeViewCounter;
+import com.kh.back.service.python.SidecarClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 운영 지표 조회 컨트롤러 (관리자 전용)
+ * - 구성 요소 이름 -> 통계 공급자 맵 하나로 /admin/monitor/{component} 를 처리합니다.
+ * - 새 지표는 생성자의 맵에 한 줄 추가하면 됩니다.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/monitor")
+@CrossOrigin(origins = "http://localhost:3000")
+public class MonitorController {
+
+	private final MemberService memberService;
+	private final ChatRoomRegistry chatRoomRegistry;
+	private final Map<String, Supplier<Map<String, Object>>> components = new LinkedHashMap<>();
+
+	public MonitorController(MemberService memberService,
+							 SidecarClient sidecarClient,
+							 RecipeResultCache recipeResultCache,
+							 RecipeViewCounter recipeViewCounter,
+							 RecipeDetailLoader recipeDetailLoader,
+							 ReActionService reActionService,
+							 ChatFanout chatFanout,
+							 ChatPersister chatPersister,
+							 ChatRelay chatRelay,
+							 ChatRoomRegistry chatRoomRegistry,
+							 ChatPresence chatPresence,
+							 ChatBot chatBot,
+							 ChatRateLimiter chatRateLimiter,
+							 ForumViewCounter forumViewCounter,
+							 HtmlSanitizer htmlSanitizer) {
+		this.memberService = memberService;
+		this.chatRoomRegistry = chatRoomRegistry;
+		// Flask 사이드카 커넥션 풀 / 엔드포인트별 호출 통계, bulkhead 사용량, 서킷 브레이커 상태
+		components.put("sidecar", sidecarClient::stats);
+		// 레시피 검색/상세 결과 캐시 적중률, 무효화 통계
+		components.put("recipe-cache", recipeResultCache::stats);
+		// 레시피 조회수 버퍼 (누적/전송/재시도)
+		components.put("recipe-views", recipeViewCounter::stats);
+		// 상세 단건 조회 합치기(배치) 통계
+		components.put("recipe-loader", recipeDetailLoader::stats);
+		// 좋아요/신고 쓰기 지연 버퍼 (상쇄/반영/실패 건수)
+		components.put("reactions", reActionService::stats);
+		// 채팅 팬아웃 (세션별 송신 큐 적재량, 전송/실패 건수, 느린 소비자 강제 종료 수)
+		components.put("chat", chatFanout::stats);
+		// 채팅 저장 쓰기 지연 (적재/저장/직접 저장/버림/인수 건수)
+		components.put("chat-persist", chatPersister::stats);
+		// 다중 노드 채팅 중계 (노드 id, 구독 중인 방 수, 발행/수신 건수)
+		components.put("chat-relay", chatRelay::stats);
+		// 채팅방 참여 회원 현황 (입장/퇴장 수, DB 반영 대기/완료/실패 건수)
+		components.put("chat-presence", chatPresence::stats);
+		// 챗봇 답변 캐시 적중/미적중, 스트리밍 전송 답변 수
+		components.put("chat-bot", chatBot::stats);
+		// 채팅 전송 한도 (허용/지연/세션 한도 초과/방 한도 초과 건수)
+		components.put("chat-rate", chatRateLimiter::stats);
+		// 포럼 조회수 버퍼 (집계/중복 제외/전송 건수, 재시도 대기 여부)
+		components.put("forum-views", forumViewCounter::stats);
+		// 포럼 HTML 정제 캐시 (적중/미적중, 길이 초과 거절 건수)
+		components.put("forum-sanitize", htmlSanitizer::stats);
+	}
+
+	// 조회 가능한 구성 요소 이름 목록
+	@GetMapping
+	public ResponseEntity<Set<String>> components(Authentication auth) {
+		if (!isAdmin(auth)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		return ResponseEntity.ok(components.keySet());
+	}
+
+	@GetMapping("/{component}")
+	public ResponseEntity<Map<String, Object>> stats(Authentication auth, @PathVariable String component) {
+		if (!isAdmin(auth)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		Supplier<Map<String, Object>> stats = components.get(component);
+		if (stats == null) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok(stats.get());
+	}
+
+	// 채팅방별 접속 세션 수, 누적/초당 메시지 수 (세션이 많은 순 상위 top 개)
+	@GetMapping("/chat-rooms")
+	public ResponseEntity<Map<String, Object>> chatRooms(Authentication auth, @RequestParam(defaultValue = "20") int top) {
+		if (!isAdmin(auth)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		return ResponseEntity.ok(chatRoomRegistry.stats(top));
+	}
+
+	private boolean isAdmin(Authentication auth) {
+		if (auth == null || !memberService.isAdmin(memberService.getMemberId(auth))) {
+			log.error("관리자가 아닌 회원이 운영 지표를 조회하고 있습니다. : {}", auth);
+			return false;
+		}
+		return true;
+	}
+}
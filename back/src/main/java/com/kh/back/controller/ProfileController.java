@@ -16,6 +16,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -110,12 +111,12 @@ public class ProfileController {
      * @return 레시피 리스트 (id, title, createdAt)
      */
     @GetMapping("/recipes")
-    public List<Map<String, Object>> getUserRecipes(
+    public CompletableFuture<List<Map<String, Object>>> getUserRecipes(
             @RequestParam Long memberId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
         log.info("레시피 조회 요청: memberId={}, page={}, size={}", memberId, page, size);
-        return recipeService.getUserRecipes(memberId, page, size);
+        return recipeService.getUserRecipesAsync(memberId, page, size);
     }
 }
\ No newline at end of file
@@ -1,13 +1,17 @@
 package com.kh.back.controller.forum;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.kh.back.dto.forum.response.ForumCategoryDto;
 import com.kh.back.service.forum.ForumCategoryService;
+import com.kh.back.service.python.SidecarClient;
+import com.kh.back.service.python.SidecarEndpoint;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpStatusCodeException;
 
+import java.net.URI;
 import java.util.List;
 
 /**
@@ -22,8 +26,8 @@ import java.util.List;
 public class ForumCategoryController {
 
     private final ForumCategoryService categoryService;
-    // KR: Flask 서비스와 통신하기 위한 RestTemplate을 의존성 주입 받습니다.
-    private final RestTemplate restTemplate;
+    // KR: Flask 서비스 호출은 사이드카 클라이언트(연결 풀, 엔드포인트별 한도/브레이커)를 거칩니다.
+    private final SidecarClient sidecarClient;
 
     /**
      * [전체 카테고리 조회 엔드포인트]
@@ -58,26 +62,22 @@ public class ForumCategoryController {
      * [Flask 포럼 카테고리 프록시 조회 엔드포인트]
      * KR: Spring Boot 백엔드가 Flask 서비스의 포럼 카테고리 데이터를 대신 호출하여 클라이언트에 반환합니다.
      *     이를 통해 프론트엔드는 단일 도메인(Spring Boot)에서 모든 데이터를 받아볼 수 있습니다.
-     *     Flask의 포럼 카테고리 조회 엔드포인트 URL: http://localhost:5001/forum/category
+     *     Flask의 포럼 카테고리 조회 엔드포인트: {flask.base-url}/forum/category
      *
-     * @return Flask에서 반환한 포럼 카테고리 JSON 문자열
+     * @return Flask에서 반환한 포럼 카테고리 JSON
      */
     @GetMapping("/proxy")
     public ResponseEntity<?> getCategoriesFromFlask() {
         log.info("Flask 포럼 카테고리 조회 프록시 요청");
         try {
-            // KR: Flask 서비스의 포럼 카테고리 조회 URL 정의 (Flask는 포트 5001에서 실행됨)
-            String flaskUrl = "http://localhost:5001/forum/category";
-            // KR: RestTemplate을 사용하여 Flask 서비스에 GET 요청 전송
-            ResponseEntity<String> flaskResponse = restTemplate.getForEntity(flaskUrl, String.class);
-            if (flaskResponse.getStatusCode().is2xxSuccessful()) {
-                log.info("Flask 포럼 카테고리 조회 성공, 응답: {}", flaskResponse.getBody());
-                // KR: Flask가 반환한 JSON 데이터를 그대로 클라이언트에 반환
-                return ResponseEntity.ok(flaskResponse.getBody());
-            } else {
-                log.error("Flask 포럼 카테고리 조회 실패, 상태: {}", flaskResponse.getStatusCode());
-                return ResponseEntity.status(flaskResponse.getStatusCode()).body(flaskResponse.getBody());
-            }
+            URI uri = URI.create(sidecarClient.getBaseUrl() + "/forum/category");
+            // KR: Flask가 반환한 JSON 데이터를 그대로 클라이언트에 반환
+            JsonNode categories = sidecarClient.get(SidecarEndpoint.FORUM, uri, JsonNode.class);
+            log.debug("Flask 포럼 카테고리 조회 성공, 응답: {}", categories);
+            return ResponseEntity.ok(categories);
+        } catch (HttpStatusCodeException e) {
+            log.error("Flask 포럼 카테고리 조회 실패, 상태: {}", e.getStatusCode());
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsString());
         } catch (Exception e) {
             log.error("Flask 포럼 카테고리 조회 중 예외 발생: {}", e.getMessage());
             return ResponseEntity.status(500).body("Flask 포럼 카테고리 조회 중 오류 발생: " + e.getMessage());
@@ -12,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/forums/my")
@@ -45,13 +46,12 @@ public class ForumMyContentController {
      * 예: GET /api/forums/my/posts?memberId=66&page=0&size=10
      */
     @GetMapping("/posts")
-    public ResponseEntity<List<ForumPostResponseDto>> getMyPosts(
+    public CompletableFuture<ResponseEntity<List<ForumPostResponseDto>>> getMyPosts(
             @RequestParam Long memberId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         log.info("memberId {}의 게시글만 조회 요청, 페이지: {}, 사이즈: {}", memberId, page, size);
-        List<ForumPostResponseDto> posts = forumEsService.searchPostsByMember(memberId, page, size);
-        return ResponseEntity.ok(posts);
+        return forumPostService.getPostsByMemberAsync(memberId, page, size).thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -59,12 +59,11 @@ public class ForumMyContentController {
      * 예: GET /api/forums/my/comments?memberId=66&page=0&size=10
      */
     @GetMapping("/comments")
-    public ResponseEntity<List<ForumPostCommentResponseDto>> getMyComments(
+    public CompletableFuture<ResponseEntity<List<ForumPostCommentResponseDto>>> getMyComments(
             @RequestParam Long memberId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         log.info("memberId {}의 댓글만 조회 요청, 페이지: {}, 사이즈: {}", memberId, page, size);
-        List<ForumPostCommentResponseDto> comments = forumEsService.searchCommentsByMember(memberId, page, size);
-        return ResponseEntity.ok(comments);
+        return forumPostCommentService.getCommentsByMemberAsync(memberId, page, size).thenApply(ResponseEntity::ok);
     }
 }
\ No newline at end of file
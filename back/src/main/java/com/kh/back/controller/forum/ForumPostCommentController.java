@@ -3,6 +3,8 @@ package com.kh.back.controller.forum;
 import com.kh.back.dto.forum.request.CommentReportRequestDto;
 import com.kh.back.dto.forum.request.ForumPostCommentRequestDto;
 import com.kh.back.dto.forum.request.ReportRequestDto;
+import com.kh.back.dto.forum.response.ForumCommentThreadDto;
+import com.kh.back.dto.forum.response.ForumCommentThreadPageDto;
 import com.kh.back.dto.forum.response.ForumPostCommentResponseDto;
 import com.kh.back.dto.forum.response.ForumPostLikeResponseDto;
 import com.kh.back.service.forum.ForumPostCommentService;
@@ -14,6 +16,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 댓글 컨트롤러 클래스
@@ -35,10 +38,48 @@ public class ForumPostCommentController {
      * @return 댓글 리스트 (Response DTO)
      */
     @GetMapping("/{postId}")
-    public ResponseEntity<List<ForumPostCommentResponseDto>> getCommentsForPost(@PathVariable String postId) {
+    public CompletableFuture<ResponseEntity<List<ForumPostCommentResponseDto>>> getCommentsForPost(@PathVariable String postId) {
         log.info("게시글 ID: {} 의 댓글 목록 조회", postId);
-        List<ForumPostCommentResponseDto> comments = commentService.getCommentsForPost(postId);
-        return ResponseEntity.ok(comments);
+        return commentService.getCommentsForPostAsync(postId).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * 특정 게시글의 댓글 스레드 조회 (최상위 댓글 페이지 + 답글 일부)
+     *
+     * @param postId  게시글 ID
+     * @param after   이전 응답의 nextCursor (없으면 첫 페이지)
+     * @param size    최상위 댓글 수
+     * @param replies 최상위 댓글마다 함께 담을 답글 수
+     * @return 댓글 스레드 페이지
+     */
+    @GetMapping("/{postId}/threads")
+    public ResponseEntity<ForumCommentThreadPageDto> getCommentThreads(
+            @PathVariable String postId,
+            @RequestParam(required = false) Integer after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "3") int replies
+    ) {
+        return ResponseEntity.ok(commentService.getCommentThreads(postId, after, Math.min(size, 100), Math.min(replies, 100)));
+    }
+
+    /**
+     * 최상위 댓글 하나의 답글 더 보기
+     *
+     * @param postId    게시글 ID
+     * @param commentId 최상위 댓글 ID
+     * @param after     이전 응답의 nextReplyCursor (없으면 처음부터)
+     * @param size      답글 수
+     * @return 답글 페이지가 담긴 댓글 스레드
+     */
+    @GetMapping("/{postId}/threads/{commentId}/replies")
+    public ResponseEntity<ForumCommentThreadDto> getCommentReplies(
+            @PathVariable String postId,
+            @PathVariable Integer commentId,
+            @RequestParam(required = false) Integer after,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        ForumCommentThreadDto thread = commentService.getCommentReplies(postId, commentId, after, Math.min(size, 200));
+        return thread != null ? ResponseEntity.ok(thread) : ResponseEntity.notFound().build();
     }
 
     /**
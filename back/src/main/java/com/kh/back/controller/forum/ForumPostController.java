@@ -11,10 +11,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 게시글 컨트롤러 클래스
@@ -36,22 +39,22 @@ public class ForumPostController {
      * @param categoryId 카테고리 ID (여기서는 기존에 Integer로 처리됨)
      * @param page       페이지 번호 (1부터 시작)
      * @param size       페이지 크기
+     * @param cursor     이전 응답의 nextCursor (있으면 page 대신 이어서 조회)
      * @return 게시글 목록 (페이지네이션 포함)
      */
     @GetMapping
-    public ResponseEntity<PaginationDto<ForumPostResponseDto>> getPostsByCategory(
+    public CompletableFuture<ResponseEntity<PaginationDto<ForumPostResponseDto>>> getPostsByCategory(
             @RequestParam String categoryId,
             @RequestParam int page,
-            @RequestParam int size
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor
     ) {
         // 페이지 파라미터 보정 (1-based -> 0-based)
         int zeroBasedPage = page > 0 ? page - 1 : 0;
 
-        // ES 기반으로 검색하여 PaginationDto 반환
-        PaginationDto<ForumPostResponseDto> pagination =
-                postService.getPostsByCategory(categoryId, zeroBasedPage, size);
-
-        return ResponseEntity.ok(pagination);
+        // ES 기반으로 검색하여 PaginationDto 반환 (사이드카 호출은 비동기)
+        return postService.getPostsByCategoryAsync(categoryId, zeroBasedPage, size, cursor)
+                .thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -233,17 +236,18 @@ public class ForumPostController {
      * @return 게시글 상세 정보 (없으면 404)
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ForumPostResponseDto> getPostDetails(@PathVariable String id) {
-        Optional<ForumPostResponseDto> optDto = postService.getPostDetails(id);
-        if (optDto.isPresent()) {
-            ForumPostResponseDto dto = optDto.get();
-            // 추가: 최종 응답 전 DTO 값을 로그로 출력
-            log.debug("getPostDetails() 응답 DTO: {}", dto);
-            return ResponseEntity.ok(dto);
-        } else {
-            log.warn("getPostDetails() -> 게시글을 찾을 수 없습니다. ID: {}", id);
-            return ResponseEntity.notFound().build();
-        }
+    public CompletableFuture<ResponseEntity<ForumPostResponseDto>> getPostDetails(@PathVariable String id) {
+        return postService.getPostDetailsAsync(id).thenApply(optDto -> {
+            if (optDto.isPresent()) {
+                ForumPostResponseDto dto = optDto.get();
+                // 추가: 최종 응답 전 DTO 값을 로그로 출력
+                log.debug("getPostDetails() 응답 DTO: {}", dto);
+                return ResponseEntity.ok(dto);
+            } else {
+                log.warn("getPostDetails() -> 게시글을 찾을 수 없습니다. ID: {}", id);
+                return ResponseEntity.notFound().build();
+            }
+        });
     }
 
     /**
@@ -253,11 +257,22 @@ public class ForumPostController {
      * @return 성공 상태 (200 OK)
      */
     @PostMapping("/{id}/increment-view")
-    public ResponseEntity<Void> incrementViewCount(@PathVariable String id) {
-        postService.incrementViewCount(id);
+    public ResponseEntity<Void> incrementViewCount(@PathVariable String id,
+                                                   Authentication authentication,
+                                                   HttpServletRequest request) {
+        postService.incrementViewCount(id, viewerKey(authentication, request));
         return ResponseEntity.ok().build();
     }
 
+    // 조회수 중복 확인용 조회자 키 (로그인 회원은 회원 id, 비로그인은 IP + User-Agent)
+    private String viewerKey(Authentication authentication, HttpServletRequest request) {
+        if (authentication != null && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "m:" + authentication.getName();
+        }
+        String userAgent = request.getHeader("User-Agent");
+        return "a:" + request.getRemoteAddr() + ":" + (userAgent != null ? Integer.toHexString(userAgent.hashCode()) : "");
+    }
+
     /**
      * 게시글 인용
      *
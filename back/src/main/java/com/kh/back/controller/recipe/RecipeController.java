@@ -10,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 통합 레시피 컨트롤러
@@ -37,7 +38,7 @@ public class RecipeController {
      * @return 검색 결과 (레시피 목록)
      */
     @GetMapping("/search")
-    public ResponseEntity<List<?>> searchRecipes(
+    public CompletableFuture<ResponseEntity<List<?>>> searchRecipes(
             @RequestParam(name = "q", required = false, defaultValue = "") String q,
             @RequestParam String type,
             @RequestParam(required = false, defaultValue = "") String category,
@@ -49,8 +50,9 @@ public class RecipeController {
         if ("cocktail".equalsIgnoreCase(type)) {
             cookingMethod = "";
         }
-        List<?> result = recipeService.searchRecipes(q, type, category, cookingMethod, page, size);
-        return ResponseEntity.ok(result);
+        // 사이드카 응답을 기다리는 동안 요청 스레드를 점유하지 않도록 비동기로 반환
+        return recipeService.searchRecipesAsync(q, type, category, cookingMethod, page, size)
+                .thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -62,10 +64,10 @@ public class RecipeController {
      * @return 상세 레시피 데이터
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getRecipeDetail(
+    public CompletableFuture<ResponseEntity<?>> getRecipeDetail(
             @PathVariable String id,
             @RequestParam String type) {
-        Object detail = recipeService.getRecipeDetail(id, type);
-        return ResponseEntity.ok(detail);
+        return recipeService.getRecipeDetailAsync(id, type)
+                .thenApply(ResponseEntity::ok);
     }
 }
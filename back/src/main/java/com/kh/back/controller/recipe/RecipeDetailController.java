@@ -11,7 +11,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
 @RestController
 @RequiredArgsConstructor
 @CrossOrigin(origins = "http://localhost:3000")
@@ -25,8 +24,6 @@ public class RecipeDetailController {
     private AddCocktailRecipeService cocktailRecipeService;
 
 
-    @Autowired
-    private RestTemplate restTemplate;
     @Autowired
     private MemberService memberService;
 
@@ -16,4 +16,14 @@ public class ChatDto {
 	private String img;
 	//    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSS")
 	private LocalDateTime regDate;
+
+	// 채팅 내역 조회 프로젝션 (ChatRepository)
+	public ChatDto(Long id, String roomId, Long memberId, String msg, String img, LocalDateTime regDate) {
+		this.id = id;
+		this.roomId = roomId;
+		this.memberId = memberId;
+		this.msg = msg;
+		this.img = img;
+		this.regDate = regDate;
+	}
 }
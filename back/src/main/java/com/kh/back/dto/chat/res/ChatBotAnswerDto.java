@@ -0,0 +1,23 @@
+package com.kh.back.dto.chat.res;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 챗봇 답변 한 건 (WebSocket 으로 도착하는 대로 전송, done=true 면 마지막 알림이며 title/content 는 없음)
+// 마지막 알림의 error 가 있으면 검색 실패/요청 거절 (답변이 없는 것과 구분)
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatBotAnswerDto {
+    private final String type = "BOT";
+    private String query;   // 질문
+    private int index;      // 답변 순서 (0 부터)
+    private String title;
+    private String content;
+    private boolean done;   // 답변 끝
+    private boolean cached; // 최근 같은 질문의 답변을 재사용
+    private String error;   // 실패 사유 (마지막 알림에만, 성공이면 null)
+}
@@ -0,0 +1,19 @@
+package com.kh.back.dto.chat.res;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 채팅방 입장/퇴장 알림 (채팅 내역에는 저장하지 않음)
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatPresenceDto {
+    private final String type = "PRESENCE";
+    private String roomId;
+    private Long memberId;
+    private boolean joined;   // true: 입장, false: 퇴장
+    private long memberCount; // 변경 후 채팅방 회원 수
+}
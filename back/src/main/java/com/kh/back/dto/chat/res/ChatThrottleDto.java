@@ -0,0 +1,18 @@
+package com.kh.back.dto.chat.res;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 전송 한도 초과로 메시지를 버렸다는 알림 (보낸 세션에만 전송)
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatThrottleDto {
+    private final String type = "THROTTLED";
+    private String roomId;
+    private String scope;      // session: 이 세션의 전송 한도, room: 방 전체 전송 한도
+    private long retryAfterMs; // 다시 보낼 수 있을 때까지 남은 시간 (방 한도는 0)
+}
@@ -0,0 +1,22 @@
+package com.kh.back.dto.forum.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 댓글 스레드 DTO
+ * KR: 최상위 댓글 하나와 그 아래 답글(답글의 답글 포함, 작성 순서대로 펼침) 일부를 담습니다.
+ *     replyCount 가 replies 보다 많으면 nextReplyCursor 로 나머지 답글을 이어서 조회합니다. (replies 가 비어 있으면 처음부터 조회)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForumCommentThreadDto {
+    private ForumPostCommentResponseDto comment; // 최상위 댓글
+    private List<ForumPostCommentResponseDto> replies; // 답글 (parentCommentId 로 대상 구분)
+    private Integer replyCount; // 전체 답글 수
+    private Integer nextReplyCursor; // 다음 답글 커서 (마지막 답글 ID, 더 없으면 null)
+}
@@ -0,0 +1,21 @@
+package com.kh.back.dto.forum.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 게시글 댓글 스레드 페이지 DTO
+ * KR: 최상위 댓글 기준 한 페이지. nextCursor(마지막 최상위 댓글 ID)를 after 로 넘기면 다음 페이지를 조회합니다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForumCommentThreadPageDto {
+    private List<ForumCommentThreadDto> threads; // 최상위 댓글 스레드 목록
+    private Integer totalThreads; // 전체 최상위 댓글 수
+    private Integer totalComments; // 답글 포함 전체 댓글 수
+    private Integer nextCursor; // 다음 페이지 커서 (더 없으면 null)
+}
@@ -0,0 +1,28 @@
+package com.kh.back.dto.forum.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 게시글 메타데이터 (권한 확인용)
+ * KR: 본문(content/contentJSON) 없이 작성자와 숨김/삭제 상태만 담습니다. Flask /forum/post/{id}/meta 응답
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ForumPostMetaDto {
+    private String id; // 게시글 ID
+    private Long memberId; // 작성자 ID
+    private String authorName; // 작성자 이름
+    private Boolean hidden; // 숨김 여부
+    private String removedBy; // 삭제자 정보
+    private String category; // 게시글 카테고리
+
+    public static ForumPostMetaDto of(ForumPostResponseDto post) {
+        return new ForumPostMetaDto(post.getId(), post.getMemberId(), post.getAuthorName(),
+                post.getHidden(), post.getRemovedBy(), post.getCategory());
+    }
+}
@@ -0,0 +1,20 @@
+package com.kh.back.dto.forum.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Flask /forum/posts/page 응답
+ * KR: 카테고리별 게시글 한 페이지와 전체 건수, 다음 페이지 커서(search_after 값, 마지막 페이지면 null)
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ForumPostPageDto {
+    private List<ForumPostResponseDto> items;
+    private long total;
+    private String nextCursor;
+}
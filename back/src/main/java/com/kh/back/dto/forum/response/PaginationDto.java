@@ -8,6 +8,7 @@ import java.util.List;
 
 /**
  * 페이지네이션 데이터를 포함한 응답 DTO
+ * - nextCursor 를 다음 요청의 cursor 로 넘기면 페이지 번호 대신 이어서 조회합니다. (깊은 페이지도 첫 페이지와 같은 비용)
  */
 @Data
 @NoArgsConstructor
@@ -17,4 +18,10 @@ public class PaginationDto<T> {
     private Integer currentPage; // 현재 페이지 번호
     private Integer totalPages; // 총 페이지 수
     private Long totalElements; // 총 데이터 수
+    private String nextCursor; // 다음 페이지 커서 (마지막 페이지면 null)
+    private List<T> sticky; // 상단 고정 데이터 (첫 페이지에만, data/totalElements 에는 포함되지 않음)
+
+    public PaginationDto(List<T> data, Integer currentPage, Integer totalPages, Long totalElements) {
+        this(data, currentPage, totalPages, totalElements, null, List.of());
+    }
 }
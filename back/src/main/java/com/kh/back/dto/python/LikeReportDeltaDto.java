@@ -0,0 +1,16 @@
+package com.kh.back.dto.python;
+
+import lombok.*;
+
+/**
+ * Flask /update/likes-reports 로 보내는 좋아요/신고 증감분 한 건
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class LikeReportDeltaDto {
+	private final String postId;  // Elasticsearch의 _id
+	private final String type;    // cocktail 또는 food
+	private final long value;     // 증감값
+	private final String keyType; // like 또는 report
+}
@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "chat")
+@Table(name = "chat", indexes = @Index(name = "idx_chat_room_sent", columnList = "room_id, sent_at")) // 방별 최신순 커서 조회용
 public class Chat {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -28,8 +28,8 @@ public class Chat {
     @Column(name = "msg")
     private String msg;
 
-    // 전송 시간
-    @Column(name = "sent_at")
+    // 전송 시간 (마이크로초까지 저장: 저장 전 메시지의 beforeSentAt 커서가 DB 값과 같아야 함)
+    @Column(name = "sent_at", columnDefinition = "DATETIME(6)")
     private LocalDateTime regDate;
 
     // 채팅방 id
@@ -6,6 +6,8 @@ import com.kh.back.entity.member.Member;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +17,8 @@ public interface ReactionRepository  extends JpaRepository<Reaction, Long> {
     Optional<Reaction> findByMemberAndPostIdAndAction(Member member, String postId, Action action);
     List<Reaction> findByMember(Member member);
     List<Reaction> findByMemberAndAction(Member member, Action action);
+
+    // Redis 회원 집합 초기화용: 게시글에 반응한 회원 id 목록
+    @Query("SELECT r.member.memberId FROM Reaction r WHERE r.postId = :postId AND r.action = :action")
+    List<Long> findMemberIdsByPostIdAndAction(@Param("postId") String postId, @Param("action") Action action);
 }
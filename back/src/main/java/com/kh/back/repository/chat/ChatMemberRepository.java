@@ -4,8 +4,10 @@ import com.kh.back.entity.member.Member;
 import com.kh.back.entity.chat.ChatMember;
 import com.kh.back.entity.chat.ChatRoom;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,4 +20,15 @@ public interface ChatMemberRepository extends JpaRepository<ChatMember, Long> {
     // 해당 roomId에 입장한 회원 수
     @Query("SELECT COUNT(cm) FROM ChatMember cm WHERE cm.chatRoom.id = :roomId")
     int cntRoomMember(@Param("roomId") String roomId);
+
+    // 전체 (채팅방 id, 회원 id) 목록. 기동 시 접속 현황(ChatPresence) 적재용
+    @Query("SELECT cm.chatRoom.id, cm.member.memberId FROM ChatMember cm")
+    List<Object[]> findAllMemberships();
+
+    boolean existsByChatRoom_IdAndMember_MemberId(String roomId, Long memberId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ChatMember cm WHERE cm.chatRoom.id = :roomId AND cm.member.memberId = :memberId")
+    int deleteMembership(@Param("roomId") String roomId, @Param("memberId") Long memberId);
 }
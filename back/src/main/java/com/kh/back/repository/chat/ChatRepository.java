@@ -1,16 +1,39 @@
 package com.kh.back.repository.chat;
 
 
+import com.kh.back.dto.chat.request.ChatDto;
 import com.kh.back.entity.chat.Chat;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ChatRepository extends JpaRepository <Chat, String> {
-    @Query(value = "SELECT * FROM chat WHERE room_id = ?1 ORDER BY sent_at ASC LIMIT 50", nativeQuery = true)
-    List<Chat> findRecentMsg(String roomId);
+    // 방의 최신 메시지부터 (회원 이미지는 조인으로 함께 가져와 메시지마다 Member 를 지연 로딩하지 않음)
+    @Query("SELECT new com.kh.back.dto.chat.request.ChatDto(c.id, c.chatRoom.id, m.memberId, c.msg, m.memberImg, c.regDate) " +
+            "FROM Chat c JOIN c.member m " +
+            "WHERE c.chatRoom.id = :roomId " +
+            "ORDER BY c.regDate DESC, c.id DESC")
+    List<ChatDto> findLatest(@Param("roomId") String roomId, Pageable pageable);
+
+    // before(chat_id) 메시지보다 오래된 메시지부터 (키셋 페이지네이션, idx_chat_room_sent 사용)
+    @Query("SELECT new com.kh.back.dto.chat.request.ChatDto(c.id, c.chatRoom.id, m.memberId, c.msg, m.memberImg, c.regDate) " +
+            "FROM Chat c JOIN c.member m " +
+            "WHERE c.chatRoom.id = :roomId " +
+            "AND (c.regDate < (SELECT b.regDate FROM Chat b WHERE b.id = :before) " +
+            "OR (c.regDate = (SELECT b.regDate FROM Chat b WHERE b.id = :before) AND c.id < :before)) " +
+            "ORDER BY c.regDate DESC, c.id DESC")
+    List<ChatDto> findOlder(@Param("roomId") String roomId, @Param("before") Long before, Pageable pageable);
+
+    // beforeSentAt 보다 먼저 보낸 메시지부터 (아직 chat_id 가 없는 최근 메시지를 커서로 쓸 때)
+    @Query("SELECT new com.kh.back.dto.chat.request.ChatDto(c.id, c.chatRoom.id, m.memberId, c.msg, m.memberImg, c.regDate) " +
+            "FROM Chat c JOIN c.member m " +
+            "WHERE c.chatRoom.id = :roomId AND c.regDate < :beforeSentAt " +
+            "ORDER BY c.regDate DESC, c.id DESC")
+    List<ChatDto> findOlderThan(@Param("roomId") String roomId, @Param("beforeSentAt") LocalDateTime beforeSentAt, Pageable pageable);
 }
@@ -4,32 +4,39 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.kh.back.dto.chat.request.ChatDto;
 import com.kh.back.dto.chat.request.ChatRoomReqDto;
+import com.kh.back.dto.chat.res.ChatPresenceDto;
 import com.kh.back.dto.chat.res.ChatRoomResDto;
+import com.kh.back.dto.chat.res.ChatThrottleDto;
 import com.kh.back.entity.member.Member;
-import com.kh.back.entity.chat.Chat;
-import com.kh.back.entity.chat.ChatMember;
 import com.kh.back.entity.chat.ChatRoom;
-import com.kh.back.repository.member.MemberRepository;
-import com.kh.back.repository.chat.ChatMemberRepository;
 import com.kh.back.repository.chat.ChatRepository;
 import com.kh.back.repository.chat.ChatRoomRepository;
+import com.kh.back.service.chat.ChatBot;
+import com.kh.back.service.chat.ChatCompactCodec;
+import com.kh.back.service.chat.ChatFanout;
+import com.kh.back.service.chat.ChatPayload;
+import com.kh.back.service.chat.ChatPersister;
+import com.kh.back.service.chat.ChatPresence;
+import com.kh.back.service.chat.ChatRateLimiter;
+import com.kh.back.service.chat.ChatRecentMessages;
+import com.kh.back.service.chat.ChatRelay;
+import com.kh.back.service.chat.ChatRoomRegistry;
 import com.kh.back.service.member.MemberService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.*;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.annotation.PostConstruct;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -38,21 +45,59 @@ import java.util.stream.Collectors;
 public class ChatService {
     private final ObjectMapper objectMapper; // JSON 문자열로 변환하기 위한 객체
     private final MemberService memberService;
-    private Map<String, ChatRoomResDto> chatRooms; // 채팅방 정보를 담을 맵
+    private final ChatRoomRegistry chatRoomRegistry; // 채팅방 정보와 접속 세션 (동시 접근 안전)
+    private final ChatRecentMessages chatRecentMessages; // 방별 최근 메시지 링 버퍼
     private final ChatRoomRepository chatRoomRepository;
     private final ChatRepository chatRepository;
-    private final ChatMemberRepository chatMemberRepository;
-    private final MemberRepository memberRepository;
+    private final ChatFanout chatFanout;
+    private final ChatCompactCodec chatCompactCodec;
+    private final ChatPersister chatPersister;
+    private final ChatRelay chatRelay;
+    private final ChatBot chatBot;
+    private final ChatRateLimiter chatRateLimiter; // 세션별/방별 전송 한도
+    private final ChatPresence chatPresence; // 채팅방 참여 회원 (메모리/Redis, DB 는 비동기 반영)
 
     @PostConstruct // 의존성 주입 이후 초기화 수행하는 메소드
     private void init() {
-        chatRooms = chatRoomRepository.findAll()
+        chatRoomRegistry.loadAll(chatRoomRepository.findAll()
                 .stream()
-                .collect(Collectors.toMap(ChatRoom::getId, this::convertEntityToRoomDto));
+                .map(this::convertEntityToRoomDto)
+                .collect(Collectors.toList()));
+        chatPresence.loadAll();
+
+        // 클러스터 모드: 다른 노드에서 온 메시지/방 삭제를 이 노드에 반영
+        chatRelay.resetNode(chatRoomRegistry.roomIds());
+        chatRelay.setListener(new ChatRelay.Listener() {
+            @Override
+            public void onRoomMessage(String roomId, TextMessage message) {
+                ChatRoomResDto room = chatRoomRegistry.get(roomId);
+                if (room != null) {
+                    chatRoomRegistry.recordMessage(roomId);
+                    appendRecent(roomId, message.getPayload());
+                    chatFanout.broadcast(roomId, room.getSessions(), chatCompactCodec.payload(message.getPayload()));
+                }
+            }
+
+            @Override
+            public void onPresence(String roomId, TextMessage message) {
+                ChatRoomResDto room = chatRoomRegistry.get(roomId);
+                if (room != null) {
+                    chatFanout.broadcast(roomId, room.getSessions(), chatCompactCodec.raw(message.getPayload()));
+                }
+            }
+
+            @Override
+            public void onRoomRemoved(String roomId) {
+                chatRoomRegistry.remove(roomId);
+                chatRecentMessages.evict(roomId);
+                chatPresence.removeRoom(roomId);
+                chatRateLimiter.removeRoom(roomId);
+            }
+        });
     }
 
     public List<ChatRoomResDto> findAllRoom() {
-        return new ArrayList<>(chatRooms.values());
+        return chatRoomRegistry.rooms();
     }
 
     // 채팅방 리스트 반환
@@ -77,11 +122,11 @@ public class ChatService {
                 .collect(Collectors.toList());
     }
 
-    // 채팅방에 입장한 회원 수 반환
+    // 채팅방에 입장한 회원 수 반환 (DB 조회 없이 ChatPresence 에서)
     public int cntOfRoomMember(String roomId) {
         try {
-            int memberCnt = chatMemberRepository.cntRoomMember(roomId);
-            log.info("채팅방Id : {}, 입장 회원 수 : {}", roomId, memberCnt);
+            int memberCnt = (int) chatPresence.count(roomId);
+            log.debug("채팅방Id : {}, 입장 회원 수 : {}", roomId, memberCnt);
             return memberCnt;
         } catch (Exception e) {
             log.error("채팅방 회원 수 반환 중 오류 : {}", e.getMessage());
@@ -89,9 +134,14 @@ public class ChatService {
         }
     }
 
-    // 채팅방 가져오기
+    // 채팅방 가져오기 (다른 노드에서 만든 방이면 DB 에서 읽어 등록)
     public ChatRoomResDto findRoomById(String roomId) {
-        ChatRoomResDto room = chatRooms.get(roomId);
+        ChatRoomResDto room = chatRoomRegistry.get(roomId);
+        if (room == null && chatRelay.isEnabled() && roomId != null) {
+            room = chatRoomRepository.findById(roomId)
+                    .map(entity -> chatRoomRegistry.putIfAbsent(convertEntityToRoomDto(entity)))
+                    .orElse(null);
+        }
         if (room == null) {
             throw new RuntimeException("해당 채팅방이 존재하지 않습니다: " + roomId);
         }
@@ -117,35 +167,69 @@ public class ChatService {
         chatRoomEntity.setPersonCnt(chatRoomDto.getPersonCnt());
         chatRoomRepository.save(chatRoomEntity);
 
-        chatRooms.put(randomId, chatRoom);
-        log.debug("현재 chatRooms: {}", chatRooms);
-        return chatRoom;
+        return chatRoomRegistry.putIfAbsent(chatRoom);
     }
 
     // 전체 채팅 내역
+    // 최근 채팅 내역 (오래된 순). 접속 중인 방이면 링 버퍼에서 바로 반환
     public List<ChatDto> findAllChatting(String roomId) {
-        List<Chat> chat = chatRepository.findRecentMsg(roomId);
-        List<ChatDto> chatMsgDtos = new ArrayList<>();
-        for (Chat chat1 : chat) {
-            chatMsgDtos.add(convertEntityToChatDto(chat1));
+        List<ChatDto> recent = chatRecentMessages.snapshot(roomId);
+        if (recent != null) {
+            return recent;
+        }
+        List<ChatDto> latest = new ArrayList<>(chatRepository.findLatest(roomId, PageRequest.of(0, chatRecentMessages.capacity())));
+        Collections.reverse(latest);
+        if (chatRoomRegistry.activeSessions(roomId) > 0) {
+            chatRecentMessages.warm(roomId, latest);
+        }
+        return latest;
+    }
+
+    // before(chat_id) 보다 오래된 채팅 내역 (오래된 순, 키셋 페이지네이션)
+    public List<ChatDto> findChattingBefore(String roomId, Long before, int size) {
+        List<ChatDto> older = new ArrayList<>(chatRepository.findOlder(roomId, before, PageRequest.of(0, size)));
+        Collections.reverse(older);
+        return older;
+    }
+
+    // beforeSentAt 보다 먼저 보낸 채팅 내역 (링 버퍼의 가장 오래된 메시지에 아직 chat_id 가 없을 때의 커서)
+    public List<ChatDto> findChattingBefore(String roomId, LocalDateTime beforeSentAt, int size) {
+        List<ChatDto> older = new ArrayList<>(chatRepository.findOlderThan(roomId, beforeSentAt, PageRequest.of(0, size)));
+        Collections.reverse(older);
+        return older;
+    }
+
+    // 링 버퍼가 있는 방이면 다른 노드에서 온 메시지도 덧붙임
+    private void appendRecent(String roomId, String json) {
+        if (!chatRecentMessages.isWarm(roomId)) return;
+        try {
+            chatRecentMessages.append(roomId, objectMapper.readValue(json, ChatDto.class));
+        } catch (IOException e) {
+            log.warn("중계 메시지 역직렬화 실패 : {}", e.getMessage());
         }
-        return chatMsgDtos;
     }
 
     // 채팅방 삭제
     public boolean removeRoom(String roomId) {
+        // 채팅방에 남아있는 회원 수 확인 (회원이 남아 있으면 DB 를 조회하지 않음)
+        int memberCount = cntOfRoomMember(roomId);
+        if (memberCount > 0) {
+            return false;
+        }
         ChatRoom chatRoom = chatRoomRepository.findById(roomId)
                 .orElseThrow(
                         () -> new RuntimeException("해당 채팅방이 존재하지 않습니다.1")
                 );
+        // 다른 노드에서 만든 방이라 이 노드 메모리에 없으면 findRoomById 처럼 DB 의 방을 등록한 뒤 판단
+        chatRoomRegistry.putIfAbsent(convertEntityToRoomDto(chatRoom));
 
-        // 채팅방에 남아있는 회원 수 확인
-        int memberCount = cntOfRoomMember(roomId);
-
-        // 채팅방에 회원이 없으면 삭제
-        if (memberCount == 0) {
-            chatRooms.remove(roomId); // 메모리에서 제거
-            chatRoomRepository.delete(chatRoom); // DB에서 제거
+        // 채팅방에 회원도 접속 세션도 없으면 삭제 (메모리에서 먼저 닫아 동시에 들어온 입장은 실패)
+        if (chatRoomRegistry.removeIfEmpty(roomId)) {
+            chatPresence.removeRoom(roomId); // 반영 대기 중인 참여 상태도 버림
+            chatRoomRepository.delete(chatRoom); // DB에서 제거 (ChatMember 도 함께 삭제)
+            chatRecentMessages.evict(roomId);
+            chatRateLimiter.removeRoom(roomId);
+            chatRelay.roomRemoved(roomId); // 다른 노드 메모리에서도 제거
             return true;
         }
         return false;
@@ -155,24 +239,23 @@ public class ChatService {
     public void addSessionAndHandlerEnter(String roomId, WebSocketSession session, ChatDto chatMessage) {
         ChatRoomResDto room = findRoomById(roomId);
         if (room != null) {
-            room.getSessions().add(session);    // 채팅방에 입장한 세션을 추가
-            log.debug("새로운 세션 추가");
-
-            Member member = memberRepository.findById(chatMessage.getMemberId()).orElseThrow(
-                    () -> new RuntimeException("해당 멤버 없음")
-            );
-            ChatRoom chatRoom = chatRoomRepository.findById(roomId)
-                .orElseThrow(() -> new RuntimeException("해당 채팅방 없음"));
-
-            Optional<ChatMember> existingChatMember = chatMemberRepository.findByMemberAndChatRoom(member, chatRoom);
-            if (existingChatMember.isEmpty()) {
-                ChatMember chatMember = new ChatMember();
-                chatMember.setMember(member);
-                chatMember.setChatRoom(chatRoom);
-
-                chatMemberRepository.save(chatMember);
+            if (chatRoomRegistry.join(roomId, session)) {    // 채팅방에 입장한 세션을 추가
+                chatRelay.sessionJoined(roomId);
+                log.debug("새로운 세션 추가");
+                if (!chatRecentMessages.isWarm(roomId)) {
+                    findAllChatting(roomId); // 첫 입장 때 링 버퍼를 채워 이후 입장은 DB 를 읽지 않음
+                }
+            }
+
+            if (chatMessage.getMemberId() == null) {
+                log.warn("입장 요청에 memberId가 없음");
+                return;
+            }
+            // 참여 회원은 메모리에서 바로 반영하고 ChatMember 테이블은 ChatPresence 가 비동기로 맞춤
+            if (chatPresence.join(roomId, chatMessage.getMemberId())) {
+                publishPresence(room, chatMessage.getMemberId(), true);
             } else {
-                log.info("이미 참여한 채팅방 멤버입니다.");
+                log.debug("이미 참여한 채팅방 멤버입니다.");
             }
         }
     }
@@ -184,7 +267,12 @@ public class ChatService {
             return;
         }
         
-        room.getSessions().remove(session);
+        if (chatRoomRegistry.leave(roomId, session)) {
+            chatRelay.sessionLeft(roomId);
+            if (chatRoomRegistry.activeSessions(roomId) == 0) {
+                chatRecentMessages.evict(roomId); // 접속자가 없는 방은 버퍼를 비움
+            }
+        }
         log.debug("세션 제거됨 : {}", session);
         
         if (chatMessage.getMemberId() == null) {
@@ -192,102 +280,121 @@ public class ChatService {
             return;
         }
         
-        Member member = memberRepository.findById(chatMessage.getMemberId()).orElse(null);
-        if (member == null) {
-            log.warn("해당 멤버를 찾을 수 없음: {}", chatMessage.getMemberId());
-            return;
-        }
-        
-        ChatRoom chatRoom = chatRoomRepository.findById(roomId).orElse(null);
-        if (chatRoom == null) {
-            log.warn("해당 채팅방을 찾을 수 없음: {}", roomId);
-            return;
+        boolean chatMemberDeleted = chatPresence.leave(roomId, chatMessage.getMemberId());
+        if (chatMemberDeleted) {
+            log.debug("ChatMember 삭제: memberId = {}, chatRoom = {}", chatMessage.getMemberId(), roomId);
+            publishPresence(room, chatMessage.getMemberId(), false);
         }
         
-        boolean chatMemberDeleted = chatMemberRepository.findByMemberAndChatRoom(member, chatRoom)
-            .map(chatMember -> {
-                chatMemberRepository.delete(chatMember);
-                log.debug("ChatMember 삭제: member = {}, chatRoom = {}", member.getNickName(), chatRoom.getId());
-                return true;
-            }).orElse(false);
-        
-        if (room.isSessionEmpty() || chatMemberDeleted) {
+        if (isRoomEmpty(roomId) || chatMemberDeleted) {
             removeRoom(roomId);
         }
     }
     
     
+    // 입장/퇴장 알림을 방의 세션에 전달 (클러스터 모드면 다른 노드에도 발행)
+    private void publishPresence(ChatRoomResDto room, Long memberId, boolean joined) {
+        try {
+            ChatPresenceDto presence = new ChatPresenceDto(room.getRoomId(), memberId, joined, chatPresence.count(room.getRoomId()));
+            String json = objectMapper.writeValueAsString(presence);
+            chatFanout.broadcast(room.getRoomId(), room.getSessions(), chatCompactCodec.raw(json));
+            chatRelay.publishPresence(room.getRoomId(), json);
+        } catch (IOException e) {
+            log.error("입장/퇴장 알림 직렬화 실패 : {}", e.getMessage());
+        }
+    }
+
+    // 클러스터 모드면 모든 노드의 세션 수, 아니면 이 노드의 세션 수로 판단
+    private boolean isRoomEmpty(String roomId) {
+        long clusterCount = chatRelay.clusterSessionCount(roomId);
+        return clusterCount < 0 ? chatRoomRegistry.activeSessions(roomId) == 0 : clusterCount <= 0;
+    }
+
+    // 채팅 메시지 수신: 전송 한도 안이면 전송/저장, 방 한도를 조금 넘으면 늦춰서, 그 이상이면 버리고 보낸 세션에 알림
+    public void receiveMsg(WebSocketSession session, String roomId, ChatDto msg) {
+        long delayMs = chatRateLimiter.acquire(session.getId(), roomId);
+        if (delayMs == ChatRateLimiter.SESSION_LIMITED) {
+            sendMsg(session, new ChatThrottleDto(roomId, "session", chatRateLimiter.retryAfterMs(session.getId())));
+        } else if (delayMs == ChatRateLimiter.ROOM_LIMITED) {
+            sendMsg(session, new ChatThrottleDto(roomId, "room", 0));
+        } else if (delayMs > 0) {
+            chatRateLimiter.schedule(() -> deliverMsg(roomId, msg), delayMs);
+        } else {
+            deliverMsg(roomId, msg);
+        }
+    }
+
+    private void deliverMsg(String roomId, ChatDto msg) {
+        try {
+            sendMsgToAll(roomId, msg);
+            chatPersister.enqueue(roomId, msg.getMemberId(), msg.getMsg(), msg.getRegDate()); // 링 버퍼와 같은 시각으로 저장 (beforeSentAt 커서)
+        } catch (Exception e) {
+            log.error("채팅 메시지 처리 실패 : {}", e.getMessage());
+        }
+    }
+
+    // 챗봇 질문도 세션 전송 한도를 적용 (사이드카 보호)
+    private boolean tryAcquireSession(WebSocketSession session) {
+        if (chatRateLimiter.tryAcquireSession(session.getId())) {
+            return true;
+        }
+        sendMsg(session, new ChatThrottleDto(null, "session", chatRateLimiter.retryAfterMs(session.getId())));
+        return false;
+    }
+
+    // 연결 종료 시 세션 버킷 정리
+    public void releaseSession(WebSocketSession session) {
+        chatRateLimiter.removeSession(session.getId());
+    }
+
+    // 메시지는 한 번만 직렬화하고, 세션별 전송은 ChatFanout 이 수신 스레드 밖에서 처리
+    // 클러스터 모드면 다른 노드로 한 번 발행 (이 노드 세션에는 바로 전달)
     public void sendMsgToAll(String roomId, ChatDto msg) {
         ChatRoomResDto room = findRoomById(roomId);
         if (room != null) {
-            for (WebSocketSession session : room.getSessions()) {
-                // 해당 세션에 메시지 발송
-                sendMsg(session, msg);  // 채팅 메세지를 보내는 메소드
+            try {
+                if (msg.getRegDate() == null) {
+                    msg.setRegDate(now());
+                }
+                ChatPayload payload = chatCompactCodec.payload(msg);
+                chatRoomRegistry.recordMessage(roomId);
+                chatRecentMessages.append(roomId, msg);
+                chatFanout.broadcast(roomId, room.getSessions(), payload);
+                chatRelay.publish(roomId, payload.json().getPayload());
+            } catch (IOException e) {
+                log.error("메시지 직렬화 실패 : {}", e.getMessage());
             }
         }
     }
 
     public <T> void sendMsg(WebSocketSession session, T msg) {
         try {
-            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(msg)));
+            chatFanout.send(session, chatCompactCodec.raw(objectMapper.writeValueAsString(msg)));
         }catch (IOException e) {
             log.error("메시지 전송 실패 : {}", e.getMessage());
         }
     }
     
-    public List<Map<String, String>> getBotResponse(String message) {
-        try {
-            log.warn("입력값 확인 : {}", message);
-            String flaskBotUrl = "http://localhost:5001";
-            // Flask API에 GET 요청을 보낼 URL 생성
-            String url = UriComponentsBuilder.fromHttpUrl(flaskBotUrl)
-                .path("/bot")
-                .queryParam("message", message)
-                .toUriString();
-            
-            // RestTemplate을 사용하여 Flask API에 GET 요청
-            RestTemplate restTemplate = new RestTemplate();
-            
-            // 요청 헤더 설정 (UTF-8)
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setAcceptCharset(java.util.Collections.singletonList(java.nio.charset.StandardCharsets.UTF_8));
-            
-            // HttpEntity 생성 (헤더를 포함한 요청)
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            // 응답을 Map<String, Object> 타입으로 받기 위해 ParameterizedTypeReference 사용
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
-            
-            // 응답에서 "results"만 추출
-            Map<String, Object> responseBody = response.getBody();
-            log.warn("플라스크 확인 : {}", responseBody);
-            if (responseBody != null && responseBody.containsKey("results")) {
-                return (List<Map<String, String>>) responseBody.get("results");
-            } else {
-                throw new RuntimeException("결과가 존재하지 않습니다.");
-            }
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Flask 서버 호출 실패: " + e.getMessage(), e);
-        }
+    // 챗봇 답변 전체 (사이드카 호출은 sidecarExecutor 에서, 같은 질문은 최근 답변 캐시에서)
+    public CompletableFuture<List<Map<String, String>>> getBotResponse(String message) {
+        log.debug("입력값 확인 : {}", message);
+        return chatBot.ask(message);
+    }
+
+    // 챗봇 질문: 답변은 도착하는 대로 이 세션에만 전송 (수신 스레드는 기다리지 않음)
+    public void askBot(WebSocketSession session, ChatDto chatMessage) {
+        if (!tryAcquireSession(session)) return;
+        chatBot.stream(session, chatMessage.getMsg());
     }
-    // 채팅 메세지 DB 저장
+
+    // 채팅 메세지 DB 저장 (쓰기 지연: ChatPersister 가 모아서 배치로 저장)
     public void saveMsg(String roomId, Long memberId, String msg) {
-        ChatRoom chatRoom = chatRoomRepository.findById(roomId).orElseThrow(() -> new RuntimeException("해당 채팅방이 존재하지 않습니다."));
-        Member member  = memberRepository.findById(memberId).orElseThrow(() -> new RuntimeException("해당 사용자가 존재하지 않습니다."));
-        Chat chatMsg = new Chat();
-        chatMsg.setChatRoom(chatRoom);
-        chatMsg.setMsg(msg);
-        chatMsg.setMember(member);
-        chatMsg.setRegDate(LocalDateTime.now(ZoneId.of("Asia/Seoul")));
-        chatRepository.save(chatMsg);
-        log.warn("DB에 채팅 저장");
+        chatPersister.enqueue(roomId, memberId, msg, now());
+    }
+
+    // DB(sent_at, 마이크로초)에 저장되는 값과 같도록 마이크로초까지만 사용
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of("Asia/Seoul")).truncatedTo(ChronoUnit.MICROS);
     }
 
     // ChatRoom 엔티티 Dto로 변환
@@ -300,16 +407,4 @@ public class ChatService {
         chatRoomResDto.setPersonCnt(chatRoom.getPersonCnt());
         return chatRoomResDto;
     }
-
-    // Chat 엔티티 Dto로 변환
-    private ChatDto convertEntityToChatDto(Chat chat) {
-        ChatDto chatMsgDto = new ChatDto();
-        chatMsgDto.setId(chat.getId());
-        chatMsgDto.setRoomId(chat.getChatRoom().getId());
-        chatMsgDto.setMemberId(chat.getMember().getMemberId());
-        chatMsgDto.setImg(chat.getMember().getMemberImg());
-        chatMsgDto.setMsg(chat.getMsg());
-        chatMsgDto.setRegDate(chat.getRegDate());
-        return chatMsgDto;
-    }
 }
\ No newline at end of file
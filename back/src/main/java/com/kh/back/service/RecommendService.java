@@ -8,13 +8,14 @@ import com.kh.back.entity.member.Member;
 import com.kh.back.repository.ReactionRepository;
 import com.kh.back.service.member.CalendarService;
 import com.kh.back.service.member.MemberService;
+import com.kh.back.service.python.SidecarClient;
+import com.kh.back.service.python.SidecarEndpoint;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -26,6 +27,7 @@ public class RecommendService {
 	private final CalendarService calendarService;
 	private final MemberService memberService;
 	private final ReactionRepository reactionRepository;
+	private final SidecarClient sidecarClient;
 	
 	/**
 	 * 추천 레시피 반환
@@ -77,7 +79,7 @@ public class RecommendService {
 	 * 좋아요한 레시피 ID 기반 추천 ID 가져오기 (Python API 호출)
 	 */
 	private List<String> fetchRecommendedIdsFromPython(List<String> reactionIds, String type) {
-		String pythonApiUrl = "http://localhost:5001/check";
+		String pythonApiUrl = sidecarClient.getBaseUrl() + "/check";
 		HttpHeaders headers = new HttpHeaders();
 		headers.setContentType(MediaType.APPLICATION_JSON);
 		
@@ -86,15 +88,14 @@ public class RecommendService {
 		requestBody.put("index", type);
 		
 		HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-		RestTemplate restTemplate = new RestTemplate();
 		
 		// 응답을 Map<String, Object>로 받기
-		ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+		ResponseEntity<Map<String, Object>> response = sidecarClient.call(SidecarEndpoint.BATCH, rest -> rest.exchange(
 			pythonApiUrl,
 			HttpMethod.POST,
 			entity,
 			new ParameterizedTypeReference<Map<String, Object>>() {}
-		);
+		));
 		
 		// 응답에서 valid_ids를 추출하고 List<String>으로 반환
 		Map<String, Object> responseBody = response.getBody();
@@ -125,7 +126,7 @@ public class RecommendService {
 			return new ArrayList<>();
 		}
 		
-		String pythonApiUrl = "http://localhost:5001/batch/detail";
+		String pythonApiUrl = sidecarClient.getBaseUrl() + "/batch/detail";
 		HttpHeaders headers = new HttpHeaders();
 		headers.setContentType(MediaType.APPLICATION_JSON);
 		
@@ -134,13 +135,12 @@ public class RecommendService {
 		requestBody.put("type", type);
 		
 		HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-		RestTemplate restTemplate = new RestTemplate();
-		ResponseEntity<List<RecommendResDto>> response = restTemplate.exchange(
+		ResponseEntity<List<RecommendResDto>> response = sidecarClient.call(SidecarEndpoint.BATCH, rest -> rest.exchange(
 			pythonApiUrl,
 			HttpMethod.POST,
 			entity,
 			new ParameterizedTypeReference<List<RecommendResDto>>() {}
-		);
+		));
 		
 		return response.getBody() != null ? response.getBody() : new ArrayList<>();
 	}
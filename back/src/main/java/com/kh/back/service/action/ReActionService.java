@@ -1,50 +1,298 @@
 package com.kh.back.service.action;
 
-import com.kh.back.entity.Reaction;
-import com.kh.back.entity.member.Member;
-
 import com.kh.back.constant.Action;
 import com.kh.back.repository.ReactionRepository;
-import com.kh.back.repository.member.MemberRepository;
-import org.springframework.security.core.Authentication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Optional;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * 좋아요/신고(Reaction) 쓰기 지연(write-behind) 서비스
+ * - 반응 여부는 Redis(RedisService.updateRecipeCount)에서 원자적으로 확정되고, 이 서비스는 DB 반영만 담당합니다.
+ * - (회원, 게시글, 액션) 단위로 변경을 합칩니다. 반영 전 누르기/취소가 번갈아 오면 서로 상쇄되어 DB 를 건드리지 않습니다.
+ * - 주기(reaction.write-behind.flush-ms) 또는 크기 임계치(batch-size)에 도달하면 JDBC 배치로 INSERT/DELETE 합니다.
+ * - 버퍼가 최대치(max-pending)에 이르면 호출 스레드가 직접 반영하여 메모리가 무한히 늘지 않도록 합니다. (역압)
+ *   직전 반영이 실패한 상태(DB 장애)에서는 다시 실패할 동기 반영을 하지 않고, 반영이 성공할 때까지 새 토글을 거절합니다. (isAccepting)
+ * - 외래키 위반 등 무결성 오류가 난 묶음은 한 건씩 다시 반영하고, 위반한 행만 버립니다. (같은 묶음이 매번 실패하여 버퍼가 막히지 않도록)
+ * - 종료 시 남은 변경을 모두 반영합니다.
+ */
+@Slf4j
 @Service
 public class ReActionService {
 
+    private static final String INSERT_SQL = "INSERT INTO reaction (member_id, post_id, action) VALUES (?, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM reaction WHERE member_id = ? AND post_id = ? AND action = ?";
 
-    private final MemberRepository memberRepository;
     private final ReactionRepository reactionRepository;
-    public ReActionService(MemberRepository memberRepository, ReactionRepository reactionRepository) {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "reaction-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final int batchSize;
+    private final int maxPending;
+
+    // 키 -> true(추가) / false(삭제). 반영 전까지의 최종 상태만 남음
+    private final ConcurrentHashMap<ReactionKey, Boolean> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock(); // 반영 순서 보장 (추가/삭제가 엇갈려 커밋되지 않도록)
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile boolean writeFailing; // 마지막 반영이 실패했으면 true, 성공하면 false
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder inserted = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder callerFlushes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public ReActionService(ReactionRepository reactionRepository,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${reaction.write-behind.batch-size:500}") int batchSize,
+                           @Value("${reaction.write-behind.max-pending:20000}") int maxPending) {
         this.reactionRepository = reactionRepository;
-        this.memberRepository = memberRepository;
-    }
-
-    @Transactional
-    public void updateAction(Authentication authentication, String action, String postId) {
-        // 인증 정보를 통해 현재 로그인한 사용자 정보 가져오기
-        Long memberId = Long.parseLong(authentication.getName());
-        Member member = memberRepository.findById(memberId)
-                .orElseThrow(() -> new IllegalArgumentException("회원 정보가 존재하지 않습니다."));
-        Action reactionAction = Action.valueOf(action);
-        Reaction newReaction = new Reaction(member, postId, reactionAction);
-        reactionRepository.save(newReaction);
-    }
-    @Transactional
-    public void deleteAction(Authentication authentication, String postId,String action) {
-        // 인증 정보를 통해 현재 로그인한 사용자 정보 가져오기
-        Long memberId = Long.parseLong(authentication.getName());
-        Member member = memberRepository.findById(memberId)
-                .orElseThrow(() -> new IllegalArgumentException("회원 정보가 존재하지 않습니다."));
-        Action reactionAction = Action.valueOf(action);
-        Optional<Reaction> reaction = reactionRepository.findByMemberAndPostIdAndAction(member, postId,reactionAction);
-        if (reaction.isPresent()) {
-            reactionRepository.delete(reaction.get());
-        } else {
-            throw new IllegalArgumentException("해당 게시물에 대한 반응이 존재하지 않습니다.");
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * 게시글에 반응한 회원 id 목록 (Redis 회원 집합이 비어 있을 때 초기화용)
+     * - DB 목록에 아직 반영되지 않은 대기 변경(추가/삭제)을 덧씌워 Redis 에서 확정된 최신 상태를 돌려줍니다.
+     * - 반영 중인 묶음이 DB 와 버퍼 어느 쪽에도 보이지 않는 순간이 없도록 flushLock 을 잡고 읽습니다.
+     */
+    public Collection<Long> getMemberIds(String postId, Action action) {
+        flushLock.lock();
+        try {
+            Set<Long> memberIds = new LinkedHashSet<>(reactionRepository.findMemberIdsByPostIdAndAction(postId, action));
+            pending.forEach((key, add) -> {
+                if (!key.postId.equals(postId) || key.action != action) return;
+                if (add) {
+                    memberIds.add(key.memberId);
+                } else {
+                    memberIds.remove(key.memberId);
+                }
+            });
+            return memberIds;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 새 변경을 받을 수 있는지 (Redis 토글 전에 확인)
+     * - 버퍼가 가득 찬 채 DB 반영이 실패하고 있으면 false 를 반환합니다. 호출자는 토글을 거절해야 합니다.
+     */
+    public boolean isAccepting() {
+        if (writeFailing && pending.size() >= maxPending) {
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Redis 에서 확정된 변경을 버퍼에 넣습니다. (요청 스레드에서는 보통 DB 를 건드리지 않음)
+     */
+    public void enqueue(Long memberId, String postId, Action action, boolean add) {
+        enqueued.increment();
+        merge(new ReactionKey(memberId, postId, action), add);
+
+        int size = pending.size();
+        if (size >= maxPending) {
+            // 역압: 버퍼가 가득 차면 호출 스레드가 직접 비움. DB 장애 중이면 다시 실패할 반영은 주기 작업에 맡김
+            if (!writeFailing) {
+                callerFlushes.increment();
+                flushPendingChanges();
+            }
+        } else if (size >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(() -> {
+                    flushScheduled.set(false);
+                    flushPendingChanges();
+                });
+            } catch (RuntimeException e) {
+                flushScheduled.set(false); // 실행기가 종료 중이면 다음 주기 반영에 맡김
+            }
+        }
+    }
+
+    // Redis 가 누르기/취소가 번갈아 오도록 보장하므로, 반대 방향 변경은 이전 변경을 상쇄함
+    private void merge(ReactionKey key, boolean add) {
+        pending.compute(key, (k, existing) -> {
+            if (existing == null) return add;
+            if (existing != add) {
+                cancelled.increment();
+                return null;
+            }
+            return existing;
+        });
+    }
+
+    /**
+     * 버퍼를 비워 JDBC 배치로 반영합니다. 실패하면 변경을 버퍼로 되돌려 다음 주기에 다시 시도합니다.
+     */
+    @Scheduled(fixedDelayString = "${reaction.write-behind.flush-ms:1000}")
+    public void flushPendingChanges() {
+        if (pending.isEmpty()) return;
+        flushLock.lock();
+        try {
+            while (!pending.isEmpty()) {
+                List<ReactionKey> inserts = new ArrayList<>();
+                List<ReactionKey> deletes = new ArrayList<>();
+                Iterator<ReactionKey> it = pending.keySet().iterator();
+                while (it.hasNext() && inserts.size() + deletes.size() < batchSize) {
+                    ReactionKey key = it.next();
+                    Boolean add = pending.remove(key);
+                    if (add == null) continue;
+                    (add ? inserts : deletes).add(key);
+                }
+                if (!writeBatch(inserts, deletes)) {
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private boolean writeBatch(List<ReactionKey> inserts, List<ReactionKey> deletes) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!deletes.isEmpty()) {
+                    jdbcTemplate.batchUpdate(DELETE_SQL, toArgs(deletes));
+                }
+                if (!inserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, toArgs(inserts));
+                }
+            });
+            writeFailing = false;
+            flushes.increment();
+            inserted.add(inserts.size());
+            deleted.add(deletes.size());
+            log.info("[ReActionService] 반응 변경 DB 반영 (추가 {}건, 삭제 {}건)", inserts.size(), deletes.size());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // 탈퇴한 회원 등 외래키 위반 행이 섞이면 묶음 전체가 매번 실패하므로, 한 건씩 반영하고 위반 행만 버림
+            log.warn("[ReActionService] 반응 변경 일괄 반영 중 무결성 오류, 한 건씩 반영: {}", e.getMessage());
+            return writeRowByRow(inserts, deletes);
+        } catch (Exception e) {
+            writeFailing = true;
+            failures.increment();
+            log.error("[ReActionService] 반응 변경 DB 반영 실패, 다음 주기에 재시도 (추가 {}건, 삭제 {}건): {}",
+                    inserts.size(), deletes.size(), e.getMessage());
+            // 되돌릴 때도 상쇄 규칙을 그대로 적용 (그 사이 들어온 반대 변경과 합쳐짐)
+            inserts.forEach(key -> merge(key, true));
+            deletes.forEach(key -> merge(key, false));
+            return false;
+        }
+    }
+
+    private boolean writeRowByRow(List<ReactionKey> inserts, List<ReactionKey> deletes) {
+        List<ReactionKey> rows = new ArrayList<>(deletes.size() + inserts.size());
+        rows.addAll(deletes);
+        rows.addAll(inserts);
+        int insertFrom = deletes.size();
+        for (int i = 0; i < rows.size(); i++) {
+            ReactionKey key = rows.get(i);
+            boolean add = i >= insertFrom;
+            try {
+                jdbcTemplate.update(add ? INSERT_SQL : DELETE_SQL, key.memberId, key.postId, key.action.name());
+                (add ? inserted : deleted).increment();
+            } catch (DataIntegrityViolationException e) {
+                dropped.increment();
+                log.warn("[ReActionService] 반영할 수 없는 반응 변경 버림 (memberId={}, postId={}, action={}): {}",
+                        key.memberId, key.postId, key.action, e.getMessage());
+            } catch (Exception e) {
+                // DB 장애: 아직 반영하지 못한 행만 버퍼로 되돌림
+                writeFailing = true;
+                failures.increment();
+                log.error("[ReActionService] 반응 변경 한 건씩 반영 중 실패, 남은 {}건은 다음 주기에 재시도: {}", rows.size() - i, e.getMessage());
+                for (int j = i; j < rows.size(); j++) {
+                    merge(rows.get(j), j >= insertFrom);
+                }
+                return false;
+            }
+        }
+        writeFailing = false;
+        flushes.increment();
+        return true;
+    }
+
+    private static List<Object[]> toArgs(List<ReactionKey> keys) {
+        List<Object[]> args = new ArrayList<>(keys.size());
+        for (ReactionKey key : keys) {
+            args.add(new Object[]{key.memberId, key.postId, key.action.name()});
+        }
+        return args;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("pending", pending.size());
+        map.put("enqueued", enqueued.sum());
+        map.put("cancelled", cancelled.sum());
+        map.put("inserted", inserted.sum());
+        map.put("deleted", deleted.sum());
+        map.put("flushes", flushes.sum());
+        map.put("callerFlushes", callerFlushes.sum());
+        map.put("failures", failures.sum());
+        map.put("rejected", rejected.sum());
+        map.put("dropped", dropped.sum());
+        map.put("writeFailing", writeFailing);
+        return map;
+    }
+
+    // 종료 시 남은 변경 반영
+    @PreDestroy
+    public void drain() {
+        flushExecutor.shutdown();
+        log.info("[ReActionService] 종료 전 남은 반응 변경 {}건 반영", pending.size());
+        flushPendingChanges();
+    }
+
+    private static final class ReactionKey {
+        private final Long memberId;
+        private final String postId;
+        private final Action action;
+
+        ReactionKey(Long memberId, String postId, Action action) {
+            this.memberId = memberId;
+            this.postId = postId;
+            this.action = action;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ReactionKey)) return false;
+            ReactionKey that = (ReactionKey) o;
+            return memberId.equals(that.memberId) && postId.equals(that.postId) && action == that.action;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(memberId, postId, action);
         }
     }
 }
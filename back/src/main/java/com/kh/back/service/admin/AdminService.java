@@ -10,6 +10,8 @@ import com.kh.back.dto.admin.request.AdminMemberReqDto;
 import com.kh.back.dto.admin.res.ChartResDto;
 import com.kh.back.repository.member.MemberRepository;
 import com.kh.back.service.member.MemberService;
+import com.kh.back.service.python.SidecarClient;
+import com.kh.back.service.python.SidecarEndpoint;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.ParameterizedTypeReference;
@@ -19,7 +21,6 @@ import org.springframework.stereotype.Service;
 import com.kh.back.entity.member.Member;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.transaction.Transactional;
@@ -33,8 +34,7 @@ import java.util.List;
 public class AdminService {
 	private final MemberRepository memberRepository;
 	private final MemberService memberService;
-	private final String FLASK_URL = "http://localhost:5001";
-	private final RestTemplate restTemplate;
+	private final SidecarClient sidecarClient;
 	
 	public List<AdminMemberListResDto> getMemberList(String searchValue, Authentication auth ) {
 		try {
@@ -113,7 +113,7 @@ public class AdminService {
 			}
 			
 			// Flask 서버 URL
-			URI uri = new URI(FLASK_URL + "/upload/json");
+			URI uri = new URI(sidecarClient.getBaseUrl() + "/upload/json");
 			
 			// HTTP 요청 헤더 설정
 			HttpHeaders headers = new HttpHeaders();
@@ -127,7 +127,7 @@ public class AdminService {
 			HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
 			
 			// Flask 서버로 요청 전송
-			ResponseEntity<String> response = restTemplate.postForEntity(uri, requestEntity, String.class);
+			ResponseEntity<String> response = sidecarClient.call(SidecarEndpoint.SYNC, rest -> rest.postForEntity(uri, requestEntity, String.class));
 			
 			if (response.getStatusCode() == HttpStatus.OK) {
 				log.info("JSON 업로드 성공: {}", response.getBody());
@@ -144,7 +144,7 @@ public class AdminService {
 	
 	public List<ChartResDto> getChart(Authentication auth, String type, String order) {
 		// Flask API 호출 URL에 파라미터를 추가
-		String url = String.format("http://localhost:5001/popular?type=%s&order=%s", type, order);
+		String url = String.format("%s/popular?type=%s&order=%s", sidecarClient.getBaseUrl(), type, order);
 		try {
 			Member member = memberService.convertAuthToEntity(auth);
 			
@@ -154,13 +154,13 @@ public class AdminService {
 			}
 			
 			// Flask API에서 반환되는 JSON을 List<ChartResDto>로 자동 매핑
-			ResponseEntity<List<ChartResDto>> response = restTemplate.exchange(
+			ResponseEntity<List<ChartResDto>> response = sidecarClient.call(SidecarEndpoint.CHART, rest -> rest.exchange(
 				url,
 				HttpMethod.GET,
 				null,
 				new ParameterizedTypeReference<List<ChartResDto>>() {
 				}
-			);
+			));
 			
 			// JSON 응답을 ChartResDto 객체 리스트로 변환
 			List<ChartResDto> chartResDtoList = response.getBody();
@@ -0,0 +1,210 @@
+package com.kh.back.service.chat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.kh.back.dto.chat.res.ChatBotAnswerDto;
+import com.kh.back.service.python.SidecarClient;
+import com.kh.back.service.python.SidecarEndpoint;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 챗봇 (Flask /bot, FAQ 검색)
+ * - 호출은 sidecarExecutor 에서 공용 커넥션 풀(SidecarClient, BOT 그룹)로 수행하여 요청/WebSocket 스레드를 점유하지 않습니다.
+ * - HTTP 요청은 /bot 의 JSON 응답을 한 번에 받고, WebSocket 요청은 /bot?stream=1 의 NDJSON 응답을 한 줄씩 읽어 답변이 도착하는 대로 세션에 보냅니다.
+ * - 같은 질문(공백/대소문자 정규화)은 최근 답변 LRU 캐시(chat.bot.cache.*)에서 바로 돌려줍니다. 실패하거나 비어 있는 결과는 캐시하지 않습니다.
+ */
+@Slf4j
+@Component
+public class ChatBot {
+
+    private static final TypeReference<Map<String, String>> ANSWER = new TypeReference<Map<String, String>>() {};
+    private static final TypeReference<List<Map<String, String>>> ANSWERS = new TypeReference<List<Map<String, String>>>() {};
+    private static final String FETCH_FAILED = "답변을 가져오지 못했습니다. 잠시 후 다시 시도해 주세요.";
+    private static final String REJECTED = "요청이 많아 답변을 찾지 못했습니다. 잠시 후 다시 시도해 주세요.";
+
+    private final SidecarClient sidecarClient;
+    private final ObjectMapper objectMapper;
+    private final Executor sidecarExecutor;
+    private final ChatFanout chatFanout;
+    private final ChatCompactCodec chatCompactCodec;
+    private final Cache<String, List<Map<String, String>>> answers;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder streamed = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public ChatBot(SidecarClient sidecarClient,
+                   ObjectMapper objectMapper,
+                   @Qualifier("sidecarExecutor") Executor sidecarExecutor,
+                   ChatFanout chatFanout,
+                   ChatCompactCodec chatCompactCodec,
+                   @Value("${chat.bot.cache.max-size:1000}") long cacheMaxSize,
+                   @Value("${chat.bot.cache.ttl-sec:600}") long cacheTtlSec) {
+        this.sidecarClient = sidecarClient;
+        this.objectMapper = objectMapper;
+        this.sidecarExecutor = sidecarExecutor;
+        this.chatFanout = chatFanout;
+        this.chatCompactCodec = chatCompactCodec;
+        this.answers = CacheBuilder.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtlSec, TimeUnit.SECONDS) // FAQ 수정이 반영되도록 오래 두지 않음
+                .build();
+    }
+
+    /**
+     * 답변 전체를 비동기로 조회합니다. (HTTP)
+     */
+    public CompletableFuture<List<Map<String, String>>> ask(String message) {
+        List<Map<String, String>> cached = answers.getIfPresent(normalize(message));
+        if (cached != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+        misses.increment();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return fetch(message);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    throw e;
+                }
+            }, sidecarExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("[ChatBot] sidecarExecutor 포화로 요청 거절: {}", e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 답변이 도착하는 대로 세션에 보내고, 마지막에 done 알림을 보냅니다. (WebSocket)
+     */
+    public void stream(WebSocketSession session, String message) {
+        List<Map<String, String>> cached = answers.getIfPresent(normalize(message));
+        if (cached != null) {
+            hits.increment();
+            for (int i = 0; i < cached.size(); i++) {
+                send(session, new ChatBotAnswerDto(message, i, cached.get(i).get("title"), cached.get(i).get("content"), false, true, null));
+            }
+            send(session, new ChatBotAnswerDto(message, cached.size(), null, null, true, true, null));
+            return;
+        }
+        misses.increment();
+        try {
+            sidecarExecutor.execute(() -> {
+                int[] index = {0};
+                String error = null;
+                try {
+                    fetchStream(message, answer -> {
+                        streamed.increment();
+                        send(session, new ChatBotAnswerDto(message, index[0]++, answer.get("title"), answer.get("content"), false, false, null));
+                    });
+                } catch (Exception e) {
+                    failures.increment();
+                    error = FETCH_FAILED;
+                    log.error("[ChatBot] 챗봇 호출 실패 : {}", e.getMessage());
+                } finally {
+                    send(session, new ChatBotAnswerDto(message, index[0], null, null, true, false, error));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("[ChatBot] sidecarExecutor 포화로 요청 거절: {}", e.getMessage());
+            send(session, new ChatBotAnswerDto(message, 0, null, null, true, false, REJECTED));
+        }
+    }
+
+    // 한 번에 전체 답변 조회 (/bot JSON 응답)
+    private List<Map<String, String>> fetch(String message) {
+        URI uri = botUri(message, false);
+        JsonNode response = sidecarClient.get(SidecarEndpoint.BOT, uri, JsonNode.class);
+        List<Map<String, String>> results = objectMapper.convertValue(response.path("results"), ANSWERS);
+        return remember(message, results != null ? results : List.of());
+    }
+
+    // NDJSON 한 줄(답변 하나)을 읽을 때마다 onAnswer 호출, 끝까지 읽으면 캐시에 저장
+    // Flask 가 검색 도중 실패하면 {"error": ...} 줄을 보내므로 실패로 처리하고 캐시하지 않음
+    private List<Map<String, String>> fetchStream(String message, Consumer<Map<String, String>> onAnswer) {
+        URI uri = botUri(message, true);
+        List<Map<String, String>> results = sidecarClient.call(SidecarEndpoint.BOT, rest -> rest.execute(uri, HttpMethod.GET, null, response -> {
+            List<Map<String, String>> list = new ArrayList<>();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(response.getBody(), StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                Map<String, String> answer = objectMapper.readValue(line, ANSWER);
+                if (answer.containsKey("error")) {
+                    throw new RestClientException("챗봇 검색 실패 (" + answer.get("error") + ")");
+                }
+                list.add(answer);
+                onAnswer.accept(answer);
+            }
+            return list;
+        }));
+        return remember(message, results);
+    }
+
+    private URI botUri(String message, boolean stream) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(sidecarClient.getBaseUrl())
+                .path("/bot")
+                .queryParam("message", message);
+        if (stream) {
+            builder.queryParam("stream", 1);
+        }
+        return builder.encode().build().toUri();
+    }
+
+    // 빈 결과는 캐시하지 않음 (FAQ 색인 전/일시 장애로 비어 있을 수 있음)
+    private List<Map<String, String>> remember(String message, List<Map<String, String>> results) {
+        List<Map<String, String>> answerList = Collections.unmodifiableList(results);
+        if (!answerList.isEmpty()) {
+            answers.put(normalize(message), answerList);
+        }
+        return answerList;
+    }
+
+    private void send(WebSocketSession session, ChatBotAnswerDto answer) {
+        try {
+            chatFanout.send(session, chatCompactCodec.raw(objectMapper.writeValueAsString(answer)));
+        } catch (IOException e) {
+            log.error("챗봇 답변 전송 실패 : {}", e.getMessage());
+        }
+    }
+
+    private static String normalize(String message) {
+        return message == null ? "" : message.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("cacheSize", answers.size());
+        map.put("hits", hits.sum());
+        map.put("misses", misses.sum());
+        map.put("streamedAnswers", streamed.sum());
+        map.put("failures", failures.sum());
+        return map;
+    }
+}
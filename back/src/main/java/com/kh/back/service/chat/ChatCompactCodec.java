@@ -0,0 +1,94 @@
+package com.kh.back.service.chat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kh.back.constant.MsgType;
+import com.kh.back.dto.chat.request.ChatDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * 압축 채팅 프로토콜 (chat.compact.v1)
+ * - 핸드셰이크에서 Sec-WebSocket-Protocol: chat.compact.v1 을 요청한 세션에만 적용됩니다. 요청하지 않으면 기존 ChatDto JSON 그대로.
+ * - 필드 이름 없이 위치로 구분하는 JSON 배열을 씁니다.
+ *   서버 -> 클라이언트 : 프레임 하나에 메시지 여러 개 [[type, id, memberId, msg, img, epochMillis], ...]
+ *                       (채팅 외 응답은 JSON 객체 그대로 배열 요소로 들어감)
+ *   클라이언트 -> 서버 : [type, roomId, memberId, msg]  (JSON 객체로 보내도 됨)
+ * - 전송 크기는 permessage-deflate(Tomcat 이 클라이언트가 요청하면 자동 협상)로 한 번 더 줄어듭니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatCompactCodec {
+
+    public static final String PROTOCOL = "chat.compact.v1";
+    private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+
+    private final ObjectMapper objectMapper;
+
+    public static boolean isCompact(WebSocketSession session) {
+        return PROTOCOL.equals(session.getAcceptedProtocol());
+    }
+
+    /**
+     * 채팅 메시지를 한 번 직렬화합니다. 압축 형식은 필요할 때 만듭니다.
+     */
+    public ChatPayload payload(ChatDto msg) throws IOException {
+        return new ChatPayload(objectMapper.writeValueAsString(msg), () -> encode(msg));
+    }
+
+    /**
+     * 다른 노드에서 온 ChatDto JSON 을 감쌉니다.
+     */
+    public ChatPayload payload(String chatJson) {
+        return new ChatPayload(chatJson, () -> {
+            try {
+                return encode(objectMapper.readValue(chatJson, ChatDto.class));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * 채팅 외 응답(JSON 객체)은 압축 형식에서도 그대로 씁니다.
+     */
+    public ChatPayload raw(String json) {
+        return new ChatPayload(json, () -> json);
+    }
+
+    private String encode(ChatDto msg) {
+        try {
+            return objectMapper.writeValueAsString(Arrays.asList(
+                    msg.getType() != null ? msg.getType().name() : null,
+                    msg.getId(),
+                    msg.getMemberId(),
+                    msg.getMsg(),
+                    msg.getImg(),
+                    msg.getRegDate() != null ? msg.getRegDate().atZone(ZONE).toInstant().toEpochMilli() : null));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 클라이언트가 보낸 메시지를 ChatDto 로 읽습니다. 배열이면 압축 형식, 객체면 기존 형식입니다.
+     */
+    public ChatDto decode(String payload) throws IOException {
+        JsonNode node = objectMapper.readTree(payload);
+        if (!node.isArray()) {
+            return objectMapper.treeToValue(node, ChatDto.class);
+        }
+        ChatDto msg = new ChatDto();
+        msg.setType(node.path(0).isTextual() ? MsgType.valueOf(node.path(0).asText()) : null);
+        msg.setRoomId(node.path(1).isTextual() ? node.path(1).asText() : null);
+        msg.setMemberId(node.path(2).isNumber() ? node.path(2).asLong() : null);
+        msg.setMsg(node.path(3).isTextual() ? node.path(3).asText() : null);
+        return msg;
+    }
+}
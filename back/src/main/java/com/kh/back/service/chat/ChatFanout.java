@@ -0,0 +1,284 @@
+package com.kh.back.service.chat;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 채팅 메시지 팬아웃(fan-out) 엔진
+ * - 메시지는 호출 측에서 한 번만 직렬화한 ChatPayload 를 모든 수신자가 공유합니다.
+ * - 방 단위 분배는 방 id 로 고정된 레인(단일 스레드)에서 처리하므로, 같은 방의 메시지는 모든 수신자에게 같은 순서로 전달되고
+ *   WebSocket 수신 스레드는 분배를 기다리지 않습니다.
+ * - 세션마다 크기가 제한된 송신 큐를 두고, 실제 전송은 chatSendExecutor 에서 세션별로 한 번에 하나씩만 수행합니다.
+ *   (한 세션에 동시에 sendMessage 하지 않음 / 느린 클라이언트는 자기 큐만 밀림)
+ * - 큐가 가득 차거나(max-queued) 전송이 stall-ms 이상 진행되지 않는 세션은 느린 소비자로 보고 연결을 끊습니다.
+ * - 압축 프로토콜(chat.compact.v1) 세션은 batch-window-ms 동안 쌓인 메시지를 프레임 하나로 묶어 보냅니다. (프레임/시스템 콜 수 감소)
+ *   기존 프로토콜 세션은 메시지마다 프레임 하나를 그대로 유지합니다.
+ */
+@Slf4j
+@Component
+public class ChatFanout {
+
+    private static final CloseStatus SLOW_CONSUMER = CloseStatus.SESSION_NOT_RELIABLE.withReason("slow consumer");
+
+    private final Executor sendExecutor;
+    private final ExecutorService[] lanes;
+    private final int maxQueued;
+    private final long stallMs;
+    private final int drainBatch;
+    private final long batchWindowMs;
+    private final ScheduledExecutorService batchTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "chat-batch-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ConcurrentHashMap<String, Outbound> outbounds = new ConcurrentHashMap<>(); // 세션 id -> 송신 큐
+
+    private final LongAdder broadcasts = new LongAdder();
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ChatFanout(@Qualifier("chatSendExecutor") Executor sendExecutor,
+                      @Value("${chat.fanout.lanes:4}") int laneCount,
+                      @Value("${chat.fanout.max-queued:256}") int maxQueued,
+                      @Value("${chat.fanout.stall-ms:10000}") long stallMs,
+                      @Value("${chat.fanout.drain-batch:64}") int drainBatch,
+                      @Value("${chat.fanout.batch-window-ms:5}") long batchWindowMs) {
+        this.sendExecutor = sendExecutor;
+        this.maxQueued = maxQueued;
+        this.stallMs = stallMs;
+        this.drainBatch = drainBatch;
+        this.batchWindowMs = batchWindowMs;
+        this.lanes = new ExecutorService[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            String name = "chat-fanout-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * 방의 모든 세션에 메시지를 보냅니다. 수신자 목록은 분배 시점의 세션 집합을 사용합니다.
+     */
+    public void broadcast(String roomId, Collection<WebSocketSession> sessions, ChatPayload message) {
+        broadcasts.increment();
+        try {
+            lanes[Math.floorMod(roomId.hashCode(), lanes.length)].execute(() -> {
+                for (WebSocketSession session : sessions) {
+                    send(session, message);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("[ChatFanout] 종료 중이라 메시지 분배 생략: roomId={}", roomId);
+        }
+    }
+
+    /**
+     * 세션 하나에 메시지를 보냅니다. 송신 큐에 넣기만 하고 바로 반환합니다.
+     */
+    public void send(WebSocketSession session, ChatPayload message) {
+        if (!session.isOpen()) {
+            return;
+        }
+        Outbound outbound = outbounds.computeIfAbsent(session.getId(), id -> new Outbound(session));
+        if (outbound.evicted.get()) {
+            return;
+        }
+        int size = outbound.size.get();
+        if (size >= maxQueued || (size > 0 && System.currentTimeMillis() - outbound.lastProgress > stallMs)) {
+            evict(outbound, size);
+            return;
+        }
+        outbound.queue.offer(message);
+        if (outbound.size.getAndIncrement() == 0) {
+            outbound.lastProgress = System.currentTimeMillis(); // 비어 있던 큐는 지금부터 대기 시간을 셈
+        }
+        enqueued.increment();
+        schedule(outbound);
+    }
+
+    /**
+     * 연결 종료 시 세션의 송신 큐를 정리합니다.
+     */
+    public void unregister(WebSocketSession session) {
+        Outbound outbound = outbounds.remove(session.getId());
+        if (outbound != null) {
+            outbound.queue.clear();
+            outbound.size.set(0);
+        }
+    }
+
+    private void schedule(Outbound outbound) {
+        if (!outbound.draining.compareAndSet(false, true)) {
+            return; // 이미 전송 중인 작업이 큐를 비움
+        }
+        try {
+            if (outbound.compact && batchWindowMs > 0) {
+                // 시간창 동안 들어오는 메시지는 draining 중이라 예약 없이 큐에 쌓였다가 함께 나감
+                batchTimer.schedule(() -> executeDrain(outbound), batchWindowMs, TimeUnit.MILLISECONDS);
+            } else {
+                sendExecutor.execute(() -> drain(outbound));
+            }
+        } catch (RejectedExecutionException e) {
+            outbound.draining.set(false);
+            log.warn("[ChatFanout] chatSendExecutor 가 작업을 거절함: sessionId={}", outbound.session.getId());
+        }
+    }
+
+    private void executeDrain(Outbound outbound) {
+        try {
+            sendExecutor.execute(() -> drain(outbound));
+        } catch (RejectedExecutionException e) {
+            outbound.draining.set(false);
+        }
+    }
+
+    // 세션 하나의 큐를 순서대로 전송. 한 번에 drain-batch 개까지만 보내고 나머지는 다시 예약하여 다른 세션에 양보
+    private void drain(Outbound outbound) {
+        try {
+            if (outbound.compact) {
+                drainCompact(outbound);
+            } else {
+                int count = 0;
+                ChatPayload message;
+                while (count < drainBatch && !outbound.evicted.get() && (message = outbound.queue.poll()) != null) {
+                    outbound.size.decrementAndGet();
+                    count++;
+                    write(outbound, message.json(), 1);
+                }
+            }
+        } finally {
+            outbound.draining.set(false);
+        }
+        if (outbound.evicted.get()) {
+            close(outbound);
+        } else if (!outbound.queue.isEmpty()) {
+            schedule(outbound);
+        }
+    }
+
+    // 큐에 쌓인 메시지를 [e1,e2,...] 프레임 하나로 묶어 전송
+    private void drainCompact(Outbound outbound) {
+        StringBuilder frame = new StringBuilder("[");
+        int count = 0;
+        ChatPayload message;
+        while (count < drainBatch && !outbound.evicted.get() && (message = outbound.queue.poll()) != null) {
+            outbound.size.decrementAndGet();
+            try {
+                String element = message.compact();
+                if (count > 0) frame.append(',');
+                frame.append(element);
+                count++;
+            } catch (RuntimeException e) {
+                sendFailures.increment();
+                log.error("압축 메시지 변환 실패 : {}", e.getMessage());
+            }
+        }
+        if (count > 0) {
+            write(outbound, new TextMessage(frame.append(']')), count);
+        }
+    }
+
+    private void write(Outbound outbound, TextMessage frame, int messages) {
+        try {
+            outbound.session.sendMessage(frame);
+            outbound.lastProgress = System.currentTimeMillis();
+            sent.add(messages);
+            frames.increment();
+        } catch (Exception e) {
+            sendFailures.increment();
+            log.error("메시지 전송 실패 : {}", e.getMessage());
+        }
+    }
+
+    private void evict(Outbound outbound, int queued) {
+        if (!outbound.evicted.compareAndSet(false, true)) {
+            return;
+        }
+        evictions.increment();
+        log.warn("[ChatFanout] 느린 소비자 연결 종료: sessionId={}, 대기 메시지 {}건", outbound.session.getId(), queued);
+        outbound.queue.clear();
+        outbound.size.set(0);
+        // 전송 중인 작업이 있으면 그 작업이 끝난 뒤 닫음 (같은 세션에 동시에 쓰지 않도록)
+        if (outbound.draining.compareAndSet(false, true)) {
+            try {
+                sendExecutor.execute(() -> close(outbound));
+            } catch (RejectedExecutionException e) {
+                close(outbound);
+            }
+        }
+    }
+
+    private void close(Outbound outbound) {
+        outbounds.remove(outbound.session.getId(), outbound);
+        try {
+            outbound.session.close(SLOW_CONSUMER);
+        } catch (Exception e) {
+            log.warn("[ChatFanout] 세션 종료 실패: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long queued = 0;
+        int compactSessions = 0;
+        for (Outbound outbound : outbounds.values()) {
+            queued += outbound.size.get();
+            if (outbound.compact) compactSessions++;
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("sessions", outbounds.size());
+        map.put("compactSessions", compactSessions);
+        map.put("queued", queued);
+        map.put("broadcasts", broadcasts.sum());
+        map.put("enqueued", enqueued.sum());
+        map.put("sent", sent.sum());
+        map.put("frames", frames.sum());
+        map.put("sendFailures", sendFailures.sum());
+        map.put("evictions", evictions.sum());
+        return map;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        batchTimer.shutdown();
+    }
+
+    private static final class Outbound {
+        private final WebSocketSession session;
+        private final boolean compact;
+        private final Queue<ChatPayload> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger(); // ConcurrentLinkedQueue.size() 는 O(n) 이라 따로 셈
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean evicted = new AtomicBoolean();
+        private volatile long lastProgress = System.currentTimeMillis(); // 마지막 전송 성공(또는 대기 시작) 시각
+
+        Outbound(WebSocketSession session) {
+            this.session = session;
+            this.compact = ChatCompactCodec.isCompact(session);
+        }
+    }
+}
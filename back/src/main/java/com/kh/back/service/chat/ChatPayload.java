@@ -0,0 +1,35 @@
+package com.kh.back.service.chat;
+
+import org.springframework.web.socket.TextMessage;
+
+import java.util.function.Supplier;
+
+/**
+ * 한 번 직렬화해 모든 수신자가 공유하는 채팅 메시지
+ * - json : 기존 프로토콜(ChatDto JSON 객체) 프레임
+ * - compact : 압축 프로토콜(chat.compact.v1) 배치 프레임에 들어갈 요소. 압축 프로토콜 세션이 있을 때 처음 한 번만 만듭니다.
+ */
+public final class ChatPayload {
+
+    private final TextMessage json;
+    private final Supplier<String> compactEncoder;
+    private volatile String compact;
+
+    public ChatPayload(String json, Supplier<String> compactEncoder) {
+        this.json = new TextMessage(json);
+        this.compactEncoder = compactEncoder;
+    }
+
+    public TextMessage json() {
+        return json;
+    }
+
+    public String compact() {
+        String value = compact;
+        if (value == null) {
+            value = compactEncoder.get(); // 동시에 두 번 만들어질 수 있으나 결과가 같으므로 무방
+            compact = value;
+        }
+        return value;
+    }
+}
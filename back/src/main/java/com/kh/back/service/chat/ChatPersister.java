@@ -0,0 +1,258 @@
+package com.kh.back.service.chat;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.*;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 채팅 메시지 저장 쓰기 지연(write-behind)
+ * - 수신 스레드는 Redis Stream(chat:persist)에 XADD 한 번만 하고 바로 돌아갑니다. (기존: 채팅방/회원 조회 + INSERT, DB 왕복 3번)
+ * - 주기(chat.persist.flush-ms)마다 소비자 그룹으로 읽어 JDBC 배치 INSERT 후 XACK/XDEL 합니다.
+ *   채팅방/회원은 id 만 외래키로 쓰므로 엔티티를 조회하지 않습니다.
+ * - 반영 전에 서버가 죽어도 메시지는 스트림의 미확인(pending) 목록에 남아 재시작 시 다시 저장됩니다. (최소 1회 저장)
+ *   다른 노드가 오래 붙잡고 있는 미확인 메시지는 claim-idle-ms 이후 가져와 대신 저장합니다.
+ * - Redis 에 넣지 못하면 그 자리에서 바로 DB 에 저장합니다.
+ */
+@Slf4j
+@Component
+public class ChatPersister {
+
+    private static final String STREAM_KEY = "chat:persist";
+    private static final String GROUP = "chat-persist";
+    private static final String INSERT_SQL = "INSERT INTO chat (room_id, member_id, msg, sent_at) VALUES (?, ?, ?, ?)";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration claimIdle;
+    private final String consumerName;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder persisted = new LongAdder();
+    private final LongAdder directWrites = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public ChatPersister(RedisTemplate<String, Object> redisTemplate,
+                         JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${chat.persist.batch-size:500}") int batchSize,
+                         @Value("${chat.persist.claim-idle-ms:60000}") long claimIdleMs,
+                         @Value("${chat.persist.consumer:}") String consumerName) {
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.claimIdle = Duration.ofMillis(claimIdleMs);
+        this.consumerName = consumerName.isEmpty() ? defaultConsumerName() : consumerName;
+    }
+
+    // 재시작해도 같은 이름을 쓰도록 호스트 이름 사용 (자기 미확인 메시지를 이어서 처리)
+    private static String defaultConsumerName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "chat-node";
+        }
+    }
+
+    @PostConstruct
+    private void init() {
+        createGroup();
+    }
+
+    // 스트림이 아직 없어도(새 Redis) 그룹을 만들 수 있도록 MKSTREAM 사용
+    private void createGroup() {
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection -> connection.streamCommands()
+                    .xGroupCreate(STREAM_KEY.getBytes(StandardCharsets.UTF_8), GROUP, ReadOffset.from("0"), true));
+            log.info("[ChatPersister] 소비자 그룹 생성: {}", GROUP);
+        } catch (Exception e) {
+            if (causeContains(e, "BUSYGROUP")) {
+                log.debug("[ChatPersister] 소비자 그룹이 이미 있음: {}", GROUP);
+            } else {
+                log.warn("[ChatPersister] 소비자 그룹 생성 실패, 다음 flush 에서 재시도: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static boolean causeContains(Throwable e, String code) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.contains(code);
+    }
+
+    /**
+     * 채팅 메시지를 저장 대기열에 넣습니다.
+     */
+    public void enqueue(String roomId, Long memberId, String msg, LocalDateTime sentAt) {
+        if (roomId == null || memberId == null) {
+            log.warn("[ChatPersister] roomId/memberId 가 없는 채팅은 저장하지 않음 (roomId={}, memberId={})", roomId, memberId);
+            return;
+        }
+        enqueued.increment();
+        Map<String, String> fields = new HashMap<>();
+        fields.put("roomId", roomId);
+        fields.put("memberId", String.valueOf(memberId));
+        fields.put("msg", msg);
+        fields.put("sentAt", sentAt.toString());
+        try {
+            redisTemplate.opsForStream().add(StreamRecords.newRecord().in(STREAM_KEY).ofMap(fields));
+        } catch (Exception e) {
+            log.warn("[ChatPersister] Redis 적재 실패, DB 에 바로 저장: {}", e.getMessage());
+            directWrites.increment();
+            jdbcTemplate.update(INSERT_SQL, roomId, memberId, msg, Timestamp.valueOf(sentAt));
+        }
+    }
+
+    /**
+     * 대기열을 읽어 DB 에 배치로 저장합니다. 자기 미확인 메시지(재시작 전 처리 중이던 것)를 먼저 처리합니다.
+     */
+    @Scheduled(fixedDelayString = "${chat.persist.flush-ms:500}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            int read;
+            do {
+                read = flushBatch(ReadOffset.from("0")); // 미확인 메시지
+            } while (read >= batchSize);
+            do {
+                read = flushBatch(ReadOffset.lastConsumed()); // 새 메시지
+            } while (read >= batchSize);
+        } catch (Exception e) {
+            failures.increment();
+            if (causeContains(e, "NOGROUP")) {
+                // 시작 시 그룹 생성이 실패했거나 스트림이 지워짐: 그룹을 다시 만들고 다음 주기에 읽음
+                log.warn("[ChatPersister] 소비자 그룹 없음, 다시 생성: {}", e.getMessage());
+                createGroup();
+            } else {
+                log.error("[ChatPersister] 채팅 저장 실패, 다음 주기에 재시도: {}", e.getMessage());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int flushBatch(ReadOffset offset) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                Consumer.from(GROUP, consumerName),
+                StreamReadOptions.empty().count(batchSize),
+                StreamOffset.create(STREAM_KEY, offset));
+        if (records == null || records.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> args = new ArrayList<>(records.size());
+        List<RecordId> ids = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            ids.add(record.getId());
+            Map<Object, Object> value = record.getValue();
+            try {
+                args.add(new Object[]{
+                        value.get("roomId"),
+                        Long.valueOf((String) value.get("memberId")),
+                        value.get("msg"),
+                        Timestamp.valueOf(LocalDateTime.parse((String) value.get("sentAt")))
+                });
+            } catch (RuntimeException e) {
+                // 형식이 깨진 항목은 계속 재처리되지 않도록 확인 처리하고 버림
+                dropped.increment();
+                log.warn("[ChatPersister] 형식이 잘못된 채팅 버림 (id={}): {}", record.getId(), e.getMessage());
+            }
+        }
+        if (!args.isEmpty()) {
+            insert(args);
+        }
+
+        // DB 반영 후에만 확인 처리 (그 사이 죽으면 재처리되어 중복 저장될 수 있음: 최소 1회)
+        RecordId[] idArray = ids.toArray(new RecordId[0]);
+        redisTemplate.opsForStream().acknowledge(STREAM_KEY, GROUP, idArray);
+        redisTemplate.opsForStream().delete(STREAM_KEY, idArray);
+        return records.size();
+    }
+
+    private void insert(List<Object[]> args) {
+        try {
+            // 배치 중간에 실패하면 전체 롤백 (아래에서 한 건씩 다시 저장할 때 중복되지 않도록)
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, args));
+            persisted.add(args.size());
+        } catch (DataIntegrityViolationException e) {
+            // 삭제된 채팅방/회원 등 외래키 위반 행이 섞이면 한 건씩 저장하고 위반 행만 버림
+            for (Object[] row : args) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, row);
+                    persisted.increment();
+                } catch (DataIntegrityViolationException ex) {
+                    dropped.increment();
+                    log.warn("[ChatPersister] 저장할 수 없는 채팅 버림 (roomId={}, memberId={}): {}", row[0], row[1], ex.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 다른 노드가 오래 처리하지 못한(종료된 노드 등) 미확인 메시지를 가져옵니다. 가져온 메시지는 다음 flush 에서 저장됩니다.
+     */
+    @Scheduled(fixedDelayString = "${chat.persist.claim-check-ms:30000}")
+    public void claimAbandoned() {
+        try {
+            PendingMessages pending = redisTemplate.opsForStream().pending(STREAM_KEY, GROUP, Range.unbounded(), batchSize);
+            List<RecordId> stale = new ArrayList<>();
+            for (PendingMessage message : pending) {
+                if (!consumerName.equals(message.getConsumerName())
+                        && message.getElapsedTimeSinceLastDelivery().compareTo(claimIdle) >= 0) {
+                    stale.add(message.getId());
+                }
+            }
+            if (!stale.isEmpty()) {
+                redisTemplate.opsForStream().claim(STREAM_KEY, GROUP, consumerName, claimIdle, stale.toArray(new RecordId[0]));
+                claimed.add(stale.size());
+                log.info("[ChatPersister] 미확인 채팅 {}건 인수", stale.size());
+            }
+        } catch (Exception e) {
+            log.warn("[ChatPersister] 미확인 채팅 인수 실패: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("consumer", consumerName);
+        map.put("enqueued", enqueued.sum());
+        map.put("persisted", persisted.sum());
+        map.put("directWrites", directWrites.sum());
+        map.put("dropped", dropped.sum());
+        map.put("claimed", claimed.sum());
+        map.put("failures", failures.sum());
+        return map;
+    }
+
+    // 종료 시 남은 메시지 저장
+    @PreDestroy
+    public void drain() {
+        log.info("[ChatPersister] 종료 전 남은 채팅 저장");
+        flush();
+    }
+}
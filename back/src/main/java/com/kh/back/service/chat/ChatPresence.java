@@ -0,0 +1,209 @@
+package com.kh.back.service.chat;
+
+import com.kh.back.entity.chat.ChatMember;
+import com.kh.back.repository.chat.ChatMemberRepository;
+import com.kh.back.repository.chat.ChatRoomRepository;
+import com.kh.back.repository.member.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 채팅방 참여 회원 현황 (ChatMember 테이블의 메모리 사본)
+ * - 입장/퇴장/회원 수 조회는 메모리(클러스터 모드면 Redis Set chat:presence:{roomId})만 사용합니다. (기존: 매번 COUNT/조회 쿼리)
+ * - ChatMember 테이블은 주기(chat.presence.flush-ms)마다 비동기로 맞춥니다. 같은 회원의 입장/퇴장이 반영 전에 여러 번 바뀌면 마지막 상태만 반영합니다.
+ * - 기동 시 ChatMember 테이블에서 한 번 적재합니다.
+ */
+@Slf4j
+@Component
+public class ChatPresence {
+
+    private static final String PRESENCE_PREFIX = "chat:presence:";
+
+    private final ChatMemberRepository chatMemberRepository;
+    private final ChatRoomRepository chatRoomRepository;
+    private final MemberRepository memberRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ChatRelay chatRelay;
+
+    private final ConcurrentHashMap<String, Set<Long>> members = new ConcurrentHashMap<>(); // 방 id -> 회원 id
+    private final ConcurrentHashMap<Membership, Boolean> pending = new ConcurrentHashMap<>(); // DB 에 반영할 마지막 상태 (true: 참여)
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final LongAdder joins = new LongAdder();
+    private final LongAdder leaves = new LongAdder();
+    private final LongAdder reconciled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public ChatPresence(ChatMemberRepository chatMemberRepository,
+                        ChatRoomRepository chatRoomRepository,
+                        MemberRepository memberRepository,
+                        RedisTemplate<String, Object> redisTemplate,
+                        ChatRelay chatRelay) {
+        this.chatMemberRepository = chatMemberRepository;
+        this.chatRoomRepository = chatRoomRepository;
+        this.memberRepository = memberRepository;
+        this.redisTemplate = redisTemplate;
+        this.chatRelay = chatRelay;
+    }
+
+    /**
+     * ChatMember 테이블을 메모리(클러스터 모드면 Redis 에도)에 적재합니다.
+     */
+    public void loadAll() {
+        List<Object[]> rows = chatMemberRepository.findAllMemberships();
+        for (Object[] row : rows) {
+            roomMembers((String) row[0]).add((Long) row[1]);
+        }
+        if (chatRelay.isEnabled() && !rows.isEmpty()) {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Object[] row : rows) {
+                    connection.sAdd(key((String) row[0]), String.valueOf(row[1]).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        }
+        log.info("[ChatPresence] 채팅방 참여 회원 {}건 적재", rows.size());
+    }
+
+    /**
+     * 회원을 채팅방에 참여시킵니다. 새로 참여했으면 true.
+     */
+    public boolean join(String roomId, Long memberId) {
+        boolean added = roomMembers(roomId).add(memberId);
+        if (chatRelay.isEnabled()) {
+            Long count = redisTemplate.opsForSet().add(key(roomId), String.valueOf(memberId));
+            added = count != null && count > 0;
+        }
+        if (added) {
+            joins.increment();
+            pending.put(new Membership(roomId, memberId), Boolean.TRUE);
+        }
+        return added;
+    }
+
+    /**
+     * 회원을 채팅방에서 내보냅니다. 참여 중이었으면 true.
+     */
+    public boolean leave(String roomId, Long memberId) {
+        Set<Long> set = members.get(roomId);
+        boolean removed = set != null && set.remove(memberId);
+        if (chatRelay.isEnabled()) {
+            Long count = redisTemplate.opsForSet().remove(key(roomId), String.valueOf(memberId));
+            removed = count != null && count > 0;
+        }
+        if (removed) {
+            leaves.increment();
+            pending.put(new Membership(roomId, memberId), Boolean.FALSE);
+        }
+        return removed;
+    }
+
+    public long count(String roomId) {
+        if (chatRelay.isEnabled()) {
+            Long size = redisTemplate.opsForSet().size(key(roomId));
+            return size != null ? size : 0;
+        }
+        Set<Long> set = members.get(roomId);
+        return set != null ? set.size() : 0;
+    }
+
+    /**
+     * 삭제된 채팅방의 현황을 지웁니다. (ChatMember 행은 채팅방 삭제 시 함께 삭제됨)
+     */
+    public void removeRoom(String roomId) {
+        members.remove(roomId);
+        pending.keySet().removeIf(membership -> membership.roomId().equals(roomId));
+        if (chatRelay.isEnabled()) {
+            redisTemplate.delete(key(roomId));
+        }
+    }
+
+    /**
+     * 바뀐 참여 상태를 ChatMember 테이블에 반영합니다. 일시적인 오류는 다음 주기에 다시 시도합니다.
+     */
+    @Scheduled(fixedDelayString = "${chat.presence.flush-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+        flushLock.lock();
+        try {
+            for (Membership membership : new ArrayList<>(pending.keySet())) {
+                Boolean joined = pending.remove(membership);
+                if (joined == null) continue;
+                try {
+                    apply(membership, joined);
+                    reconciled.increment();
+                } catch (DataIntegrityViolationException e) {
+                    // 삭제된 채팅방/회원 등 반영할 수 없는 상태는 버림
+                    dropped.increment();
+                    log.warn("[ChatPresence] 반영할 수 없는 참여 상태 버림 ({}): {}", membership, e.getMessage());
+                } catch (Exception e) {
+                    failures.increment();
+                    pending.putIfAbsent(membership, joined); // 그 사이 더 새로운 상태가 들어왔으면 그것을 유지
+                    log.error("[ChatPresence] 참여 상태 반영 실패, 다음 주기에 재시도 ({}): {}", membership, e.getMessage());
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void apply(Membership membership, boolean joined) {
+        if (!joined) {
+            chatMemberRepository.deleteMembership(membership.roomId(), membership.memberId());
+            return;
+        }
+        if (chatMemberRepository.existsByChatRoom_IdAndMember_MemberId(membership.roomId(), membership.memberId())) {
+            return;
+        }
+        ChatMember chatMember = new ChatMember();
+        chatMember.setChatRoom(chatRoomRepository.getReferenceById(membership.roomId()));
+        chatMember.setMember(memberRepository.getReferenceById(membership.memberId()));
+        chatMemberRepository.save(chatMember);
+    }
+
+    private Set<Long> roomMembers(String roomId) {
+        return members.computeIfAbsent(roomId, id -> ConcurrentHashMap.newKeySet());
+    }
+
+    private static String key(String roomId) {
+        return PRESENCE_PREFIX + roomId;
+    }
+
+    public Map<String, Object> stats() {
+        long total = 0;
+        for (Set<Long> set : members.values()) {
+            total += set.size();
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("rooms", members.size());
+        map.put("members", total);
+        map.put("pending", pending.size());
+        map.put("joins", joins.sum());
+        map.put("leaves", leaves.sum());
+        map.put("reconciled", reconciled.sum());
+        map.put("dropped", dropped.sum());
+        map.put("failures", failures.sum());
+        return map;
+    }
+
+    // 종료 시 남은 참여 상태 반영
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private record Membership(String roomId, Long memberId) {
+    }
+}
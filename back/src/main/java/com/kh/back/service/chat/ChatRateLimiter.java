@@ -0,0 +1,217 @@
+package com.kh.back.service.chat;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 채팅 전송 한도 (세션별 / 방별 토큰 버킷)
+ * - 버킷은 GCRA(토큰 버킷과 같은 동작)로 구현하여 "다음 토큰이 생기는 시각" long 하나를 CAS 로만 갱신합니다. (락 없음)
+ * - 세션 한도(chat.rate.session.*)를 넘은 메시지는 버리고 보낸 세션에만 THROTTLED 를 알립니다. (도배 방지)
+ * - 방 한도(chat.rate.room.*)를 넘으면 max-delay-ms 안에 보낼 수 있는 메시지는 그만큼 늦춰 보내고, 그 이상이면 버립니다.
+ *   (방 하나가 DB 저장/다른 세션 송신 큐를 밀어내지 않도록)
+ * - chat.rate.redis.enabled=true 면 방 한도를 Redis(Lua, chat:rate:room:{roomId})로 클러스터 전체에 적용합니다.
+ *   Redis 호출이 실패하면 이 노드의 버킷으로 판단합니다. 세션은 한 노드에만 붙으므로 세션 한도는 항상 메모리에서 판단합니다.
+ */
+@Slf4j
+@Component
+public class ChatRateLimiter {
+
+    public static final long SESSION_LIMITED = -1;
+    public static final long ROOM_LIMITED = -2;
+    private static final long REJECTED = -1;
+    private static final String ROOM_KEY_PREFIX = "chat:rate:room:";
+
+    // KEYS[1]=방 버킷 / ARGV[1]=토큰 간격(us), ARGV[2]=허용 버스트(us), ARGV[3]=최대 지연(us) / 반환: 지연(ms), 거절이면 -1
+    private static final RedisScript<Long> ROOM_SCRIPT = new DefaultRedisScript<>(
+            "local t = redis.call('TIME') " +
+            "local now = tonumber(t[1]) * 1000000 + tonumber(t[2]) " +
+            "local tat = tonumber(redis.call('GET', KEYS[1]) or now) " +
+            "if tat < now then tat = now end " +
+            "local wait = tat - now - tonumber(ARGV[2]) " +
+            "local nextTat = tat + tonumber(ARGV[1]) " +
+            "if wait > tonumber(ARGV[3]) then return -1 end " +
+            "redis.call('SET', KEYS[1], string.format('%d', nextTat), 'PX', math.ceil((nextTat - now) / 1000) + 1000) " +
+            "if wait < 0 then return 0 end " +
+            "return math.ceil(wait / 1000)", Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Limit sessionLimit;
+    private final Limit roomLimit;
+    private final boolean redisEnabled;
+    private final ConcurrentHashMap<String, Bucket> sessionBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Bucket> roomBuckets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService delayer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "chat-rate-delay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder sessionRejected = new LongAdder();
+    private final LongAdder roomRejected = new LongAdder();
+    private final LongAdder redisErrors = new LongAdder();
+
+    public ChatRateLimiter(RedisTemplate<String, Object> redisTemplate,
+                           @Value("${chat.rate.session.per-sec:5}") double sessionPerSec,
+                           @Value("${chat.rate.session.burst:10}") int sessionBurst,
+                           @Value("${chat.rate.room.per-sec:50}") double roomPerSec,
+                           @Value("${chat.rate.room.burst:100}") int roomBurst,
+                           @Value("${chat.rate.room.max-delay-ms:500}") long roomMaxDelayMs,
+                           @Value("${chat.rate.redis.enabled:false}") boolean redisEnabled) {
+        this.redisTemplate = redisTemplate;
+        this.sessionLimit = new Limit(sessionPerSec, sessionBurst, 0);
+        this.roomLimit = new Limit(roomPerSec, roomBurst, roomMaxDelayMs);
+        this.redisEnabled = redisEnabled;
+    }
+
+    /**
+     * 세션 한도만 확인합니다. (챗봇 질문 등 방과 무관한 요청)
+     */
+    public boolean tryAcquireSession(String sessionId) {
+        if (acquire(sessionBuckets, sessionId, sessionLimit) == REJECTED) {
+            sessionRejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 세션 한도와 방 한도를 차례로 확인합니다.
+     *
+     * @return 0 이면 바로 전송, 양수면 그만큼(ms) 늦춰 전송, SESSION_LIMITED / ROOM_LIMITED 면 버림
+     */
+    public long acquire(String sessionId, String roomId) {
+        if (!tryAcquireSession(sessionId)) {
+            return SESSION_LIMITED;
+        }
+        long delayMs = redisEnabled ? acquireClusterRoom(roomId) : acquire(roomBuckets, roomId, roomLimit);
+        if (delayMs == REJECTED) {
+            roomRejected.increment();
+            return ROOM_LIMITED;
+        } else if (delayMs > 0) {
+            delayed.increment();
+        } else {
+            allowed.increment();
+        }
+        return delayMs;
+    }
+
+    /**
+     * 다음 토큰까지 남은 시간(ms). THROTTLED 알림의 재시도 시각으로 사용합니다.
+     */
+    public long retryAfterMs(String sessionId) {
+        Bucket bucket = sessionBuckets.get(sessionId);
+        if (bucket == null) return 0;
+        long wait = bucket.tat.get() - System.nanoTime() - sessionLimit.toleranceNanos;
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(wait));
+    }
+
+    public void schedule(Runnable task, long delayMs) {
+        try {
+            delayer.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("[ChatRateLimiter] 종료 중이라 지연 전송 생략");
+        }
+    }
+
+    public void removeSession(String sessionId) {
+        sessionBuckets.remove(sessionId);
+    }
+
+    public void removeRoom(String roomId) {
+        roomBuckets.remove(roomId);
+    }
+
+    // GCRA: 이번 요청의 토큰 시각(tat, 지났으면 now)이 허용 버스트 밖이면 그만큼 기다리고, 그 시간이 최대 지연보다 길면 거절.
+    // 허용하면 tat 를 interval 만큼 밉니다. (버스트 burst 개까지는 기다리지 않음)
+    private long acquire(ConcurrentHashMap<String, Bucket> buckets, String key, Limit limit) {
+        if (key == null) return 0;
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+        long now = System.nanoTime();
+        while (true) {
+            long tat = bucket.tat.get();
+            long start = tat - now < 0 ? now : tat;
+            long next = start + limit.intervalNanos;
+            long wait = start - now - limit.toleranceNanos;
+            if (wait > limit.maxDelayNanos) {
+                return REJECTED;
+            }
+            if (bucket.tat.compareAndSet(tat, next)) {
+                return wait <= 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait));
+            }
+        }
+    }
+
+    private long acquireClusterRoom(String roomId) {
+        if (roomId == null) return 0;
+        try {
+            Long delayMs = redisTemplate.execute(ROOM_SCRIPT, Collections.singletonList(ROOM_KEY_PREFIX + roomId),
+                    String.valueOf(TimeUnit.NANOSECONDS.toMicros(roomLimit.intervalNanos)),
+                    String.valueOf(TimeUnit.NANOSECONDS.toMicros(roomLimit.toleranceNanos)),
+                    String.valueOf(TimeUnit.NANOSECONDS.toMicros(roomLimit.maxDelayNanos)));
+            if (delayMs != null) {
+                return delayMs;
+            }
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("[ChatRateLimiter] Redis 방 한도 확인 실패, 이 노드 기준으로 판단: {}", e.getMessage());
+        }
+        return acquire(roomBuckets, roomId, roomLimit);
+    }
+
+    // 토큰이 다 찬(한동안 보내지 않은) 버킷 정리
+    @Scheduled(fixedDelayString = "${chat.rate.sweep-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        sessionBuckets.entrySet().removeIf(entry -> entry.getValue().tat.get() - now < 0);
+        roomBuckets.entrySet().removeIf(entry -> entry.getValue().tat.get() - now < 0);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("redis", redisEnabled);
+        map.put("sessionBuckets", sessionBuckets.size());
+        map.put("roomBuckets", roomBuckets.size());
+        map.put("allowed", allowed.sum());
+        map.put("delayed", delayed.sum());
+        map.put("sessionRejected", sessionRejected.sum());
+        map.put("roomRejected", roomRejected.sum());
+        map.put("redisErrors", redisErrors.sum());
+        return map;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        delayer.shutdown();
+    }
+
+    private static final class Bucket {
+        private final AtomicLong tat = new AtomicLong(System.nanoTime()); // 다음 토큰이 생기는 시각 (nanoTime)
+    }
+
+    private static final class Limit {
+        private final long intervalNanos;  // 토큰 하나가 생기는 간격
+        private final long toleranceNanos; // 한 번에 쓸 수 있는 토큰(burst)만큼 앞당겨 허용
+        private final long maxDelayNanos;
+
+        Limit(double perSec, int burst, long maxDelayMs) {
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / perSec);
+            this.toleranceNanos = intervalNanos * Math.max(0, burst - 1);
+            this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.kh.back.service.chat;
+
+import com.kh.back.dto.chat.request.ChatDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 방별 최근 채팅 링 버퍼 (이 노드 메모리)
+ * - 접속 세션이 있는 방만 보관합니다. 처음 입장할 때 DB 에서 최근 메시지로 채우고, 이후 메시지는 전송할 때 덧붙입니다.
+ * - 입장 시 최근 내역 조회는 DB 를 거치지 않습니다. 아직 DB 에 쓰이지 않은(쓰기 지연 중) 메시지도 포함됩니다.
+ * - 쓰기 지연 중인 메시지는 아직 id 가 없으므로, 그보다 이전 내역은 보낸 시각(beforeSentAt)을 커서로 조회합니다.
+ */
+@Component
+public class ChatRecentMessages {
+
+    private final int capacity;
+    private final ConcurrentHashMap<String, Ring> rings = new ConcurrentHashMap<>();
+
+    public ChatRecentMessages(@Value("${chat.history.recent-size:50}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 오래된 순서의 최근 메시지. 버퍼가 없으면 null.
+     */
+    public List<ChatDto> snapshot(String roomId) {
+        Ring ring = rings.get(roomId);
+        return ring != null ? ring.snapshot() : null;
+    }
+
+    /**
+     * DB 에서 읽은 최근 메시지(오래된 순)로 버퍼를 만듭니다. 이미 있으면 그대로 둡니다.
+     */
+    public void warm(String roomId, List<ChatDto> oldestFirst) {
+        Ring ring = new Ring(capacity);
+        for (ChatDto message : oldestFirst) {
+            ring.append(message);
+        }
+        rings.putIfAbsent(roomId, ring);
+    }
+
+    public boolean isWarm(String roomId) {
+        return rings.containsKey(roomId);
+    }
+
+    /**
+     * 버퍼가 있는 방이면 메시지를 덧붙입니다.
+     */
+    public void append(String roomId, ChatDto message) {
+        Ring ring = rings.get(roomId);
+        if (ring != null) {
+            ring.append(message);
+        }
+    }
+
+    public void evict(String roomId) {
+        rings.remove(roomId);
+    }
+
+    private static final class Ring {
+        private final ChatDto[] items;
+        private int next;  // 다음에 쓸 위치
+        private int size;
+
+        Ring(int capacity) {
+            this.items = new ChatDto[capacity];
+        }
+
+        synchronized void append(ChatDto message) {
+            items[next] = message;
+            next = (next + 1) % items.length;
+            if (size < items.length) {
+                size++;
+            }
+        }
+
+        synchronized List<ChatDto> snapshot() {
+            int start = (next - size + items.length) % items.length;
+            List<ChatDto> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(items[(start + i) % items.length]);
+            }
+            return list;
+        }
+    }
+}
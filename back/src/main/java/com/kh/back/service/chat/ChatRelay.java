@@ -0,0 +1,220 @@
+package com.kh.back.service.chat;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 다중 노드 채팅 중계 (Redis pub/sub)
+ * - chat.cluster.enabled=true 일 때만 동작합니다. 꺼져 있으면 모든 메서드가 아무 일도 하지 않습니다. (단일 노드)
+ * - 메시지는 보낸 노드가 자기 세션에 바로 전달하고, 방 채널(chat:room:{roomId})에 한 번 발행합니다.
+ *   다른 노드는 그 방에 자기 세션이 있을 때만 채널을 구독하고, 받은 메시지를 자기 세션에만 전달합니다.
+ * - 방별 접속 세션 수는 노드별로 Redis 해시(chat:room-sessions:{roomId}, 필드=노드 id)에 두어 클러스터 전체 인원으로 빈 방을 판단합니다.
+ * - 방 삭제는 chat:rooms 채널로 알려 다른 노드의 메모리에서도 지웁니다.
+ * - 입장/퇴장 알림은 방 채널에 presence: 접두어를 붙여 보내 채팅 메시지와 구분합니다. (채팅 내역/링 버퍼에 넣지 않음)
+ */
+@Slf4j
+@Component
+public class ChatRelay implements MessageListener {
+
+    private static final String ROOM_CHANNEL_PREFIX = "chat:room:";
+    private static final String CONTROL_CHANNEL = "chat:rooms";
+    private static final String SESSIONS_PREFIX = "chat:room-sessions:";
+    private static final String ROOM_REMOVED = "removed:";
+    private static final String PRESENCE = "presence:";
+
+    /**
+     * 다른 노드에서 온 이벤트를 받는 쪽 (ChatService)
+     */
+    public interface Listener {
+        void onRoomMessage(String roomId, TextMessage message);
+
+        void onPresence(String roomId, TextMessage message);
+
+        void onRoomRemoved(String roomId);
+    }
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer container;
+    private final String nodeId;
+    private final Map<String, Integer> localSessions = new ConcurrentHashMap<>(); // 방 id -> 이 노드의 세션 수 (구독 여부)
+    private volatile Listener listener;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+
+    public ChatRelay(RedisTemplate<String, Object> redisTemplate,
+                     ObjectProvider<RedisMessageListenerContainer> chatListenerContainer,
+                     @Value("${chat.node-id:}") String nodeId,
+                     @Value("${server.port:8111}") int port) {
+        this.redisTemplate = redisTemplate;
+        this.container = chatListenerContainer.getIfAvailable();
+        this.nodeId = nodeId.isEmpty() ? defaultNodeId(port) : nodeId;
+        if (container != null) {
+            container.addMessageListener(this, new ChannelTopic(CONTROL_CHANNEL));
+            log.info("[ChatRelay] 채팅 클러스터 모드 사용, 노드 id: {}", this.nodeId);
+        }
+    }
+
+    // 재시작해도 같은 id 를 쓰도록 호스트:포트 사용 (이전 실행이 남긴 세션 수를 지울 수 있음)
+    private static String defaultNodeId(int port) {
+        try {
+            return InetAddress.getLocalHost().getHostName() + ":" + port;
+        } catch (Exception e) {
+            return "chat-node:" + port;
+        }
+    }
+
+    public boolean isEnabled() {
+        return container != null;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 기동 시 이 노드가 이전 실행에서 남긴 방별 세션 수를 지웁니다.
+     */
+    public void resetNode(Collection<String> roomIds) {
+        if (!isEnabled() || roomIds.isEmpty()) return;
+        byte[] field = nodeId.getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String roomId : roomIds) {
+                connection.hDel((SESSIONS_PREFIX + roomId).getBytes(StandardCharsets.UTF_8), field);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 직렬화된 메시지를 다른 노드로 발행합니다. (이 노드 세션에는 호출 측이 직접 전달)
+     */
+    public void publish(String roomId, String json) {
+        if (!isEnabled()) return;
+        try {
+            redisTemplate.convertAndSend(ROOM_CHANNEL_PREFIX + roomId, nodeId + "\n" + json);
+            published.increment();
+        } catch (Exception e) {
+            log.error("[ChatRelay] 메시지 발행 실패 (roomId={}): {}", roomId, e.getMessage());
+        }
+    }
+
+    /**
+     * 직렬화된 입장/퇴장 알림을 다른 노드로 발행합니다.
+     */
+    public void publishPresence(String roomId, String json) {
+        publish(roomId, PRESENCE + json);
+    }
+
+    /**
+     * 이 노드에서 방에 세션이 들어왔습니다. 첫 세션이면 방 채널을 구독합니다.
+     */
+    public void sessionJoined(String roomId) {
+        if (!isEnabled()) return;
+        localSessions.compute(roomId, (id, count) -> {
+            if (count == null) {
+                container.addMessageListener(this, new ChannelTopic(ROOM_CHANNEL_PREFIX + id));
+                return 1;
+            }
+            return count + 1;
+        });
+        redisTemplate.opsForHash().increment(SESSIONS_PREFIX + roomId, nodeId, 1);
+    }
+
+    /**
+     * 이 노드에서 방의 세션이 나갔습니다. 마지막 세션이면 방 채널 구독을 해제합니다.
+     */
+    public void sessionLeft(String roomId) {
+        if (!isEnabled()) return;
+        localSessions.computeIfPresent(roomId, (id, count) -> {
+            if (count <= 1) {
+                container.removeMessageListener(this, new ChannelTopic(ROOM_CHANNEL_PREFIX + id));
+                return null;
+            }
+            return count - 1;
+        });
+        redisTemplate.opsForHash().increment(SESSIONS_PREFIX + roomId, nodeId, -1);
+    }
+
+    /**
+     * 클러스터 전체에서 방에 접속한 세션 수 (클러스터 모드가 아니면 -1)
+     */
+    public long clusterSessionCount(String roomId) {
+        if (!isEnabled()) return -1;
+        long total = 0;
+        for (Object value : redisTemplate.opsForHash().values(SESSIONS_PREFIX + roomId)) {
+            total += Long.parseLong(String.valueOf(value));
+        }
+        return total;
+    }
+
+    /**
+     * 방 삭제를 다른 노드에 알립니다.
+     */
+    public void roomRemoved(String roomId) {
+        if (!isEnabled()) return;
+        try {
+            redisTemplate.delete(SESSIONS_PREFIX + roomId);
+            redisTemplate.convertAndSend(CONTROL_CHANNEL, nodeId + "\n" + ROOM_REMOVED + roomId);
+        } catch (Exception e) {
+            log.error("[ChatRelay] 방 삭제 알림 실패 (roomId={}): {}", roomId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('\n');
+        if (separator < 0 || (separator == nodeId.length() && body.startsWith(nodeId))) {
+            return; // 형식 오류 또는 자기가 발행한 메시지
+        }
+        Listener target = listener;
+        if (target == null) return;
+        String payload = body.substring(separator + 1);
+        try {
+            if (CONTROL_CHANNEL.equals(channel)) {
+                if (payload.startsWith(ROOM_REMOVED)) {
+                    target.onRoomRemoved(payload.substring(ROOM_REMOVED.length()));
+                }
+            } else if (channel.startsWith(ROOM_CHANNEL_PREFIX)) {
+                received.increment();
+                String roomId = channel.substring(ROOM_CHANNEL_PREFIX.length());
+                if (payload.startsWith(PRESENCE)) {
+                    target.onPresence(roomId, new TextMessage(payload.substring(PRESENCE.length())));
+                } else {
+                    target.onRoomMessage(roomId, new TextMessage(payload));
+                }
+            }
+        } catch (Exception e) {
+            log.error("[ChatRelay] 중계 메시지 처리 실패 (channel={}): {}", channel, e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("enabled", isEnabled());
+        map.put("nodeId", nodeId);
+        map.put("subscribedRooms", localSessions.size());
+        map.put("published", published.sum());
+        map.put("received", received.sum());
+        return map;
+    }
+}
@@ -0,0 +1,199 @@
+package com.kh.back.service.chat;
+
+import com.kh.back.dto.chat.res.ChatRoomResDto;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 채팅방 레지스트리 (이 노드 메모리)
+ * - 여러 WebSocket/HTTP 스레드가 동시에 방을 만들고/찾고/지우므로 ConcurrentHashMap 으로 관리합니다.
+ * - 방마다 접속 세션 수를 참조 카운트로 셉니다. 빈 방 삭제는 카운트를 0 -> -1(닫힘)로 CAS 하여,
+ *   삭제 판단과 동시에 들어온 입장은 닫힌 방을 보고 실패합니다. (삭제된 방에 세션이 남지 않음, 락 없음)
+ * - 방별 누적 메시지 수와 최근 초당 메시지 수를 기록합니다.
+ */
+@Component
+public class ChatRoomRegistry {
+
+    private static final int CLOSED = -1;
+    private static final int RATE_WINDOW_SEC = 10;
+
+    private final ConcurrentHashMap<String, Entry> rooms = new ConcurrentHashMap<>();
+
+    /**
+     * 기동 시 DB 의 방 목록을 등록합니다.
+     */
+    public void loadAll(Collection<ChatRoomResDto> roomDtos) {
+        for (ChatRoomResDto room : roomDtos) {
+            rooms.putIfAbsent(room.getRoomId(), new Entry(room));
+        }
+    }
+
+    public ChatRoomResDto get(String roomId) {
+        Entry entry = roomId != null ? rooms.get(roomId) : null;
+        return entry != null ? entry.room : null;
+    }
+
+    public Set<String> roomIds() {
+        return Collections.unmodifiableSet(rooms.keySet());
+    }
+
+    public List<ChatRoomResDto> rooms() {
+        List<ChatRoomResDto> list = new ArrayList<>(rooms.size());
+        for (Entry entry : rooms.values()) {
+            list.add(entry.room);
+        }
+        return list;
+    }
+
+    /**
+     * 방을 등록합니다. 같은 id 의 방이 이미 있으면 기존 방을 돌려줍니다.
+     */
+    public ChatRoomResDto putIfAbsent(ChatRoomResDto room) {
+        Entry created = new Entry(room);
+        Entry existing = rooms.putIfAbsent(room.getRoomId(), created);
+        return existing != null ? existing.room : room;
+    }
+
+    /**
+     * 방에 세션을 추가합니다. 방이 없거나 이미 닫혔으면 false.
+     */
+    public boolean join(String roomId, WebSocketSession session) {
+        Entry entry = rooms.get(roomId);
+        if (entry == null) {
+            return false;
+        }
+        int count;
+        do {
+            count = entry.refs.get();
+            if (count == CLOSED) {
+                return false;
+            }
+        } while (!entry.refs.compareAndSet(count, count + 1));
+
+        if (!entry.room.getSessions().add(session)) {
+            entry.refs.decrementAndGet(); // 이미 입장한 세션
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 방에서 세션을 제거합니다. 실제로 있던 세션이면 true.
+     */
+    public boolean leave(String roomId, WebSocketSession session) {
+        Entry entry = rooms.get(roomId);
+        if (entry == null || !entry.room.getSessions().remove(session)) {
+            return false;
+        }
+        entry.refs.decrementAndGet();
+        return true;
+    }
+
+    public int activeSessions(String roomId) {
+        Entry entry = rooms.get(roomId);
+        return entry != null ? Math.max(entry.refs.get(), 0) : 0;
+    }
+
+    /**
+     * 접속 세션이 없을 때만 방을 닫고 제거합니다. 제거했으면 true.
+     */
+    public boolean removeIfEmpty(String roomId) {
+        Entry entry = rooms.get(roomId);
+        if (entry == null || !entry.refs.compareAndSet(0, CLOSED)) {
+            return false;
+        }
+        return rooms.remove(roomId, entry);
+    }
+
+    /**
+     * 세션 유무와 관계없이 방을 제거합니다. (다른 노드에서 삭제된 방)
+     */
+    public void remove(String roomId) {
+        Entry entry = rooms.remove(roomId);
+        if (entry != null) {
+            entry.refs.set(CLOSED);
+        }
+    }
+
+    public void recordMessage(String roomId) {
+        Entry entry = rooms.get(roomId);
+        if (entry != null) {
+            entry.record(System.currentTimeMillis() / 1000);
+        }
+    }
+
+    /**
+     * 전체 방 수/세션 수와 세션이 많은 순서로 상위 방의 지표
+     */
+    public Map<String, Object> stats(int top) {
+        long nowSec = System.currentTimeMillis() / 1000;
+        List<Entry> active = new ArrayList<>();
+        long totalSessions = 0;
+        for (Entry entry : rooms.values()) {
+            int sessions = Math.max(entry.refs.get(), 0);
+            totalSessions += sessions;
+            if (sessions > 0) {
+                active.add(entry);
+            }
+        }
+        active.sort(Comparator.comparingInt((Entry entry) -> entry.refs.get()).reversed());
+
+        List<Map<String, Object>> roomStats = new ArrayList<>();
+        for (Entry entry : active.subList(0, Math.min(top, active.size()))) {
+            Map<String, Object> room = new LinkedHashMap<>();
+            room.put("roomId", entry.room.getRoomId());
+            room.put("name", entry.room.getName());
+            room.put("sessions", Math.max(entry.refs.get(), 0));
+            room.put("messages", entry.messages.sum());
+            room.put("msgsPerSec", entry.rate(nowSec));
+            roomStats.add(room);
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("rooms", rooms.size());
+        map.put("activeRooms", active.size());
+        map.put("sessions", totalSessions);
+        map.put("top", roomStats);
+        return map;
+    }
+
+    private static final class Entry {
+        private final ChatRoomResDto room;
+        private final AtomicInteger refs = new AtomicInteger(); // 접속 세션 수, CLOSED 면 삭제됨
+        private final LongAdder messages = new LongAdder();
+        // 초 단위 링 버퍼 (지표용이라 초가 바뀌는 순간의 경합으로 몇 건 틀려도 무방)
+        private final AtomicLongArray bucketSec = new AtomicLongArray(RATE_WINDOW_SEC);
+        private final AtomicLongArray bucketCount = new AtomicLongArray(RATE_WINDOW_SEC);
+
+        Entry(ChatRoomResDto room) {
+            this.room = room;
+        }
+
+        void record(long sec) {
+            messages.increment();
+            int index = (int) (sec % RATE_WINDOW_SEC);
+            long stamped = bucketSec.get(index);
+            if (stamped != sec && bucketSec.compareAndSet(index, stamped, sec)) {
+                bucketCount.set(index, 0);
+            }
+            bucketCount.incrementAndGet(index);
+        }
+
+        // 진행 중인 현재 초를 뺀 최근 (RATE_WINDOW_SEC - 1)초 평균
+        double rate(long nowSec) {
+            long total = 0;
+            for (int i = 0; i < RATE_WINDOW_SEC; i++) {
+                long sec = bucketSec.get(i);
+                if (sec < nowSec && sec >= nowSec - (RATE_WINDOW_SEC - 1)) {
+                    total += bucketCount.get(i);
+                }
+            }
+            return (double) total / (RATE_WINDOW_SEC - 1);
+        }
+    }
+}
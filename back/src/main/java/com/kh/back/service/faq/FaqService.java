@@ -4,12 +4,13 @@ import com.kh.back.constant.Authority;
 import com.kh.back.dto.faq.request.FaqReqDto;
 import com.kh.back.dto.faq.res.FaqResDto;
 import com.kh.back.service.member.MemberService;
+import com.kh.back.service.python.SidecarClient;
+import com.kh.back.service.python.SidecarEndpoint;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.List;
@@ -20,13 +21,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class FaqService {
-	private final RestTemplate restTemplate;
-	private final String BASE_URL = "http://localhost:5001";  // Flask 서버 URL
+	private final SidecarClient sidecarClient;
 	private final MemberService memberService;
 	
 	// 검색 결과 요청
 	public List<FaqResDto> searchFaq(String keyword, int page, int size) {
-		String url = BASE_URL + "/search/faq";
+		String url = sidecarClient.getBaseUrl() + "/search/faq";
 		
 		UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(url)
 			.queryParam("q", keyword)
@@ -35,7 +35,7 @@ public class FaqService {
 		
 		try {
 			// GET 요청을 보내고 응답 받기
-			ResponseEntity<Map> response = restTemplate.getForEntity(uriBuilder.toUriString(), Map.class);
+			ResponseEntity<Map> response = sidecarClient.call(SidecarEndpoint.FAQ, rest -> rest.getForEntity(uriBuilder.toUriString(), Map.class));
 			
 			// 응답에서 "results" 필드 추출
 			List<Map<String, String>> results = (List<Map<String, String>>) response.getBody().get("results");
@@ -52,7 +52,7 @@ public class FaqService {
 	
 	// 전체 페이지 수 요청
 	public int getTotalPages(String keyword, int size) {
-		String url = BASE_URL + "/total/page";
+		String url = sidecarClient.getBaseUrl() + "/total/page";
 		
 		UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(url)
 			.queryParam("q", keyword)
@@ -60,7 +60,7 @@ public class FaqService {
 		
 		try {
 			// GET 요청을 보내고 응답 받기
-			ResponseEntity<Map> response = restTemplate.getForEntity(uriBuilder.toUriString(), Map.class);
+			ResponseEntity<Map> response = sidecarClient.call(SidecarEndpoint.FAQ, rest -> rest.getForEntity(uriBuilder.toUriString(), Map.class));
 			
 			// 전체 페이지 수 받아오기
 			return (int) response.getBody().get("total_page");
@@ -70,7 +70,7 @@ public class FaqService {
 		}
 	}
 	public boolean deleteFaq(String faqId, Authentication auth) {
-		String url = BASE_URL + "/faq/" + faqId;
+		String url = sidecarClient.getBaseUrl() + "/faq/" + faqId;
 		
 		if(!memberService.convertAuthToEntity(auth).getAuthority().equals(Authority.ROLE_ADMIN)) {
 			log.error("관리자가 아닌 사용자가 FAQ를 삭제하려고 했습니다. : {}- {}", faqId, auth );
@@ -78,7 +78,7 @@ public class FaqService {
 		}
 		
 		try {
-			ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.DELETE, null, Map.class);
+			ResponseEntity<Map> response = sidecarClient.call(SidecarEndpoint.FAQ, rest -> rest.exchange(url, HttpMethod.DELETE, null, Map.class));
 			
 			if (response.getStatusCode() == HttpStatus.OK) {
 				return (boolean) response.getBody().get("success");
@@ -92,7 +92,7 @@ public class FaqService {
 	
 	// FAQ 수정 요청
 	public boolean updateFaq(String faqId, FaqReqDto dto, Authentication auth) {
-		String url = BASE_URL + "/faq/" + faqId;
+		String url = sidecarClient.getBaseUrl() + "/faq/" + faqId;
 		
 		if(!memberService.convertAuthToEntity(auth).getAuthority().equals(Authority.ROLE_ADMIN)) {
 			log.error("관리자가 아닌 사용자가 FAQ를 수정하려고 했습니다. : {}- {}", faqId, auth );
@@ -105,7 +105,7 @@ public class FaqService {
 		HttpEntity<FaqReqDto> requestEntity = new HttpEntity<>(dto, headers);
 		
 		try {
-			ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.PUT, requestEntity, Map.class);
+			ResponseEntity<Map> response = sidecarClient.call(SidecarEndpoint.FAQ, rest -> rest.exchange(url, HttpMethod.PUT, requestEntity, Map.class));
 			
 			if (response.getStatusCode() == HttpStatus.OK) {
 				return (boolean) response.getBody().get("success");
@@ -0,0 +1,139 @@
+package com.kh.back.service.forum;
+
+import com.kh.back.dto.forum.response.ForumCommentThreadDto;
+import com.kh.back.dto.forum.response.ForumCommentThreadPageDto;
+import com.kh.back.dto.forum.response.ForumPostCommentResponseDto;
+
+import java.util.*;
+
+/**
+ * 게시글 하나의 댓글 트리 스냅샷 (읽기 전용)
+ * - 평면 댓글 목록을 한 번 훑어 최상위 댓글별 스레드로 묶습니다. (댓글 수에 비례, 재귀 없음)
+ * - 스레드의 답글은 답글의 답글까지 작성 순서(깊이 우선)로 펼쳐 둡니다.
+ * - 부모가 목록에 없는 답글(부모가 하드 삭제됨)은 최상위 댓글로 취급하여 빠뜨리지 않습니다.
+ * - 페이지는 최상위 댓글 ID / 답글 ID 커서로 나누고, 커서 위치는 맵으로 바로 찾습니다.
+ */
+public final class ForumCommentTree {
+
+    private final List<CommentThread> threads = new ArrayList<>();
+    private final Map<Integer, Integer> threadIndex = new HashMap<>(); // 최상위 댓글 ID -> threads 위치
+    private final int totalComments;
+
+    private ForumCommentTree(int totalComments) {
+        this.totalComments = totalComments;
+    }
+
+    public static ForumCommentTree build(List<ForumPostCommentResponseDto> comments) {
+        ForumCommentTree tree = new ForumCommentTree(comments.size());
+
+        Map<Long, ForumPostCommentResponseDto> byId = new HashMap<>(comments.size() * 2);
+        for (ForumPostCommentResponseDto comment : comments) {
+            if (comment.getId() != null) byId.putIfAbsent(comment.getId().longValue(), comment);
+        }
+        Map<Long, List<ForumPostCommentResponseDto>> children = new HashMap<>();
+        List<ForumPostCommentResponseDto> roots = new ArrayList<>();
+        for (ForumPostCommentResponseDto comment : comments) {
+            Long parentId = comment.getParentCommentId();
+            boolean reply = parentId != null && byId.containsKey(parentId)
+                    && (comment.getId() == null || parentId != comment.getId().longValue());
+            if (reply) {
+                children.computeIfAbsent(parentId, id -> new ArrayList<>()).add(comment);
+            } else {
+                roots.add(comment);
+            }
+        }
+
+        Set<ForumPostCommentResponseDto> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ForumPostCommentResponseDto root : roots) {
+            tree.addThread(root, collectReplies(root, children, visited));
+        }
+        // 부모 사슬이 순환하여 어느 최상위 댓글에도 닿지 않은 댓글도 최상위로 표시
+        for (ForumPostCommentResponseDto comment : comments) {
+            if (!visited.contains(comment)) {
+                tree.addThread(comment, collectReplies(comment, children, visited));
+            }
+        }
+        return tree;
+    }
+
+    // 깊이 우선(작성 순서 유지)으로 답글을 펼침. 스택을 사용하여 깊은 스레드에서도 재귀 한도에 걸리지 않음
+    private static List<ForumPostCommentResponseDto> collectReplies(ForumPostCommentResponseDto root,
+                                                                    Map<Long, List<ForumPostCommentResponseDto>> children,
+                                                                    Set<ForumPostCommentResponseDto> visited) {
+        visited.add(root);
+        List<ForumPostCommentResponseDto> replies = new ArrayList<>();
+        Deque<ForumPostCommentResponseDto> stack = new ArrayDeque<>();
+        pushChildren(root, children, stack);
+        while (!stack.isEmpty()) {
+            ForumPostCommentResponseDto comment = stack.pop();
+            if (!visited.add(comment)) continue;
+            replies.add(comment);
+            pushChildren(comment, children, stack);
+        }
+        return replies;
+    }
+
+    private static void pushChildren(ForumPostCommentResponseDto parent,
+                                     Map<Long, List<ForumPostCommentResponseDto>> children,
+                                     Deque<ForumPostCommentResponseDto> stack) {
+        if (parent.getId() == null) return;
+        List<ForumPostCommentResponseDto> list = children.get(parent.getId().longValue());
+        if (list == null) return;
+        for (int i = list.size() - 1; i >= 0; i--) {
+            stack.push(list.get(i));
+        }
+    }
+
+    private void addThread(ForumPostCommentResponseDto root, List<ForumPostCommentResponseDto> replies) {
+        if (root.getId() != null) {
+            threadIndex.putIfAbsent(root.getId(), threads.size());
+        }
+        threads.add(new CommentThread(root, replies));
+    }
+
+    /**
+     * 최상위 댓글 after 다음부터 size 개의 스레드를 답글 inlineReplies 개와 함께 반환합니다.
+     */
+    public ForumCommentThreadPageDto page(Integer after, int size, int inlineReplies) {
+        int from = after == null ? 0 : threadIndex.getOrDefault(after, threads.size() - 1) + 1;
+        int to = Math.min(from + Math.max(size, 0), threads.size());
+        List<ForumCommentThreadDto> page = new ArrayList<>(Math.max(to - from, 0));
+        for (int i = from; i < to; i++) {
+            page.add(threads.get(i).toDto(0, inlineReplies));
+        }
+        Integer nextCursor = to < threads.size() && to > from ? threads.get(to - 1).root.getId() : null;
+        return new ForumCommentThreadPageDto(page, threads.size(), totalComments, nextCursor);
+    }
+
+    /**
+     * 최상위 댓글 rootId 스레드의 답글을 답글 after 다음부터 size 개 반환합니다. (스레드가 없으면 null)
+     */
+    public ForumCommentThreadDto replies(Integer rootId, Integer after, int size) {
+        Integer index = threadIndex.get(rootId);
+        if (index == null) return null;
+        CommentThread thread = threads.get(index);
+        int from = after == null ? 0 : thread.replyIndex.getOrDefault(after, thread.replies.size() - 1) + 1;
+        return thread.toDto(from, size);
+    }
+
+    private static final class CommentThread {
+        private final ForumPostCommentResponseDto root;
+        private final List<ForumPostCommentResponseDto> replies;
+        private final Map<Integer, Integer> replyIndex = new HashMap<>(); // 답글 ID -> replies 위치
+
+        CommentThread(ForumPostCommentResponseDto root, List<ForumPostCommentResponseDto> replies) {
+            this.root = root;
+            this.replies = replies;
+            for (int i = 0; i < replies.size(); i++) {
+                if (replies.get(i).getId() != null) replyIndex.putIfAbsent(replies.get(i).getId(), i);
+            }
+        }
+
+        ForumCommentThreadDto toDto(int from, int size) {
+            int start = Math.min(from, replies.size());
+            int end = Math.min(start + Math.max(size, 0), replies.size());
+            Integer nextReplyCursor = end < replies.size() && end > start ? replies.get(end - 1).getId() : null;
+            return new ForumCommentThreadDto(root, List.copyOf(replies.subList(start, end)), replies.size(), nextReplyCursor);
+        }
+    }
+}
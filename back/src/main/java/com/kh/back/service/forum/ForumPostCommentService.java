@@ -1,17 +1,24 @@
 package com.kh.back.service.forum;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.kh.back.dto.forum.request.CommentReportRequestDto;
 import com.kh.back.dto.forum.request.ForumPostCommentRequestDto;
 import com.kh.back.dto.forum.request.ReportRequestDto;
+import com.kh.back.dto.forum.response.ForumCommentThreadDto;
+import com.kh.back.dto.forum.response.ForumCommentThreadPageDto;
 import com.kh.back.dto.forum.response.ForumPostCommentResponseDto;
 import com.kh.back.service.member.MemberService;
 import com.kh.back.service.python.ForumEsService;
+import com.kh.back.service.python.SidecarAsyncGateway;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +27,14 @@ public class ForumPostCommentService {
 
     private final ForumEsService forumEsService; // ElasticSearch (Flask) 호출
     private final MemberService memberService;
+    private final HtmlSanitizer htmlSanitizer;
+    private final SidecarAsyncGateway sidecarAsyncGateway;
+
+    // 게시글 id -> 댓글 트리 스냅샷. 댓글 생성/수정/삭제/숨김/복구/신고/좋아요 시 무효화
+    private final Cache<String, ForumCommentTree> threadCache = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(5, TimeUnit.MINUTES)
+            .build();
 
     /**
      * 특정 게시글에 대한 댓글 리스트 조회
@@ -30,6 +45,63 @@ public class ForumPostCommentService {
         return forumEsService.searchCommentsForPost(postId);
     }
 
+    /**
+     * 특정 게시글에 대한 댓글 리스트 조회 (비동기)
+     */
+    public CompletableFuture<List<ForumPostCommentResponseDto>> getCommentsForPostAsync(String postId) {
+        log.info("게시글 ID: {} 의 댓글 비동기 조회 요청", postId);
+        return sidecarAsyncGateway.commentsForPost(postId);
+    }
+
+    /**
+     * 게시글 댓글 스레드 조회 (최상위 댓글 기준 페이지)
+     * KR: 댓글 목록을 한 번만 가져와 트리로 묶고, 최상위 댓글마다 답글 inlineReplies 개를 함께 담아 반환합니다.
+     *     after 는 이전 페이지의 nextCursor 입니다.
+     */
+    public ForumCommentThreadPageDto getCommentThreads(String postId, Integer after, int size, int inlineReplies) {
+        ForumCommentTree tree = getCommentTree(postId);
+        if (tree == null) {
+            return new ForumCommentThreadPageDto(List.of(), 0, 0, null);
+        }
+        return tree.page(after, size, inlineReplies);
+    }
+
+    /**
+     * 최상위 댓글 하나의 답글 조회 (스레드 펼치기)
+     * KR: after 는 이전 응답의 nextReplyCursor 입니다. 스레드가 없으면 null 을 반환합니다.
+     */
+    public ForumCommentThreadDto getCommentReplies(String postId, Integer commentId, Integer after, int size) {
+        ForumCommentTree tree = getCommentTree(postId);
+        return tree != null ? tree.replies(commentId, after, size) : null;
+    }
+
+    // 조회 실패(null)는 캐시하지 않음
+    private ForumCommentTree getCommentTree(String postId) {
+        ForumCommentTree tree = threadCache.getIfPresent(postId);
+        if (tree != null) {
+            return tree;
+        }
+        List<ForumPostCommentResponseDto> comments = forumEsService.searchCommentsForPost(postId);
+        if (comments == null) {
+            return null;
+        }
+        tree = ForumCommentTree.build(comments);
+        threadCache.put(postId, tree);
+        return tree;
+    }
+
+    /**
+     * 게시글의 댓글 트리 스냅샷 무효화
+     * KR: 댓글 좋아요처럼 다른 서비스에서 댓글 내용이 바뀔 때도 호출합니다. postId 를 모르면 전체를 비웁니다.
+     */
+    public void evictThreads(String postId) {
+        if (postId != null) {
+            threadCache.invalidate(postId);
+        } else {
+            threadCache.invalidateAll();
+        }
+    }
+
     /**
      * 새로운 댓글 생성
      * KR: ElasticService를 호출하여 새로운 댓글을 생성합니다.
@@ -37,8 +109,8 @@ public class ForumPostCommentService {
     @Transactional
     public ForumPostCommentResponseDto createComment(ForumPostCommentRequestDto requestDto) {
         log.info("게시글 ID: {} 에 새로운 댓글 생성 요청", requestDto.getPostId());
-        // 필요 시 HTML sanitize 처리 (여기서는 단순 통과)
-        String sanitizedContent = requestDto.getContent();
+        // 게시글과 같은 허용 목록으로 HTML sanitize 처리
+        String sanitizedContent = htmlSanitizer.sanitize(requestDto.getContent());
         requestDto.setContent(sanitizedContent);
 
         // MemberService를 통해 실제 닉네임 조회 (회원 정보는 Member 테이블에서 가져옵니다)
@@ -46,7 +118,9 @@ public class ForumPostCommentService {
         // 조회한 닉네임을 댓글 작성자 이름(authorName)과 member.nickName에 설정
         requestDto.setAuthorName(nickname);
 
-        return forumEsService.createComment(requestDto);
+        ForumPostCommentResponseDto created = forumEsService.createComment(requestDto);
+        evictThreads(requestDto.getPostId());
+        return created;
     }
 
     /**
@@ -58,7 +132,9 @@ public class ForumPostCommentService {
         log.info("댓글 ID: {} 수정 요청, 사용자 ID: {}", commentId, loggedInMemberId);
         // 관리자인 경우 "ADMIN", 그렇지 않으면 사용자 ID를 문자열로 전달
         String editedBy = isAdmin ? "ADMIN" : loggedInMemberId.toString();
-        return forumEsService.updateComment(commentId, requestDto, editedBy, isAdmin);
+        ForumPostCommentResponseDto updated = forumEsService.updateComment(commentId, requestDto, editedBy, isAdmin);
+        evictThreads(requestDto.getPostId());
+        return updated;
     }
 
     /**
@@ -69,7 +145,10 @@ public class ForumPostCommentService {
     public ForumPostCommentResponseDto replyToComment(Integer parentCommentId, ForumPostCommentRequestDto requestDto) {
         log.info("부모 댓글 ID: {} 에 대한 답글 생성 요청", parentCommentId);
         requestDto.setParentCommentId(parentCommentId);
-        return forumEsService.createComment(requestDto);
+        requestDto.setContent(htmlSanitizer.sanitize(requestDto.getContent()));
+        ForumPostCommentResponseDto created = forumEsService.createComment(requestDto);
+        evictThreads(requestDto.getPostId());
+        return created;
     }
 
     /**
@@ -81,7 +160,10 @@ public class ForumPostCommentService {
         log.info("게시글 ID: {} 에 대한 답글 생성 요청", postId);
         requestDto.setPostId(postId);
         requestDto.setParentCommentId(null);
-        return forumEsService.createComment(requestDto);
+        requestDto.setContent(htmlSanitizer.sanitize(requestDto.getContent()));
+        ForumPostCommentResponseDto created = forumEsService.createComment(requestDto);
+        evictThreads(requestDto.getPostId());
+        return created;
     }
 
     /**
@@ -91,7 +173,9 @@ public class ForumPostCommentService {
     @Transactional
     public boolean deleteComment(Integer commentId, Long loggedInMemberId, String postId) {
         log.info("댓글 ID: {} 삭제 요청, 사용자 ID: {}, postId: {}", commentId, loggedInMemberId, postId);
-        return forumEsService.deleteComment(commentId, postId, loggedInMemberId);
+        boolean deleted = forumEsService.deleteComment(commentId, postId, loggedInMemberId);
+        evictThreads(postId);
+        return deleted;
     }
 
     /**
@@ -102,6 +186,7 @@ public class ForumPostCommentService {
     public void hardDeleteComment(Integer commentId) {
         log.info("댓글 ID: {} 하드 삭제 요청", commentId);
         forumEsService.hardDeleteComment(commentId);
+        threadCache.invalidateAll(); // 댓글 ID 는 게시글마다 따로 매겨지므로 어느 게시글인지 알 수 없음
     }
 
     /**
@@ -111,12 +196,14 @@ public class ForumPostCommentService {
     @Transactional
     public ForumPostCommentResponseDto reportComment(Integer commentId, CommentReportRequestDto reportRequestDto) {
         log.info("댓글 ID: {} 신고 요청, 신고자 ID: {}", commentId, reportRequestDto.getReporterId());
-        return forumEsService.reportComment(
+        ForumPostCommentResponseDto reported = forumEsService.reportComment(
                 commentId,
                 reportRequestDto.getReporterId(),
                 reportRequestDto.getReason(),
                 reportRequestDto.getPostId()
         );
+        evictThreads(reportRequestDto.getPostId()); // 신고 누적으로 자동 숨김될 수 있음
+        return reported;
     }
 
 
@@ -130,6 +217,7 @@ public class ForumPostCommentService {
     public void hideComment(Integer commentId) {
         log.info("댓글 ID: {} 숨김 처리 요청", commentId);
         forumEsService.hideComment(commentId);
+        threadCache.invalidateAll(); // 댓글 ID 는 게시글마다 따로 매겨지므로 어느 게시글인지 알 수 없음
     }
 
     /**
@@ -139,7 +227,9 @@ public class ForumPostCommentService {
     @Transactional
     public ForumPostCommentResponseDto restoreComment(Integer commentId, String postId) {
         log.info("댓글 ID: {} 복원 요청, postId: {}", commentId, postId);
-        return forumEsService.restoreComment(commentId, postId);
+        ForumPostCommentResponseDto restored = forumEsService.restoreComment(commentId, postId);
+        evictThreads(postId);
+        return restored;
     }
 
     // 작성 댓글 조회 메서드
@@ -150,5 +240,11 @@ public class ForumPostCommentService {
         return forumEsService.searchCommentsByMember(memberId, page, size);
     }
 
+    // 작성 댓글 조회 메서드 (비동기)
+    public CompletableFuture<List<ForumPostCommentResponseDto>> getCommentsByMemberAsync(Long memberId, int page, int size) {
+        log.info("memberId {}의 댓글 비동기 조회 요청, 페이지: {}, 사이즈: {}", memberId, page, size);
+        return sidecarAsyncGateway.commentsByMember(memberId, page, size);
+    }
+
 
 }
@@ -11,6 +11,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class ForumPostLikeService {
 
     private final ForumEsService forumEsService;
+    private final ForumPostCommentService forumPostCommentService; // 댓글 트리 캐시 무효화
 
     /**
      * 게시글에 대한 좋아요 토글
@@ -34,7 +35,9 @@ public class ForumPostLikeService {
      */
     @Transactional
     public ForumPostLikeResponseDto toggleCommentLike(Integer commentId, Long memberId, String postId) {
-        return forumEsService.toggleCommentLike(commentId, memberId, postId);
+        ForumPostLikeResponseDto response = forumEsService.toggleCommentLike(commentId, memberId, postId);
+        forumPostCommentService.evictThreads(postId); // 캐시된 스레드의 좋아요 수 갱신
+        return response;
     }
 
 }
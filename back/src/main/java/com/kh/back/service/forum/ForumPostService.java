@@ -1,7 +1,11 @@
 package com.kh.back.service.forum;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.kh.back.dto.forum.request.ForumPostRequestDto;
 import com.kh.back.dto.forum.response.ForumPostCommentResponseDto;
+import com.kh.back.dto.forum.response.ForumPostMetaDto;
+import com.kh.back.dto.forum.response.ForumPostPageDto;
 import com.kh.back.dto.forum.response.ForumPostResponseDto;
 import com.kh.back.dto.forum.response.PaginationDto;
 import com.kh.back.dto.python.SearchListResDto;
@@ -9,10 +13,9 @@ import com.kh.back.dto.python.SearchResDto;
 import com.kh.back.service.PurchaseService;
 import com.kh.back.service.member.MemberService;
 import com.kh.back.service.python.ForumEsService;
+import com.kh.back.service.python.SidecarAsyncGateway;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
-import org.jsoup.safety.Safelist;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +25,8 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
@@ -31,20 +36,23 @@ public class ForumPostService {
     private final ForumEsService forumEsService;
     private final MemberService memberService;
     private final PurchaseService purchaseService; // 프리미엄 회원 체크를 위한 서비스 주입
+    private final SidecarAsyncGateway sidecarAsyncGateway;
+    private final ForumViewCounter forumViewCounter;
+    private final HtmlSanitizer htmlSanitizer;
 
     private static final int REPORT_THRESHOLD = 10;
 
-    /**
-     * HTML 내용 Sanitizing 메서드
-     */
-    private String sanitizeHtml(String content) {
-        if (content == null || content.isEmpty()) return content;
-        Safelist safelist = Safelist.relaxed()
-                .addAttributes("blockquote", "class")
-                .addAttributes("a", "href", "rel", "target")
-                .addProtocols("a", "href", "#", "http", "https", "mailto", "tel", "ftp");
-        return Jsoup.clean(content, safelist);
-    }
+    // 카테고리별 고정글 (첫 페이지 상단 구간). 게시글 생성/수정/삭제/숨김/복구 시 전체 무효화
+    private final Cache<String, List<ForumPostResponseDto>> stickyCache = CacheBuilder.newBuilder()
+            .maximumSize(100)
+            .expireAfterWrite(60, TimeUnit.SECONDS)
+            .build();
+
+    // 게시글 id -> 작성자/숨김/삭제 상태 (권한 확인 시 본문 전체를 다시 조회하지 않도록). 상세 조회/생성 시 채우고 변경 시 무효화
+    private final Cache<String, ForumPostMetaDto> metaCache = CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(5, TimeUnit.MINUTES)
+            .build();
 
     /**
      * 게시글 생성 메서드
@@ -62,7 +70,7 @@ public class ForumPostService {
         }
 
         // HTML 콘텐츠를 sanitizing 처리하여 안전하게 변환
-        String sanitizedContent = sanitizeHtml(requestDto.getContent());
+        String sanitizedContent = htmlSanitizer.sanitize(requestDto.getContent());
         requestDto.setContent(sanitizedContent);
 
         // 회원의 닉네임을 조회하여 작성자 이름(authorName)으로 설정
@@ -84,6 +92,8 @@ public class ForumPostService {
 
         // ES(Elasticsearch) 백엔드에 게시글 생성 요청
         ForumPostResponseDto createdDto = forumEsService.createPost(requestDto);
+        stickyCache.invalidateAll();
+        cacheMeta(createdDto);
         log.info("ES에 게시글 생성됨. ID: {}", createdDto.getId());
         return createdDto;
     }
@@ -91,24 +101,85 @@ public class ForumPostService {
 
     /**
      * 카테고리별 게시글 조회 및 페이지네이션
+     * - 고정글은 별도 구간(sticky)으로 첫 페이지에만 담고, data/totalElements 는 일반 게시글 기준입니다.
+     * - cursor 가 있으면 이전 응답의 nextCursor 이후부터 조회합니다. (page 는 응답 표시용)
      */
-    public PaginationDto<ForumPostResponseDto> getPostsByCategory(String categoryId, int page, int size) {
+    public PaginationDto<ForumPostResponseDto> getPostsByCategory(String categoryId, int page, int size, String cursor) {
         log.info("카테고리 ID: {} 의 게시글 조회, 페이지: {}, 사이즈: {}", categoryId, page, size);
         String categoryStr = (categoryId != null) ? categoryId.toString() : "";
-        List<ForumPostResponseDto> rawResults = forumEsService.search("", categoryStr, page, size);
-        if (rawResults == null) {
-            return new PaginationDto<>(List.of(), page, 0, 0L);
+        List<ForumPostResponseDto> sticky = isFirstPage(page, cursor) ? getStickyPosts(categoryStr) : List.of();
+        return toPagination(forumEsService.categoryPage(categoryStr, page, size, cursor), sticky, page, size);
+    }
+
+    /**
+     * 카테고리별 게시글 조회 (비동기)
+     * - 사이드카 호출은 sidecarExecutor 에서 수행되고, 요청 스레드는 즉시 반환됩니다.
+     * - 첫 페이지의 고정글 조회(캐시에 없을 때)는 목록 조회와 동시에 수행합니다.
+     */
+    public CompletableFuture<PaginationDto<ForumPostResponseDto>> getPostsByCategoryAsync(String categoryId, int page, int size, String cursor) {
+        log.info("카테고리 ID: {} 의 게시글 비동기 조회, 페이지: {}, 사이즈: {}", categoryId, page, size);
+        String categoryStr = (categoryId != null) ? categoryId.toString() : "";
+        CompletableFuture<List<ForumPostResponseDto>> sticky = isFirstPage(page, cursor)
+                ? getStickyPostsAsync(categoryStr)
+                : CompletableFuture.completedFuture(List.of());
+        return sidecarAsyncGateway.categoryPage(categoryStr, page, size, cursor)
+                .thenCombine(sticky, (result, stickyPosts) -> toPagination(result, stickyPosts, page, size));
+    }
+
+    private static boolean isFirstPage(int page, String cursor) {
+        return page == 0 && (cursor == null || cursor.isEmpty());
+    }
+
+    private List<ForumPostResponseDto> getStickyPosts(String category) {
+        List<ForumPostResponseDto> cached = stickyCache.getIfPresent(category);
+        if (cached != null) {
+            return cached;
+        }
+        return cacheSticky(category, forumEsService.stickyPosts(category));
+    }
+
+    private CompletableFuture<List<ForumPostResponseDto>> getStickyPostsAsync(String category) {
+        List<ForumPostResponseDto> cached = stickyCache.getIfPresent(category);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return sidecarAsyncGateway.stickyPosts(category).thenApply(posts -> cacheSticky(category, posts));
+    }
+
+    // 조회 실패(null)는 캐시하지 않음
+    private List<ForumPostResponseDto> cacheSticky(String category, List<ForumPostResponseDto> posts) {
+        if (posts == null) {
+            return List.of();
+        }
+        List<ForumPostResponseDto> stickyPosts = List.copyOf(posts);
+        stickyCache.put(category, stickyPosts);
+        return stickyPosts;
+    }
+
+    private PaginationDto<ForumPostResponseDto> toPagination(ForumPostPageDto result, List<ForumPostResponseDto> sticky, int page, int size) {
+        if (result == null || result.getItems() == null) {
+            return new PaginationDto<>(List.of(), page, 0, 0L, null, sticky);
         }
-        List<ForumPostResponseDto> postList = new ArrayList<>(rawResults);
-        // totalPages와 totalElements는 필요에 따라 계산 (현재는 더미 값 사용)
-        int totalPages = 1;
-        long totalElements = postList.size();
-        return new PaginationDto<>(postList, page, totalPages, totalElements);
+        List<ForumPostResponseDto> postList = new ArrayList<>(result.getItems());
+        long totalElements = result.getTotal();
+        int totalPages = size > 0 ? (int) ((totalElements + size - 1) / size) : 0;
+        return new PaginationDto<>(postList, page, totalPages, totalElements, result.getNextCursor(), sticky);
     }
 
     public Optional<ForumPostResponseDto> getPostDetails(String postId) {
         log.info("게시글 상세 조회, ID: {}", postId);
-        ForumPostResponseDto rawDto = forumEsService.detail(postId);
+        return toDetail(forumEsService.detail(postId));
+    }
+
+    /**
+     * 게시글 상세 조회 (비동기)
+     */
+    public CompletableFuture<Optional<ForumPostResponseDto>> getPostDetailsAsync(String postId) {
+        log.info("게시글 상세 비동기 조회, ID: {}", postId);
+        return sidecarAsyncGateway.postDetail(postId).thenApply(this::toDetail);
+    }
+
+    private Optional<ForumPostResponseDto> toDetail(ForumPostResponseDto rawDto) {
         if (rawDto == null) {
             log.warn("getPostDetails() -> 받은 DTO가 null입니다.");
             return Optional.empty();
@@ -119,18 +190,40 @@ public class ForumPostService {
                 rawDto.getId(), rawDto.getTitle(), rawDto.getContent(), rawDto.getAuthorName(),
                 rawDto.getMemberId(), rawDto.getCreatedAt(), rawDto.getUpdatedAt(), rawDto.getContentJSON(),
                 rawDto.getSticky(), rawDto.getViewsCount(), rawDto.getLikesCount(), rawDto.getReportCount());
+        cacheMeta(rawDto);
         return Optional.of(rawDto);
     }
 
+    /**
+     * 게시글 메타데이터 조회 (권한 확인용)
+     * - 캐시에 없으면 사이드카에서 본문을 뺀 메타데이터만 가져옵니다.
+     */
+    private ForumPostMetaDto getPostMeta(String postId, String notFoundMessage) {
+        ForumPostMetaDto meta = metaCache.getIfPresent(postId);
+        if (meta != null) {
+            return meta;
+        }
+        meta = forumEsService.meta(postId);
+        if (meta == null || meta.getMemberId() == null) {
+            throw new IllegalArgumentException(notFoundMessage);
+        }
+        metaCache.put(postId, meta);
+        return meta;
+    }
+
+    private void cacheMeta(ForumPostResponseDto post) {
+        if (post != null && post.getId() != null) {
+            metaCache.put(post.getId(), ForumPostMetaDto.of(post));
+        }
+    }
+
     /**
      * 게시글 제목 수정
      */
     @Transactional
     public ForumPostResponseDto updatePostTitle(String postId, String title, Long loggedInMemberId, boolean isAdmin) {
         log.info("게시글 제목 수정 요청, ID: {}", postId);
-        ForumPostResponseDto existing = getPostDetails(postId).orElseThrow(
-                () -> new IllegalArgumentException("해당 ID의 게시글이 존재하지 않습니다: " + postId)
-        );
+        ForumPostMetaDto existing = getPostMeta(postId, "해당 ID의 게시글이 존재하지 않습니다: " + postId);
         if (!isAdmin && !existing.getMemberId().equals(loggedInMemberId)) {
             throw new SecurityException("이 게시글의 제목을 수정할 권한이 없습니다.");
         }
@@ -139,6 +232,8 @@ public class ForumPostService {
                 title,
                 isAdmin ? "ADMIN" : existing.getAuthorName()
         );
+        stickyCache.invalidateAll();
+        metaCache.invalidate(postId);
         return updated;
     }
 
@@ -148,9 +243,7 @@ public class ForumPostService {
     @Transactional
     public ForumPostResponseDto updatePostContent(String postId, String contentJSON, Long loggedInMemberId, boolean isAdmin) {
         log.info("게시글 내용 수정 요청, ID: {} / 요청자 ID: {}", postId, loggedInMemberId);
-        ForumPostResponseDto existing = getPostDetails(postId).orElseThrow(
-                () -> new IllegalArgumentException("해당 ID의 게시글이 존재하지 않습니다: " + postId)
-        );
+        ForumPostMetaDto existing = getPostMeta(postId, "해당 ID의 게시글이 존재하지 않습니다: " + postId);
         if (!isAdmin && !existing.getMemberId().equals(loggedInMemberId)) {
             throw new SecurityException("이 게시글의 내용을 수정할 권한이 없습니다.");
         }
@@ -163,6 +256,8 @@ public class ForumPostService {
                 isAdmin ? "ADMIN" : existing.getAuthorName(),
                 isAdmin
         );
+        stickyCache.invalidateAll();
+        metaCache.invalidate(postId);
         return updated;
     }
 
@@ -172,14 +267,14 @@ public class ForumPostService {
     @Transactional
     public void deletePost(String postId, Long loggedInMemberId, String removedBy) {
         log.info("게시글 삭제 요청, ID: {} / 사용자 ID: {}", postId, loggedInMemberId);
-        ForumPostResponseDto existing = getPostDetails(postId).orElseThrow(
-                () -> new IllegalArgumentException("유효하지 않은 게시글 ID: " + postId)
-        );
+        ForumPostMetaDto existing = getPostMeta(postId, "유효하지 않은 게시글 ID: " + postId);
         boolean isAdmin = memberService.isAdmin(loggedInMemberId);
         if (!existing.getMemberId().equals(loggedInMemberId) && !isAdmin) {
             throw new AccessDeniedException("이 게시글을 삭제할 권한이 없습니다.");
         }
         forumEsService.deletePost(postId, removedBy);
+        stickyCache.invalidateAll();
+        metaCache.invalidate(postId);
         log.info("게시글 ID: {} 가 ES에서 삭제 처리됨.", postId);
     }
 
@@ -190,6 +285,8 @@ public class ForumPostService {
     public void hardDeletePost(String postId) {
         log.info("게시글 하드 삭제 요청, ID: {}", postId);
         forumEsService.hardDeletePost(postId);
+        stickyCache.invalidateAll();
+        metaCache.invalidate(postId);
         log.info("게시글 ID: {} 가 ES에서 하드 삭제됨.", postId);
     }
 
@@ -199,13 +296,12 @@ public class ForumPostService {
     @Transactional
     public ForumPostResponseDto reportPost(String postId, Long reporterId, String reason) {
         log.info("게시글 신고 요청, ID: {} / 신고자 ID: {}", postId, reporterId);
-        ForumPostResponseDto existing = getPostDetails(postId).orElseThrow(
-                () -> new IllegalArgumentException("유효하지 않은 게시글 ID: " + postId)
-        );
+        ForumPostMetaDto existing = getPostMeta(postId, "유효하지 않은 게시글 ID: " + postId);
         if (existing.getMemberId().equals(reporterId)) {
             throw new IllegalArgumentException("자신의 게시글은 신고할 수 없습니다.");
         }
         ForumPostResponseDto updated = forumEsService.reportPost(postId, reporterId.intValue(), reason);
+        metaCache.invalidate(postId); // 신고 누적으로 자동 숨김될 수 있음
         return updated;
     }
 
@@ -216,6 +312,8 @@ public class ForumPostService {
     public void hidePost(String postId) {
         log.info("게시글 숨김 요청, ID: {}", postId);
         forumEsService.hidePost(postId);
+        stickyCache.invalidateAll();
+        metaCache.invalidate(postId);
     }
 
     /**
@@ -225,15 +323,18 @@ public class ForumPostService {
     public void restorePost(String postId) {
         log.info("게시글 복구 요청, ID: {}", postId);
         forumEsService.restorePost(postId);
+        stickyCache.invalidateAll();
+        metaCache.invalidate(postId);
     }
 
     /**
      * 게시글 조회수 증가
+     * - 버퍼(ForumViewCounter)에만 기록하고 사이드카에는 주기적으로 모아서 반영합니다.
+     * - 같은 조회자(viewerKey)의 반복 조회는 일정 시간 동안 한 번만 셉니다.
      */
-    @Transactional
-    public void incrementViewCount(String postId) {
-        log.info("게시글 조회수 증가 요청, ID: {}", postId);
-        forumEsService.incrementViewCount(postId);
+    public void incrementViewCount(String postId, String viewerKey) {
+        log.debug("게시글 조회수 증가 요청, ID: {}", postId);
+        forumViewCounter.record(postId, viewerKey);
     }
 
     /**
@@ -242,18 +343,17 @@ public class ForumPostService {
     @Transactional
     public ForumPostResponseDto quotePost(Integer quotingMemberId, String quotedPostId, String commentContent) {
         log.info("게시글 인용 요청, 인용 대상 게시글 ID: {} / 인용 회원 ID: {}", quotedPostId, quotingMemberId);
+        // 인용문에 본문이 필요하므로 전체 문서를 한 번만 조회 (메타 캐시는 toDetail 에서 채워짐)
         ForumPostResponseDto quoted = getPostDetails(quotedPostId).orElseThrow(
                 () -> new IllegalArgumentException("인용 대상 게시글을 찾을 수 없습니다.")
         );
-        if (quoted.getHidden() || quoted.getRemovedBy() != null) {
+        if (Boolean.TRUE.equals(quoted.getHidden()) || quoted.getRemovedBy() != null) {
             throw new IllegalStateException("숨김 처리되거나 삭제된 게시글은 인용할 수 없습니다.");
         }
-        String quotedText = String.format(
-                "<blockquote><strong>%s</strong> wrote:<br><em>%s</em></blockquote><p>%s</p>",
-                quoted.getAuthorName(),
-                quoted.getContent(),
-                commentContent
-        );
+        // 인용 본문은 저장 시 이미 정제되었고, 작성자 이름은 평문이므로 이스케이프 (createPost 에서 전체를 다시 정제)
+        String quotedText = "<blockquote><strong>" + htmlSanitizer.escape(quoted.getAuthorName())
+                + "</strong> wrote:<br><em>" + (quoted.getContent() != null ? quoted.getContent() : "")
+                + "</em></blockquote><p>" + htmlSanitizer.sanitize(commentContent) + "</p>";
         ForumPostRequestDto newPost = ForumPostRequestDto.builder()
                 .memberId(Long.valueOf(quotingMemberId))
                 .categoryId(null) // 필요 시 인용 대상 게시글의 카테고리를 사용할 수 있음
@@ -271,9 +371,7 @@ public class ForumPostService {
      */
     public boolean canEditPost(String postId, Long loggedInMemberId) {
         log.info("게시글 수정 권한 확인 요청, ID: {} / 사용자 ID: {}", postId, loggedInMemberId);
-        ForumPostResponseDto existing = getPostDetails(postId).orElseThrow(
-                () -> new IllegalArgumentException("유효하지 않은 게시글 ID: " + postId)
-        );
+        ForumPostMetaDto existing = getPostMeta(postId, "유효하지 않은 게시글 ID: " + postId);
         return existing.getMemberId().equals(loggedInMemberId);
     }
 
@@ -282,9 +380,7 @@ public class ForumPostService {
      */
     public boolean canDeletePost(String postId, Long loggedInMemberId) {
         log.info("게시글 삭제 권한 확인 요청, ID: {} / 사용자 ID: {}", postId, loggedInMemberId);
-        ForumPostResponseDto existing = getPostDetails(postId).orElseThrow(
-                () -> new IllegalArgumentException("유효하지 않은 게시글 ID: " + postId)
-        );
+        ForumPostMetaDto existing = getPostMeta(postId, "유효하지 않은 게시글 ID: " + postId);
         return existing.getMemberId().equals(loggedInMemberId);
     }
 
@@ -303,4 +399,10 @@ public class ForumPostService {
         // ForumEsService에 새로 추가한 검색 메서드를 호출 (Flask/ES에서 memberId 조건을 포함)
         return forumEsService.searchPostsByMember(memberId, page, size);
     }
+
+    // 작성 게시글 조회 메서드 (비동기)
+    public CompletableFuture<List<ForumPostResponseDto>> getPostsByMemberAsync(Long memberId, int page, int size) {
+        log.info("memberId {}의 게시글 비동기 조회 요청, 페이지: {}, 사이즈: {}", memberId, page, size);
+        return sidecarAsyncGateway.postsByMember(memberId, page, size);
+    }
 }
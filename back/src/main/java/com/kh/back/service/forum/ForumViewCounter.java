@@ -0,0 +1,259 @@
+package com.kh.back.service.forum;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.kh.back.service.python.ForumEsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 포럼 게시글 조회수 버퍼
+ * - 조회 한 번마다 사이드카(ES)에 쓰지 않고, 게시글별 LongAdder 에 모았다가 주기(forum.view.flush-ms)마다 증감분을 한 번에 보냅니다.
+ * - 같은 조회자(회원 id 또는 IP+User-Agent)가 dedup-window-sec 안에 같은 글을 다시 열면 세지 않습니다. (새로고침 반복 방지)
+ * - 전송 묶음마다 deltaId 를 붙이고, 실패하면 같은 deltaId 로 재전송합니다. (Flask 가 문서 필드별 최근 deltaId 32개로 중복 반영을 막음,
+ *   노드가 여러 개여도 재시도 사이에 다른 묶음이 32개 넘게 반영되지 않는 한 한 번만 반영)
+ * - forum.view.redis.enabled=true 면 증감분을 Redis 해시(forum-view:pending)에 HINCRBY 로 합치고,
+ *   여러 노드 중 대기 해시를 먼저 교체(RENAME)한 노드가 전송합니다. 중복 확인도 Redis(SET NX EX)로 클러스터 전체에 적용합니다.
+ */
+@Slf4j
+@Component
+public class ForumViewCounter {
+
+    private static final String PENDING_KEY = "forum-view:pending";
+    private static final String SHIPPING_PREFIX = "forum-view:shipping:";
+    private static final String SHIPPING_QUEUE = "forum-view:shipping-queue";
+    private static final String SEEN_PREFIX = "forum-view:seen:";
+    private static final int CHUNK_SIZE = 500;
+
+    // KEYS[1]=대기 해시 / ARGV=게시글 id, 증감값 쌍
+    private static final RedisScript<Long> MIRROR_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, #ARGV, 2 do redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+            "return #ARGV / 2", Long.class);
+
+    // 전송 중(미완료)인 해시가 있으면 그것을, 없으면 대기 해시를 새 이름으로 교체하여 반환 (RedisService 좋아요/신고 파이프라인과 같은 방식)
+    private static final RedisScript<String> ROTATE_SCRIPT = new DefaultRedisScript<>(
+            "local inflight = redis.call('LINDEX', KEYS[2], 0) " +
+            "if inflight then return inflight end " +
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return false end " +
+            "redis.call('RENAME', KEYS[1], KEYS[3]) " +
+            "redis.call('RPUSH', KEYS[2], KEYS[3]) " +
+            "return KEYS[3]", String.class);
+
+    private final ForumEsService forumEsService;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean redisEnabled;
+    private final long dedupWindowSec;
+    private final Cache<String, Boolean> recentViews;
+
+    // 게시글 id -> 누적 조회수. 게시글 수만큼만 생기므로 지우지 않음 (지우면 동시에 증가한 값이 유실될 수 있음)
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile Batch inflight; // 전송에 실패하여 재시도할 묶음 (flushLock 안에서만 접근)
+
+    private final LongAdder views = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder shipped = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder redisErrors = new LongAdder();
+
+    public ForumViewCounter(ForumEsService forumEsService,
+                            RedisTemplate<String, Object> redisTemplate,
+                            @Value("${forum.view.redis.enabled:false}") boolean redisEnabled,
+                            @Value("${forum.view.dedup-window-sec:1800}") long dedupWindowSec,
+                            @Value("${forum.view.dedup.max-size:100000}") long dedupMaxSize) {
+        this.forumEsService = forumEsService;
+        this.redisTemplate = redisTemplate;
+        this.redisEnabled = redisEnabled;
+        this.dedupWindowSec = dedupWindowSec;
+        this.recentViews = CacheBuilder.newBuilder()
+                .maximumSize(dedupMaxSize)
+                .expireAfterWrite(dedupWindowSec, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 조회 한 건을 기록합니다. (요청 스레드에서는 메모리만 갱신, Redis 모드에서도 처음 보는 조회자만 Redis 확인)
+     *
+     * @return 세어졌으면 true, 중복 조회면 false
+     */
+    public boolean record(String postId, String viewerKey) {
+        if (postId == null || postId.isEmpty()) return false;
+        if (viewerKey != null && !firstView(postId, viewerKey)) {
+            duplicates.increment();
+            return false;
+        }
+        counters.computeIfAbsent(postId, id -> new Counter()).total.increment();
+        views.increment();
+        return true;
+    }
+
+    private boolean firstView(String postId, String viewerKey) {
+        String key = viewerKey + ":" + postId;
+        if (recentViews.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
+            return false;
+        }
+        if (!redisEnabled) {
+            return true;
+        }
+        try {
+            Boolean first = redisTemplate.opsForValue().setIfAbsent(SEEN_PREFIX + key, "1", Duration.ofSeconds(dedupWindowSec));
+            return !Boolean.FALSE.equals(first);
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("[ForumViewCounter] Redis 중복 조회 확인 실패, 이 노드 기준으로 판단: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 아직 보내지 않은 증감분을 사이드카(Redis 모드면 Redis 대기 해시)로 보냅니다.
+     */
+    @Scheduled(fixedDelayString = "${forum.view.flush-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (redisEnabled) {
+                mirrorToRedis();
+                shipFromRedis();
+            } else {
+                shipLocal();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void shipLocal() {
+        if (inflight == null) {
+            Map<String, Long> deltas = takeDeltas();
+            if (deltas.isEmpty()) return;
+            inflight = new Batch(UUID.randomUUID().toString(), deltas);
+        }
+        if (ship(inflight)) {
+            inflight = null;
+        }
+    }
+
+    private void mirrorToRedis() {
+        Map<String, Long> deltas = takeDeltas();
+        if (deltas.isEmpty()) return;
+        List<Object> args = new ArrayList<>(deltas.size() * 2);
+        deltas.forEach((postId, delta) -> {
+            args.add(postId);
+            args.add(String.valueOf(delta));
+        });
+        try {
+            redisTemplate.execute(MIRROR_SCRIPT, Collections.singletonList(PENDING_KEY), args.toArray());
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("[ForumViewCounter] Redis 조회수 반영 실패, 다음 주기에 재시도 ({}건): {}", deltas.size(), e.getMessage());
+            deltas.forEach((postId, delta) -> counters.get(postId).unship(delta));
+        }
+    }
+
+    private void shipFromRedis() {
+        try {
+            String shippingKey = redisTemplate.execute(ROTATE_SCRIPT, List.of(PENDING_KEY, SHIPPING_QUEUE, SHIPPING_PREFIX + UUID.randomUUID()));
+            if (shippingKey == null) return;
+            Map<String, Long> deltas = new HashMap<>();
+            redisTemplate.opsForHash().entries(shippingKey).forEach((postId, delta) -> {
+                long value = Long.parseLong((String) delta);
+                if (value != 0) deltas.put((String) postId, value);
+            });
+            if (deltas.isEmpty() || ship(new Batch(shippingKey.substring(SHIPPING_PREFIX.length()), deltas))) {
+                redisTemplate.delete(shippingKey);
+                redisTemplate.opsForList().remove(SHIPPING_QUEUE, 1, shippingKey);
+            }
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("[ForumViewCounter] Redis 조회수 전송 실패, 다음 주기에 재시도: {}", e.getMessage());
+        }
+    }
+
+    // 게시글별로 마지막 전송 이후 늘어난 만큼을 꺼냄 (flushLock 안에서만 호출)
+    private Map<String, Long> takeDeltas() {
+        Map<String, Long> deltas = new HashMap<>();
+        counters.forEach((postId, counter) -> {
+            long delta = counter.take();
+            if (delta > 0) deltas.put(postId, delta);
+        });
+        return deltas;
+    }
+
+    private boolean ship(Batch batch) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(batch.deltas.entrySet());
+        for (int from = 0; from < entries.size(); from += CHUNK_SIZE) {
+            List<Map.Entry<String, Long>> chunk = entries.subList(from, Math.min(from + CHUNK_SIZE, entries.size()));
+            if (!forumEsService.incrementViewCounts(batch.deltaId, chunk)) {
+                failures.increment();
+                log.warn("[ForumViewCounter] 조회수 묶음 {} 전송 실패, 다음 주기에 재시도 ({}건)", batch.deltaId, entries.size());
+                return false;
+            }
+        }
+        flushes.increment();
+        shipped.add(batch.deltas.values().stream().mapToLong(Long::longValue).sum());
+        log.info("[ForumViewCounter] 조회수 묶음 {} 전송 ({}건)", batch.deltaId, entries.size());
+        return true;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("redis", redisEnabled);
+        map.put("posts", counters.size());
+        map.put("views", views.sum());
+        map.put("duplicates", duplicates.sum());
+        map.put("shipped", shipped.sum());
+        map.put("flushes", flushes.sum());
+        map.put("failures", failures.sum());
+        map.put("redisErrors", redisErrors.sum());
+        map.put("retrying", inflight != null);
+        return map;
+    }
+
+    // 종료 시 남은 조회수 전송
+    @PreDestroy
+    public void drain() {
+        log.info("[ForumViewCounter] 종료 전 남은 조회수 전송");
+        flush();
+    }
+
+    private static final class Counter {
+        private final LongAdder total = new LongAdder(); // 요청 스레드들이 경합 없이 증가
+        private long taken;                               // 이미 꺼낸 값 (flushLock 안에서만 갱신)
+
+        long take() {
+            long current = total.sum();
+            long delta = current - taken;
+            taken = current;
+            return delta;
+        }
+
+        void unship(long delta) {
+            taken -= delta;
+        }
+    }
+
+    private static final class Batch {
+        private final String deltaId;
+        private final Map<String, Long> deltas;
+
+        Batch(String deltaId, Map<String, Long> deltas) {
+            this.deltaId = deltaId;
+            this.deltas = deltas;
+        }
+    }
+}
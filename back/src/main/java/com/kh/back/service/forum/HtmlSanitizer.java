@@ -0,0 +1,104 @@
+package com.kh.back.service.forum;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Entities;
+import org.jsoup.safety.Cleaner;
+import org.jsoup.safety.Safelist;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 포럼 게시글/댓글 HTML 정제기
+ * - Safelist 와 Cleaner 는 기동 시 한 번만 만들고 이후 읽기만 하므로 여러 스레드에서 함께 사용합니다.
+ * - 본문이 forum.sanitize.max-length 를 넘으면 정제하지 않고 거절합니다. (큰 본문 하나가 요청 스레드를 오래 잡지 않도록)
+ * - 입력의 SHA-256 으로 정제 결과를 캐시합니다. 정제된 결과 자신도 같은 값으로 등록하므로, 이미 정제된 본문을 다시 보내면 파싱하지 않습니다.
+ */
+@Component
+public class HtmlSanitizer {
+
+    // TipTap 에디터 출력(relaxed)에 인용 블록 class 와 링크 target/rel 을 허용
+    private static final Safelist FORUM_SAFELIST = Safelist.relaxed()
+            .addAttributes("blockquote", "class")
+            .addAttributes("a", "href", "rel", "target")
+            .addProtocols("a", "href", "#", "http", "https", "mailto", "tel", "ftp");
+
+    private final Cleaner cleaner = new Cleaner(FORUM_SAFELIST);
+    private final Document.OutputSettings outputSettings = new Document.OutputSettings().prettyPrint(false);
+    private final int maxLength;
+    private final Cache<String, String> cleaned;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public HtmlSanitizer(@Value("${forum.sanitize.max-length:200000}") int maxLength,
+                         @Value("${forum.sanitize.cache.max-chars:20000000}") long cacheMaxChars) {
+        this.maxLength = maxLength;
+        this.cleaned = CacheBuilder.newBuilder()
+                .maximumWeight(cacheMaxChars)
+                .weigher((String key, String value) -> value.length())
+                .build();
+    }
+
+    /**
+     * 허용 목록 밖의 태그/속성/프로토콜을 제거한 HTML 을 반환합니다.
+     *
+     * @throws IllegalArgumentException 본문이 최대 길이를 넘을 때
+     */
+    public String sanitize(String html) {
+        if (html == null || html.isEmpty()) return html;
+        if (html.length() > maxLength) {
+            rejected.increment();
+            throw new IllegalArgumentException("본문이 너무 깁니다. (최대 " + maxLength + "자)");
+        }
+        String key = hash(html);
+        String result = cleaned.getIfPresent(key);
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+        misses.increment();
+        result = clean(html);
+        cleaned.put(key, result);
+        if (!result.equals(html)) {
+            cleaned.put(hash(result), result);
+        }
+        return result;
+    }
+
+    /**
+     * 태그로 해석되지 않도록 텍스트를 이스케이프합니다. (작성자 이름 등 HTML 에 끼워 넣는 평문)
+     */
+    public String escape(String text) {
+        return text == null ? "" : Entities.escape(text);
+    }
+
+    private String clean(String html) {
+        Document dirty = Jsoup.parseBodyFragment(html);
+        Document clean = cleaner.clean(dirty);
+        clean.outputSettings(outputSettings);
+        return clean.body().html();
+    }
+
+    private static String hash(String html) {
+        return Hashing.sha256().hashString(html, StandardCharsets.UTF_8).toString();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("cacheSize", cleaned.size());
+        map.put("hits", hits.sum());
+        map.put("misses", misses.sum());
+        map.put("rejected", rejected.sum());
+        return map;
+    }
+}
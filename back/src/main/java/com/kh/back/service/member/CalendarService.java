@@ -11,7 +11,7 @@ import com.kh.back.dto.python.SearchResDto;
 import com.kh.back.entity.member.Calendar;
 import com.kh.back.entity.member.Member;
 import com.kh.back.repository.member.CalendarRepository;
-import com.kh.back.service.python.ElasticService;
+import com.kh.back.service.python.RecipeDetailLoader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -21,14 +21,16 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Slf4j @Service
 @RequiredArgsConstructor
 public class CalendarService {
+	private static final long RECIPE_LOOKUP_TIMEOUT_MS = 5000;
 	private final CalendarRepository calendarRepository;
 	private final MemberService memberService;
-	private final ElasticService elasticService;
+	private final RecipeDetailLoader recipeDetailLoader;
 	
 	
 	// ✅ DTO 값에 따라 적절한 조회 메서드 호출
@@ -92,7 +94,7 @@ public class CalendarService {
 	
 	public boolean createCalendar(CalendarCreateReqDto reqDto, Authentication auth) {
 		try{
-			SearchResDto searchResDto = elasticService.detail(reqDto.getRecipeId(), reqDto.getCategory());
+			SearchResDto searchResDto = findRecipe(reqDto.getRecipeId(), reqDto.getCategory());
 			if (searchResDto == null) {
 				log.error("생성하려는 레시피가 존재하지 않음 : {} - {}", reqDto.getRecipeId(), reqDto.getCategory());
 				return false;
@@ -128,7 +130,7 @@ public class CalendarService {
 				log.error("사용자는 캘린더의 작성자가 아닙니다. {}-{}", calendar, member);
 				return false;
 			}
-			SearchResDto searchResDto = elasticService.detail(reqDto.getRecipeId(), reqDto.getCategory());
+			SearchResDto searchResDto = findRecipe(reqDto.getRecipeId(), reqDto.getCategory());
 			if (searchResDto == null) {
 				log.error("수정하려는 레시피가 존재하지 않음 : {} - {}", reqDto.getRecipeId(), reqDto.getCategory());
 				return false;
@@ -219,6 +221,11 @@ public class CalendarService {
 		}
 	}
 	
+	// ✅ 레시피 존재 여부 / 이름 확인 (동시 요청은 /batch/detail 한 번으로 합쳐짐, 조회수 증가 없음)
+	private SearchResDto findRecipe(String recipeId, String category) throws Exception {
+		return recipeDetailLoader.load(recipeId, category).get(RECIPE_LOOKUP_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+	}
+	
 	// ✅ Calendar → CalendarResDto 변환
 	private CalendarResDto convertCalendarToDto(Calendar calendar) {
 		return CalendarResDto.builder()
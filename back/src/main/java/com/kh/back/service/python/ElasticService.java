@@ -1,7 +1,12 @@
 package com.kh.back.service.python;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kh.back.dto.python.LikeReportDeltaDto;
 import com.kh.back.dto.python.SearchListResDto;
 import com.kh.back.dto.python.SearchResDto;
 import com.kh.back.dto.recipe.res.CocktailListResDto;
@@ -11,34 +16,38 @@ import com.kh.back.dto.recipe.res.FoodResDto;
 import com.kh.back.service.redis.RedisService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.data.redis.core.RedisCallback;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.*;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ElasticService {
 
-	private final RestTemplate restTemplate;
-	private final String flaskBaseUrl = "http://localhost:5001";
+	private final SidecarClient sidecarClient;
 	private final ObjectMapper objectMapper;
 	private final RedisService redisService;
-	@Autowired
-	private RedisTemplate<String, Object> redisTemplate;  // RedisTemplate 주입
+	private final RecipeResultCache recipeResultCache;
+	private final RecipeViewCounter recipeViewCounter;
 
 
 	/**
@@ -56,7 +65,14 @@ public class ElasticService {
 	 * @return 검색 결과 목록 (SearchListResDto)
 	 */
 	public List<SearchListResDto> search(String q, String type, String category, String cookingMethod, Integer page, Integer size) {
+		// 정규화된 검색 조건으로 L1/L2 캐시 먼저 확인
+		String cacheKey = recipeResultCache.searchKey(q, type, category, cookingMethod, page, size);
 		try {
+			String cached = recipeResultCache.get(cacheKey);
+			if (cached != null) {
+				return convertResToList(cached, type);
+			}
+
 			String encodedQuery = URLEncoder.encode(q, StandardCharsets.UTF_8);
 			String encodedType = URLEncoder.encode(type, StandardCharsets.UTF_8);
 
@@ -68,7 +84,7 @@ public class ElasticService {
 					? "&cookingMethod=" + URLEncoder.encode(cookingMethod, StandardCharsets.UTF_8)
 					: "";
 
-			URI uri = new URI(flaskBaseUrl + "/search?q=" + encodedQuery
+			URI uri = new URI(sidecarClient.getBaseUrl() + "/search?q=" + encodedQuery
 					+ "&type=" + encodedType
 					+ categoryParam
 					+ methodParam
@@ -77,51 +93,170 @@ public class ElasticService {
 
 			log.info("[search] Calling Flask with URI: {}", uri);
 
-			ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-			log.info("[search] Flask response: {}", response);
-
-			return convertResToList(response.getBody(), type);
+			JavaType listType = listType(type);
+			if (listType == null) {
+				return null; // 다른 타입은 필요 시 추가
+			}
+			// 응답 스트림에서 바로 DTO 목록으로 역직렬화 (본문 String 버퍼링 없음)
+			List<SearchListResDto> result = sidecarClient.get(SidecarEndpoint.SEARCH, uri, listType);
+			if (result != null) {
+				List<String> docIds = new ArrayList<>(result.size());
+				for (SearchListResDto item : result) {
+					docIds.add(item.getId());
+				}
+				recipeResultCache.putSearch(cacheKey, type, objectMapper.writeValueAsString(result), docIds);
+			}
+			return result;
 
 		} catch (Exception e) {
 			log.error("검색 중 에러 발생 (q={}, type={}, category={}, cookingMethod={}, page={}, size={}): {}",
 					q, type, category, cookingMethod, page, size, e.getMessage());
-			return null;
+			// 사이드카 장애면 마지막 정상 응답으로 대체
+			String stale = staleOnOutage(e, cacheKey);
+			try {
+				return stale != null ? convertResToList(stale, type) : null;
+			} catch (IOException ex) {
+				return null;
+			}
 		}
 	}
 
 	/**
 	 * [상세 조회 메서드]
 	 * - 칵테일/음식 등 타입에 따라 적절한 DTO로 매핑
+	 * - 조회수는 캐시 적중 여부와 관계없이 RecipeViewCounter 로 세고, Flask 에는 count=false 로 요청합니다.
 	 */
 	public SearchResDto detail(String id, String type) {
+		String cacheKey = recipeResultCache.detailKey(id, type);
 		try {
-			URI uri = new URI(flaskBaseUrl + "/detail/" + id + "?type=" + type);
-			log.info("[detail] Calling Flask with URI: {}", uri);
+			String cached = recipeResultCache.get(cacheKey);
+			if (cached != null) {
+				SearchResDto result = convertResToDto(cached, type);
+				if (result != null) {
+					recipeViewCounter.record(id, type);
+				}
+				return result;
+			}
 
-			ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-			log.info("[detail] Flask response: {}", response);
+			URI uri = new URI(sidecarClient.getBaseUrl() + "/detail/" + id + "?type=" + type + "&count=false");
+			log.info("[detail] Calling Flask with URI: {}", uri);
 
-			return convertResToDto(response.getBody(), type);
+			Class<? extends SearchResDto> detailType = detailType(type);
+			if (detailType == null) {
+				return null;
+			}
+			SearchResDto result = sidecarClient.get(SidecarEndpoint.SEARCH, uri, detailType);
+			if (result != null) {
+				recipeResultCache.putDetail(cacheKey, objectMapper.writeValueAsString(result));
+				recipeViewCounter.record(id, type);
+			}
+			return result;
 		} catch (Exception e) {
 			log.error("상세 조회 중 에러 (id={}, type={}): {}", id, type, e.getMessage());
-			return null;
+			String stale = staleOnOutage(e, cacheKey);
+			try {
+				return stale != null ? convertResToDto(stale, type) : null;
+			} catch (IOException ex) {
+				return null;
+			}
 		}
 	}
 
+	/**
+	 * 사이드카 장애(타임아웃, 5xx, 브레이커 OPEN, 동시 호출 한도 초과)일 때만 stale 캐시를 돌려줍니다.
+	 * 404 같은 정상 응답 오류는 폴백하지 않습니다.
+	 */
+	private String staleOnOutage(Exception e, String cacheKey) {
+		if (e instanceof SidecarUnavailableException || e instanceof ResourceAccessException
+				|| e instanceof HttpServerErrorException) {
+			String stale = recipeResultCache.getStale(cacheKey);
+			if (stale != null) {
+				log.warn("사이드카 장애로 stale 캐시 응답 사용 (key={})", cacheKey);
+			}
+			return stale;
+		}
+		return null;
+	}
+
+	/**
+	 * [상세 멀티겟 메서드]
+	 * - 여러 id 의 상세를 한 번에 조회합니다. 캐시에 있는 문서는 그대로 쓰고,
+	 *   없는 문서만 모아 Flask /batch/detail (full=true) 로 한 번에 가져옵니다.
+	 * - 조회수는 증가시키지 않습니다. (이름 확인 등 내부 조회용)
+	 *
+	 * @return id -> DTO (존재하지 않는 문서는 포함되지 않음)
+	 */
+	public Map<String, SearchResDto> multiDetail(Collection<String> ids, String type) {
+		Map<String, SearchResDto> result = new LinkedHashMap<>();
+		try {
+			List<String> missing = new ArrayList<>();
+			for (String id : ids) {
+				String cached = recipeResultCache.get(recipeResultCache.detailKey(id, type));
+				SearchResDto dto = cached != null ? convertResToDto(cached, type) : null;
+				if (dto != null) {
+					result.put(id, dto);
+				} else {
+					missing.add(id);
+				}
+			}
+			if (missing.isEmpty()) {
+				return result;
+			}
+
+			Map<String, Object> requestBody = new HashMap<>();
+			requestBody.put("ids", missing);
+			requestBody.put("type", type);
+			requestBody.put("full", true);
+
+			HttpHeaders headers = new HttpHeaders();
+			headers.setContentType(MediaType.APPLICATION_JSON);
+			HttpEntity<String> requestEntity = new HttpEntity<>(objectMapper.writeValueAsString(requestBody), headers);
+			URI uri = new URI(sidecarClient.getBaseUrl() + "/batch/detail");
+
+			log.info("[multiDetail] Calling Flask /batch/detail, type={}, ids={}", type, missing.size());
+			JsonNode docs = sidecarClient.exchange(SidecarEndpoint.BATCH, HttpMethod.POST, uri, requestEntity, JsonNode.class);
+
+			for (JsonNode doc : docs) {
+				String id = doc.path("id").asText();
+				String source = objectMapper.writeValueAsString(doc.path("source"));
+				SearchResDto dto = convertResToDto(source, type);
+				if (dto != null) {
+					// /detail 응답과 같은 형태(_source)이므로 상세 캐시에 그대로 적재
+					recipeResultCache.putDetail(recipeResultCache.detailKey(id, type), source);
+					result.put(id, dto);
+				}
+			}
+		} catch (Exception e) {
+			log.error("상세 멀티겟 중 에러 (type={}, ids={}): {}", type, ids, e.getMessage());
+			for (String id : ids) {
+				if (result.containsKey(id)) continue;
+				String stale = staleOnOutage(e, recipeResultCache.detailKey(id, type));
+				try {
+					if (stale != null) result.put(id, convertResToDto(stale, type));
+				} catch (IOException ex) {
+					log.warn("stale 상세 변환 실패 (id={}): {}", id, ex.getMessage());
+				}
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * [레시피 업로드 메서드]
 	 * - 예: Flask의 /upload/one 엔드포인트 호출
 	 */
 	public String uploadRecipe(String jsonData) {
 		try {
-			URI uri = new URI(flaskBaseUrl + "/upload/one");
+			URI uri = new URI(sidecarClient.getBaseUrl() + "/upload/one");
 			HttpHeaders headers = new HttpHeaders();
 			headers.setContentType(MediaType.APPLICATION_JSON);
 
 			HttpEntity<String> requestEntity = new HttpEntity<>(jsonData, headers);
-			ResponseEntity<String> response = restTemplate.postForEntity(uri, requestEntity, String.class);
+			ResponseEntity<String> response = sidecarClient.call(SidecarEndpoint.WRITE, rest -> rest.postForEntity(uri, requestEntity, String.class));
 
 			log.info("레시피 업로드 응답: {}", response.getBody());
+			// 새 문서가 어떤 검색 결과에 들어갈지 알 수 없으므로 해당 타입 검색 캐시 전체 무효화
+			evictRecipeCache(jsonData, null);
 			return response.getBody();
 		} catch (Exception e) {
 			log.error("레시피 업로드 중 에러 발생: {}", e.getMessage());
@@ -132,14 +267,15 @@ public class ElasticService {
 
 	public String updateRecipe(String jsonData) {
 		try {
-			URI uri = new URI(flaskBaseUrl + "/update/one");
+			URI uri = new URI(sidecarClient.getBaseUrl() + "/update/one");
 			HttpHeaders headers = new HttpHeaders();
 			headers.setContentType(MediaType.APPLICATION_JSON);
 
 			HttpEntity<String> requestEntity = new HttpEntity<>(jsonData, headers);
-			ResponseEntity<String> response = restTemplate.postForEntity(uri, requestEntity, String.class);
+			ResponseEntity<String> response = sidecarClient.call(SidecarEndpoint.WRITE, rest -> rest.postForEntity(uri, requestEntity, String.class));
 
 			log.info("레시피 업로드 응답: {}", response.getBody());
+			evictRecipeCache(jsonData, "updateId");
 			return response.getBody();
 		} catch (Exception e) {
 			log.error("레시피 업로드 중 에러 발생: {}", e.getMessage());
@@ -147,26 +283,38 @@ public class ElasticService {
 		}
 	}
 
+	/**
+	 * 등록/수정 요청 본문에서 type(과 문서 id)을 읽어 결과 캐시를 무효화
+	 */
+	private void evictRecipeCache(String jsonData, String idField) {
+		try {
+			JsonNode node = objectMapper.readTree(jsonData);
+			String type = node.path("type").asText(null);
+			String id = idField != null ? node.path(idField).asText(null) : null;
+			if (type != null) {
+				recipeResultCache.evictType(type, id);
+			}
+		} catch (Exception e) {
+			log.warn("레시피 캐시 무효화 실패: {}", e.getMessage());
+		}
+	}
+
 	/**
 	 * [검색 결과 변환 메서드]
 	 * - JSON 응답 문자열을 List 형태로 변환
 	 */
 	public List<SearchListResDto> convertResToList(String response, String type) throws IOException {
-		switch (type) {
-			case "cocktail":
-				return objectMapper.readValue(
-						response,
-						objectMapper.getTypeFactory().constructCollectionType(List.class, CocktailListResDto.class)
-				);
-			case "food":
-				return objectMapper.readValue(
-						response,
-						objectMapper.getTypeFactory().constructCollectionType(List.class, FoodListResDto.class)
-				);
-			// 다른 타입은 필요 시 추가
-			default:
-				return null;
-		}
+		JavaType listType = listType(type);
+		return listType != null ? objectMapper.readValue(response, listType) : null;
+	}
+
+	// 타입별 검색 결과 목록 DTO (다른 타입은 필요 시 추가)
+	private JavaType listType(String type) {
+		return switch (type) {
+			case "cocktail" -> sidecarClient.listOf(CocktailListResDto.class);
+			case "food" -> sidecarClient.listOf(FoodListResDto.class);
+			default -> null;
+		};
 	}
 
 	/**
@@ -174,52 +322,110 @@ public class ElasticService {
 	 * - JSON 응답 문자열을 DTO 형태로 변환
 	 */
 	public SearchResDto convertResToDto(String response, String type) throws IOException {
+		Class<? extends SearchResDto> detailType = detailType(type);
+		return detailType != null ? objectMapper.readValue(response, detailType) : null;
+	}
+
+	// 타입별 상세 DTO (다른 타입은 필요 시 추가)
+	private Class<? extends SearchResDto> detailType(String type) {
 		return switch (type) {
-			case "cocktail" -> objectMapper.readValue(response, CocktailResDto.class);
-			case "food" -> objectMapper.readValue(response, FoodResDto.class);
-			// 다른 타입은 필요 시 추가
+			case "cocktail" -> CocktailResDto.class;
+			case "food" -> FoodResDto.class;
 			default -> null;
 		};
 	}
 
 	/**
-	 * Redis에서 좋아요 및 신고 데이터를 가져와 Flask로 전송하는 메서드
+	 * Redis에 쌓인 좋아요/신고 증감분을 Flask로 전송하는 메서드
+	 * - 대기 해시를 원자적으로 교체한 뒤 청크 단위로 전송하므로, 전송 중 들어온 증감은 다음 주기로 넘어가고 유실되지 않습니다.
+	 * - 다른 Redis 데이터는 건드리지 않습니다. (예전 FLUSHALL 제거)
+	 * - 청크마다 deltaId 를 함께 보내 Flask 가 중복 반영을 막고, 실패한 청크는 재시도합니다.
 	 */
 	@Scheduled(fixedRate = 60000) // 60초마다 실행
 	public void updateLikesAndReports() {
 		try {
-			List<Map<String, Object>> likeReportData = redisService.getAllLikesAndReports();
-			if (likeReportData.isEmpty()) {
+			redisService.migrateLegacyLikeReportKeys(LIKE_REPORT_CHUNK_SIZE);
+
+			String shippingKey = redisService.rotateLikeReportDeltas();
+			if (shippingKey == null) {
 				log.info("[updateLikesAndReports] No like or report data found in Redis.");
 				return;
 			}
-
-			Map<String, Object> requestBody = new HashMap<>();
-			requestBody.put("like_report_data", likeReportData);
-
-			String jsonData = objectMapper.writeValueAsString(requestBody);
-			URI uri = new URI(flaskBaseUrl + "/update/likes-reports");
-
-			HttpHeaders headers = new HttpHeaders();
-			headers.setContentType(MediaType.APPLICATION_JSON);
-			HttpEntity<String> requestEntity = new HttpEntity<>(jsonData, headers);
-
-			ResponseEntity<String> response = restTemplate.postForEntity(uri, requestEntity, String.class);
-			log.info("[updateLikesAndReports] Response from Flask: {}", response.getBody());
-
-			// Redis에서 데이터 삭제
-			redisTemplate.execute((RedisCallback<Void>) connection -> {
-				connection.flushAll();  // 모든 레디스 데이터를 삭제
-				return null;
-			});
-
-			log.info("[updateLikesAndReports] All data cleared from Redis.");
-
+			String deltaId = redisService.deltaId(shippingKey);
+			boolean completed = redisService.drainLikeReportDeltas(shippingKey, LIKE_REPORT_CHUNK_SIZE,
+					chunk -> shipLikeReportChunk(deltaId, chunk));
+
+			if (completed) {
+				log.info("[updateLikesAndReports] Delta {} shipped to Flask.", deltaId);
+			} else {
+				log.warn("[updateLikesAndReports] Delta {} partially shipped, remaining entries will be retried.", deltaId);
+			}
 		} catch (Exception e) {
 			log.error("[updateLikesAndReports] Error sending like/report data to Flask: {}", e.getMessage());
 		}
 	}
 
+	private static final int LIKE_REPORT_CHUNK_SIZE = 500;
+	private static final int LIKE_REPORT_MAX_ATTEMPTS = 3;
+
+	private boolean shipLikeReportChunk(String deltaId, List<LikeReportDeltaDto> chunk) {
+		for (int attempt = 1; attempt <= LIKE_REPORT_MAX_ATTEMPTS; attempt++) {
+			try {
+				URI uri = new URI(sidecarClient.getBaseUrl() + "/update/likes-reports");
+
+				// 중간 Map/문자열 없이 요청 본문에 바로 JSON 을 씀
+				String body = sidecarClient.call(SidecarEndpoint.SYNC, rest -> rest.execute(uri, HttpMethod.POST,
+						request -> {
+							request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+							writeLikeReportPayload(objectMapper.getFactory(), request.getBody(), deltaId, chunk);
+						},
+						response -> StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8)));
+				log.info("[updateLikesAndReports] Response from Flask: {}", body);
+
+				// 좋아요/신고 수가 바뀐 문서의 상세 캐시와 그 문서를 포함한 검색 캐시만 무효화
+				Map<String, Set<String>> idsByType = new HashMap<>();
+				for (LikeReportDeltaDto delta : chunk) {
+					idsByType.computeIfAbsent(delta.getType(), type -> new HashSet<>()).add(delta.getPostId());
+				}
+				recipeResultCache.evictDocuments(idsByType);
+				return true;
+			} catch (Exception e) {
+				log.warn("[updateLikesAndReports] Chunk of delta {} failed (attempt {}/{}): {}",
+						deltaId, attempt, LIKE_REPORT_MAX_ATTEMPTS, e.getMessage());
+				if (attempt < LIKE_REPORT_MAX_ATTEMPTS) {
+					try {
+						Thread.sleep(500L * attempt); // 간단한 선형 백오프
+					} catch (InterruptedException ie) {
+						Thread.currentThread().interrupt();
+						return false;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	// {"delta_id": "...", "like_report_data": [{"postId", "type", "value", "keyType"}, ...]}
+	// (LikeReportPayloadBenchmark 에서도 호출하므로 static)
+	static void writeLikeReportPayload(JsonFactory factory, OutputStream out, String deltaId, List<LikeReportDeltaDto> chunk) throws IOException {
+		try (JsonGenerator gen = factory.createGenerator(out)) {
+			gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // 요청 본문 스트림은 RestTemplate 이 관리
+			gen.writeStartObject();
+			gen.writeStringField("delta_id", deltaId);
+			gen.writeArrayFieldStart("like_report_data");
+			for (LikeReportDeltaDto delta : chunk) {
+				gen.writeStartObject();
+				gen.writeStringField("postId", delta.getPostId());
+				gen.writeStringField("type", delta.getType());
+				gen.writeNumberField("value", delta.getValue());
+				gen.writeStringField("keyType", delta.getKeyType());
+				gen.writeEndObject();
+			}
+			gen.writeEndArray();
+			gen.writeEndObject();
+		}
+	}
+
 
 	/**
 	 * 특정 유저가 작성한 레시피 목록 조회 (Elasticsearch에서 가져옴)
@@ -232,22 +438,15 @@ public class ElasticService {
 	public List<Map<String, Object>> getUserRecipes(Long memberId, int page, int size) {
 		try {
 			// URL을 직접 문자열로 조합
-			String url = flaskBaseUrl + "/api/profile/recipes?memberId=" + memberId
+			String url = sidecarClient.getBaseUrl() + "/api/profile/recipes?memberId=" + memberId
 					+ "&page=" + page
 					+ "&size=" + size;
 
 			log.info("[getUserRecipes] Calling Flask with URL: {}", url);
 
-			// API 호출
-			ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-
-			// 응답을 List<Map<String, Object>> 형식으로 변환
-			List<Map<String, Object>> responseBody = objectMapper.readValue(response.getBody(),
+			// API 호출 후 응답 스트림을 List<Map<String, Object>> 형식으로 바로 변환
+			return sidecarClient.get(SidecarEndpoint.SEARCH, URI.create(url),
 					new TypeReference<List<Map<String, Object>>>() {});
-
-			log.info("[getUserRecipes] Flask response: {}", responseBody);
-
-			return responseBody;
 		} catch (Exception e) {
 			log.error("[getUserRecipes] Error fetching user recipes", e);
 			throw new RuntimeException("Error fetching user recipes", e);  // 예외 던지기
@@ -10,7 +10,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
 import java.net.URLEncoder;
@@ -28,9 +27,8 @@ import java.util.*;
 @Slf4j
 public class ForumEsService {
 
-    private final RestTemplate restTemplate;
+    private final SidecarClient sidecarClient;
     private final ObjectMapper objectMapper;
-    private final String flaskBaseUrl = "http://localhost:5001";
 
     // === 게시글 관련 메서드 ===
 
@@ -44,7 +42,7 @@ public class ForumEsService {
                 requestDto.setSticky(false);
             }
 
-            URI uri = new URI(flaskBaseUrl + "/forum/post");
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/post");
             log.warn(requestDto.toString());
             String jsonBody = objectMapper.writeValueAsString(requestDto);
 
@@ -52,10 +50,7 @@ public class ForumEsService {
             headers.setContentType(MediaType.APPLICATION_JSON);
             HttpEntity<String> entity = new HttpEntity<>(jsonBody, headers);
 
-            ResponseEntity<String> response = restTemplate.postForEntity(uri, entity, String.class);
-            log.info("createPost 응답: {}", response);
-            log.warn(response.toString());
-            return objectMapper.readValue(response.getBody(), ForumPostResponseDto.class);
+            return sidecarClient.exchange(SidecarEndpoint.FORUM, HttpMethod.POST, uri, entity, ForumPostResponseDto.class);
         } catch (Exception e) {
             log.error("게시글 생성 중 오류: {}", e.getMessage());
             return null;
@@ -71,7 +66,7 @@ public class ForumEsService {
     public ForumPostResponseDto updatePostTitle(String postId, String newTitle, String editedBy) {
         try {
             // Flask 엔드포인트 URI 구성
-            URI uri = new URI(flaskBaseUrl + "/forum/post/" + postId + "/title");
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/post/" + postId + "/title");
 
             // 수정할 데이터를 Map에 담음 (키: title, editedBy)
             Map<String, Object> payload = new HashMap<>();
@@ -86,11 +81,8 @@ public class ForumEsService {
             HttpEntity<String> entity = new HttpEntity<>(jsonBody, headers);
 
             // PUT 요청을 보내 제목 수정 수행
-            ResponseEntity<String> response = restTemplate.exchange(uri, HttpMethod.PUT, entity, String.class);
-            log.info("updatePostTitle 응답: {}", response);
-
             // 응답 JSON을 ForumPostResponseDto 객체로 변환하여 반환
-            return objectMapper.readValue(response.getBody(), ForumPostResponseDto.class);
+            return sidecarClient.exchange(SidecarEndpoint.FORUM, HttpMethod.PUT, uri, entity, ForumPostResponseDto.class);
         } catch (Exception e) {
             log.error("게시글 제목 수정 중 오류: {}", e.getMessage());
             return null;
@@ -105,7 +97,7 @@ public class ForumEsService {
     public ForumPostResponseDto updatePostContent(String postId, String contentJSON, String editedBy, boolean isAdmin) {
         try {
             // Flask 엔드포인트 URI 구성
-            URI uri = new URI(flaskBaseUrl + "/forum/post/" + postId + "/content");
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/post/" + postId + "/content");
 
             // 수정할 데이터를 Map에 담음 (키: contentJSON, editedBy, isAdmin)
             Map<String, Object> payload = new HashMap<>();
@@ -121,11 +113,8 @@ public class ForumEsService {
             HttpEntity<String> entity = new HttpEntity<>(jsonBody, headers);
 
             // PUT 요청으로 내용 수정 요청 수행
-            ResponseEntity<String> response = restTemplate.exchange(uri, HttpMethod.PUT, entity, String.class);
-            log.info("updatePostContent 응답: {}", response);
-
             // 응답 결과를 객체로 역직렬화하여 반환
-            return objectMapper.readValue(response.getBody(), ForumPostResponseDto.class);
+            return sidecarClient.exchange(SidecarEndpoint.FORUM, HttpMethod.PUT, uri, entity, ForumPostResponseDto.class);
         } catch (Exception e) {
             log.error("게시글 내용 수정 중 오류: {}", e.getMessage());
             return null;
@@ -138,10 +127,10 @@ public class ForumEsService {
     public boolean deletePost(String postId, String removedBy) {
         try {
             // removedBy를 쿼리 파라미터로 전송
-            URI uri = new URI(flaskBaseUrl + "/forum/post/" + postId
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/post/" + postId
                     + "?removedBy=" + URLEncoder.encode(removedBy, StandardCharsets.UTF_8));
 
-            restTemplate.delete(uri);
+            sidecarClient.run(SidecarEndpoint.FORUM, rest -> rest.delete(uri));
             log.info("deletePost 호출됨, 게시글 ID: {}", postId);
             return true;
         } catch (Exception e) {
@@ -155,8 +144,8 @@ public class ForumEsService {
      */
     public boolean hardDeletePost(String postId) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/post/" + postId + "/hard-delete");
-            restTemplate.delete(uri);
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/post/" + postId + "/hard-delete");
+            sidecarClient.run(SidecarEndpoint.FORUM, rest -> rest.delete(uri));
             log.info("hardDeletePost 호출됨, 게시글 ID: {}", postId);
             return true;
         } catch (Exception e) {
@@ -170,17 +159,14 @@ public class ForumEsService {
      */
     public ForumPostResponseDto reportPost(String postId, Integer reporterId, String reason) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/post/" + postId + "/report");
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/post/" + postId + "/report");
             String jsonBody = String.format("{\"reporterId\": %d, \"reason\": \"%s\"}", reporterId, reason);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
             HttpEntity<String> entity = new HttpEntity<>(jsonBody, headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(uri, HttpMethod.POST, entity, String.class);
-            log.info("reportPost 응답: {}", response);
-
-            return objectMapper.readValue(response.getBody(), ForumPostResponseDto.class);
+            return sidecarClient.exchange(SidecarEndpoint.FORUM, HttpMethod.POST, uri, entity, ForumPostResponseDto.class);
         } catch (Exception e) {
             log.error("게시글 신고 처리 중 오류: {}", e.getMessage());
             return null;
@@ -192,8 +178,8 @@ public class ForumEsService {
      */
     public boolean hidePost(String postId) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/post/" + postId + "/hide");
-            restTemplate.postForEntity(uri, null, String.class);
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/post/" + postId + "/hide");
+            sidecarClient.run(SidecarEndpoint.FORUM, rest -> rest.postForEntity(uri, null, String.class));
             log.info("hidePost 호출됨, 게시글 ID: {}", postId);
             return true;
         } catch (Exception e) {
@@ -207,8 +193,8 @@ public class ForumEsService {
      */
     public boolean restorePost(String postId) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/post/" + postId + "/restore");
-            restTemplate.postForEntity(uri, null, String.class);
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/post/" + postId + "/restore");
+            sidecarClient.run(SidecarEndpoint.FORUM, rest -> rest.postForEntity(uri, null, String.class));
             log.info("restorePost 호출됨, 게시글 ID: {}", postId);
             return true;
         } catch (Exception e) {
@@ -218,16 +204,27 @@ public class ForumEsService {
     }
 
     /**
-     * 게시글 조회수 증가
+     * 게시글 조회수 증감분 일괄 반영 (ForumViewCounter)
+     * - Flask의 /forum/posts/views 엔드포인트에 {"delta_id", "views": [{"postId", "value"}]} 를 보냅니다.
+     * - 같은 deltaId 로 재전송해도 Flask 가 문서별로 한 번만 반영합니다. (필드별 최근 deltaId 32개까지 기억)
      */
-    public boolean incrementViewCount(String postId) {
+    public boolean incrementViewCounts(String deltaId, List<Map.Entry<String, Long>> deltas) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/post/" + postId + "/increment-view");
-            restTemplate.postForEntity(uri, null, String.class);
-            log.info("incrementViewCount 호출됨, 게시글 ID: {}", postId);
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/posts/views");
+            List<Map<String, Object>> views = new ArrayList<>(deltas.size());
+            for (Map.Entry<String, Long> delta : deltas) {
+                views.add(Map.of("postId", delta.getKey(), "value", delta.getValue()));
+            }
+            String jsonBody = objectMapper.writeValueAsString(Map.of("delta_id", deltaId, "views", views));
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            HttpEntity<String> entity = new HttpEntity<>(jsonBody, headers);
+
+            sidecarClient.run(SidecarEndpoint.SYNC, rest -> rest.postForEntity(uri, entity, String.class));
             return true;
         } catch (Exception e) {
-            log.error("게시글 조회수 증가 중 오류: {}", e.getMessage());
+            log.error("게시글 조회수 일괄 반영 중 오류: {}", e.getMessage());
             return false;
         }
     }
@@ -253,7 +250,7 @@ public class ForumEsService {
 
             // 3. Flask 백엔드로 보낼 URI를 생성합니다.
             //    예: http://localhost:5001/search?q=...&type=forum_post&category=...&page=safePage&size=...
-            URI uri = new URI(flaskBaseUrl + "/search?q=" + encodedQ
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/search?q=" + encodedQ
                     + "&type=" + encodedType
                     + categoryParam
                     + "&page=" + safePage
@@ -261,17 +258,8 @@ public class ForumEsService {
 
             log.info("[ForumEsService.search] 호출 URI: {}", uri);
 
-            // 4. Flask에 GET 요청을 보냅니다.
-            ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-            log.info("[ForumEsService.search] 응답: {}", response);
-
-            // 5. 응답 JSON을 ForumPostResponseDto 배열로 역직렬화합니다.
-            ForumPostResponseDto[] array = objectMapper.readValue(response.getBody(), ForumPostResponseDto[].class);
-            List<ForumPostResponseDto> resultList = new ArrayList<>();
-            for (ForumPostResponseDto item : array) {
-                resultList.add(item);
-            }
-            return resultList;
+            // 4. Flask에 GET 요청을 보내고, 응답 스트림을 ForumPostResponseDto 목록으로 바로 역직렬화합니다.
+            return sidecarClient.get(SidecarEndpoint.FORUM, uri, sidecarClient.listOf(ForumPostResponseDto.class));
 
         } catch (Exception e) {
             log.error("포럼 검색 중 오류: {}", e.getMessage());
@@ -279,7 +267,59 @@ public class ForumEsService {
         }
     }
 
+    /**
+     * 카테고리별 게시글 목록 (고정글 제외)
+     * - Flask의 /forum/posts/page 엔드포인트를 호출합니다. (createdAt desc, postId asc 정렬, 실제 전체 건수 포함)
+     * - cursor 가 있으면 search_after 로 이어서 조회하고 page 는 무시합니다. 없으면 page(0부터) * size 만큼 건너뜁니다.
+     */
+    public ForumPostPageDto categoryPage(String category, int page, int size, String cursor) {
+        try {
+            String cursorParam = (cursor != null && !cursor.isEmpty())
+                    ? "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8)
+                    : "";
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/posts/page?category="
+                    + URLEncoder.encode(category, StandardCharsets.UTF_8)
+                    + "&page=" + Math.max(page, 0)
+                    + "&size=" + size
+                    + cursorParam);
+            log.info("[ForumEsService.categoryPage] 호출 URI: {}", uri);
+            return sidecarClient.get(SidecarEndpoint.FORUM, uri, ForumPostPageDto.class);
+        } catch (Exception e) {
+            log.error("카테고리 게시글 목록 조회 중 오류: {}", e.getMessage());
+            return null;
+        }
+    }
 
+    /**
+     * 카테고리 상단 고정글 목록
+     * - Flask의 /forum/posts/sticky 엔드포인트를 호출합니다.
+     */
+    public List<ForumPostResponseDto> stickyPosts(String category) {
+        try {
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/posts/sticky?category="
+                    + URLEncoder.encode(category, StandardCharsets.UTF_8));
+            return sidecarClient.get(SidecarEndpoint.FORUM, uri, sidecarClient.listOf(ForumPostResponseDto.class));
+        } catch (Exception e) {
+            log.error("고정 게시글 조회 중 오류: {}", e.getMessage());
+            return null;
+        }
+    }
+
+
+
+    /**
+     * 게시글 메타데이터 조회 (권한 확인용)
+     * - Flask의 "/forum/post/{postId}/meta" 엔드포인트를 호출하여 본문 없이 작성자/숨김/삭제 정보만 가져옵니다.
+     */
+    public ForumPostMetaDto meta(String postId) {
+        try {
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/post/" + postId + "/meta");
+            return sidecarClient.get(SidecarEndpoint.FORUM, uri, ForumPostMetaDto.class);
+        } catch (Exception e) {
+            log.error("게시글 메타데이터 조회 중 오류: {}", e.getMessage());
+            return null;
+        }
+    }
 
     /**
      * 포럼 게시글 상세 조회
@@ -292,14 +332,10 @@ public class ForumEsService {
      */
     public ForumPostResponseDto detail(String postId) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/post/" + postId);
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/post/" + postId);
             log.info("[ForumEsService.detail] 호출 URI: {}", uri);
 
-            ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-            String responseBody = response.getBody();
-            log.info("[ForumEsService.detail] Raw JSON from Flask: {}", responseBody);
-
-            ForumPostResponseDto dto = objectMapper.readValue(responseBody, ForumPostResponseDto.class);
+            ForumPostResponseDto dto = sidecarClient.get(SidecarEndpoint.FORUM, uri, ForumPostResponseDto.class);
             // 디버그 로그 추가: 모든 주요 필드 출력
             log.debug("[ForumEsService.detail] Deserialized DTO:" +
                             " id={}, title={}, content={}, authorName={}, memberId={}, createdAt={}, updatedAt={}, " +
@@ -320,17 +356,14 @@ public class ForumEsService {
 
     public ForumPostCommentResponseDto createComment(ForumPostCommentRequestDto requestDto) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/comment");
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/comment");
             String jsonBody = objectMapper.writeValueAsString(requestDto);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
             HttpEntity<String> entity = new HttpEntity<>(jsonBody, headers);
 
-            ResponseEntity<String> response = restTemplate.postForEntity(uri, entity, String.class);
-            log.info("createComment 응답: {}", response);
-
-            return objectMapper.readValue(response.getBody(), ForumPostCommentResponseDto.class);
+            return sidecarClient.exchange(SidecarEndpoint.FORUM, HttpMethod.POST, uri, entity, ForumPostCommentResponseDto.class);
         } catch (Exception e) {
             log.error("댓글 생성 중 오류: {}", e.getMessage());
             return null;
@@ -348,7 +381,7 @@ public class ForumEsService {
                                                      boolean isAdmin) {
         try {
             // Flask의 댓글 수정 엔드포인트 URI 구성
-            URI uri = new URI(flaskBaseUrl + "/forum/comment/" + commentId);
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/comment/" + commentId);
 
             // 수정할 데이터를 Map에 담음 (키: postId, contentJSON, editedBy, isAdmin)
             Map<String, Object> payload = new HashMap<>();
@@ -365,11 +398,8 @@ public class ForumEsService {
             HttpEntity<String> entity = new HttpEntity<>(jsonBody, headers);
 
             // PUT 요청으로 댓글 수정 요청 전송
-            ResponseEntity<String> response = restTemplate.exchange(uri, HttpMethod.PUT, entity, String.class);
-            log.info("updateComment 응답: {}", response);
-
             // 응답을 ForumPostCommentResponseDto 객체로 역직렬화하여 반환
-            return objectMapper.readValue(response.getBody(), ForumPostCommentResponseDto.class);
+            return sidecarClient.exchange(SidecarEndpoint.FORUM, HttpMethod.PUT, uri, entity, ForumPostCommentResponseDto.class);
         } catch (Exception e) {
             log.error("댓글 수정 중 오류: {}", e.getMessage());
             return null;
@@ -385,14 +415,8 @@ public class ForumEsService {
     public List<ForumPostCommentResponseDto> searchCommentsForPost(String postId) {
         try {
             // 올바른 엔드포인트: /forum/comments?postId=...
-            URI uri = new URI(flaskBaseUrl + "/forum/comments?postId=" + postId);
-            ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-            log.info("searchCommentsForPost 응답: {}", response);
-
-            return objectMapper.readValue(
-                    response.getBody(),
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, ForumPostCommentResponseDto.class)
-            );
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/comments?postId=" + postId);
+            return sidecarClient.get(SidecarEndpoint.FORUM, uri, sidecarClient.listOf(ForumPostCommentResponseDto.class));
         } catch (Exception e) {
             log.error("댓글 목록 조회 중 오류: {}", e.getMessage());
             return null;
@@ -402,10 +426,10 @@ public class ForumEsService {
 
     public boolean deleteComment(Integer commentId, String postId, Long deletedBy) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/comment/" + commentId
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/comment/" + commentId
                     + "?postId=" + URLEncoder.encode(postId, StandardCharsets.UTF_8)
                     + "&deletedBy=" + deletedBy);
-            restTemplate.delete(uri);
+            sidecarClient.run(SidecarEndpoint.FORUM, rest -> rest.delete(uri));
             log.info("deleteComment 호출됨, 댓글 ID: {}, postId: {}", commentId, postId);
             return true;
         } catch (Exception e) {
@@ -416,8 +440,8 @@ public class ForumEsService {
 
     public boolean hardDeleteComment(Integer commentId) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/comment/" + commentId + "/hard-delete");
-            restTemplate.delete(uri);
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/comment/" + commentId + "/hard-delete");
+            sidecarClient.run(SidecarEndpoint.FORUM, rest -> rest.delete(uri));
             log.info("hardDeleteComment 호출됨, 댓글 ID: {}", commentId);
             return true;
         } catch (Exception e) {
@@ -428,7 +452,7 @@ public class ForumEsService {
 
     public ForumPostCommentResponseDto reportComment(Integer commentId, Integer reporterId, String reason, String postId) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/comment/" + commentId + "/report");
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/comment/" + commentId + "/report");
             // reporterId, reason, postId를 모두 포함하는 JSON payload 생성
             String jsonBody = String.format(
                     "{\"reporterId\": %d, \"reason\": \"%s\", \"postId\": \"%s\"}",
@@ -439,10 +463,7 @@ public class ForumEsService {
             headers.setContentType(MediaType.APPLICATION_JSON);
             HttpEntity<String> entity = new HttpEntity<>(jsonBody, headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(uri, HttpMethod.POST, entity, String.class);
-            log.info("reportComment 응답: {}", response);
-
-            return objectMapper.readValue(response.getBody(), ForumPostCommentResponseDto.class);
+            return sidecarClient.exchange(SidecarEndpoint.FORUM, HttpMethod.POST, uri, entity, ForumPostCommentResponseDto.class);
         } catch (Exception e) {
             log.error("댓글 신고 처리 중 오류: {}", e.getMessage());
             return null;
@@ -453,8 +474,8 @@ public class ForumEsService {
 
     public boolean hideComment(Integer commentId) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/comment/" + commentId + "/hide");
-            restTemplate.postForEntity(uri, null, String.class);
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/comment/" + commentId + "/hide");
+            sidecarClient.run(SidecarEndpoint.FORUM, rest -> rest.postForEntity(uri, null, String.class));
             log.info("hideComment 호출됨, 댓글 ID: {}", commentId);
             return true;
         } catch (Exception e) {
@@ -465,11 +486,9 @@ public class ForumEsService {
 
     public ForumPostCommentResponseDto restoreComment(Integer commentId, String postId) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/comment/" + commentId + "/restore?postId="
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/comment/" + commentId + "/restore?postId="
                     + URLEncoder.encode(postId, StandardCharsets.UTF_8));
-            ResponseEntity<String> response = restTemplate.postForEntity(uri, null, String.class);
-            log.info("restoreComment 응답: {}", response);
-            return objectMapper.readValue(response.getBody(), ForumPostCommentResponseDto.class);
+            return sidecarClient.exchange(SidecarEndpoint.FORUM, HttpMethod.POST, uri, null, ForumPostCommentResponseDto.class);
         } catch (Exception e) {
             log.error("댓글 복원 중 오류: {}", e.getMessage());
             return null;
@@ -478,8 +497,8 @@ public class ForumEsService {
 
     public boolean incrementCommentLikes(Integer commentId) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/comment/" + commentId + "/increment-like");
-            restTemplate.postForEntity(uri, null, String.class);
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/comment/" + commentId + "/increment-like");
+            sidecarClient.run(SidecarEndpoint.FORUM, rest -> rest.postForEntity(uri, null, String.class));
             log.info("incrementCommentLikes 호출됨, 댓글 ID: {}", commentId);
             return true;
         } catch (Exception e) {
@@ -492,18 +511,15 @@ public class ForumEsService {
 
     public ForumCategoryDto createCategory(ForumCategoryDto categoryDto) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/category");
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/category");
             String jsonBody = objectMapper.writeValueAsString(categoryDto);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
             HttpEntity<String> entity = new HttpEntity<>(jsonBody, headers);
 
-            log.info("카테고리 생성 요청: '{}' URI: {} / body: {}", categoryDto.getTitle(), uri, jsonBody);
-            ResponseEntity<String> response = restTemplate.postForEntity(uri, entity, String.class);
-            log.info("카테고리 생성 응답: {}", response.getBody());
-
-            return objectMapper.readValue(response.getBody(), ForumCategoryDto.class);
+            log.debug("카테고리 생성 요청: '{}' URI: {} / body: {}", categoryDto.getTitle(), uri, jsonBody);
+            return sidecarClient.exchange(SidecarEndpoint.FORUM, HttpMethod.POST, uri, entity, ForumCategoryDto.class);
         } catch (Exception e) {
             log.error("카테고리 생성 중 오류 ('{}'): {}", categoryDto.getTitle(), e.getMessage());
             return null;
@@ -512,14 +528,11 @@ public class ForumEsService {
 
     public ForumCategoryDto getCategoryByTitle(String title) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/category/search?title="
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/category/search?title="
                     + URLEncoder.encode(title, StandardCharsets.UTF_8));
             log.info("카테고리 제목 조회 요청: '{}' URI: {}", title, uri);
 
-            ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-            log.info("카테고리 조회 응답: {}", response.getBody());
-
-            return objectMapper.readValue(response.getBody(), ForumCategoryDto.class);
+            return sidecarClient.get(SidecarEndpoint.FORUM, uri, ForumCategoryDto.class);
         } catch (Exception e) {
             log.error("카테고리 제목 조회 중 오류 ('{}'): {}", title, e.getMessage());
             return null;
@@ -528,16 +541,10 @@ public class ForumEsService {
 
     public List<ForumCategoryDto> getAllCategoriesFromElastic() {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/category");
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/category");
             log.info("전체 카테고리 조회 요청, URI: {}", uri);
 
-            ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-            log.info("전체 카테고리 조회 응답: {}", response.getBody());
-
-            return objectMapper.readValue(
-                    response.getBody(),
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, ForumCategoryDto.class)
-            );
+            return sidecarClient.get(SidecarEndpoint.FORUM, uri, sidecarClient.listOf(ForumCategoryDto.class));
         } catch (Exception e) {
             log.error("전체 카테고리 조회 중 오류: {}", e.getMessage());
             return null;
@@ -546,13 +553,10 @@ public class ForumEsService {
 
     public ForumCategoryDto getCategoryById(String categoryId) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/category/" + categoryId);
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/category/" + categoryId);
             log.info("카테고리 ID 조회 요청: '{}' URI: {}", categoryId, uri);
 
-            ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-            log.info("카테고리 ID 조회 응답: {}", response.getBody());
-
-            return objectMapper.readValue(response.getBody(), ForumCategoryDto.class);
+            return sidecarClient.get(SidecarEndpoint.FORUM, uri, ForumCategoryDto.class);
         } catch (Exception e) {
             log.error("카테고리 ID 조회 중 오류 (ID: {}): {}", categoryId, e.getMessage());
             return null;
@@ -566,17 +570,14 @@ public class ForumEsService {
      */
     public ForumPostLikeResponseDto togglePostLike(String postId, Long memberId) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/post/" + postId + "/like");
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/post/" + postId + "/like");
             String jsonBody = "{\"memberId\": " + memberId + "}";
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
             HttpEntity<String> entity = new HttpEntity<>(jsonBody, headers);
 
-            ResponseEntity<String> response = restTemplate.postForEntity(uri, entity, String.class);
-            log.info("togglePostLike 응답: {}", response);
-
-            return objectMapper.readValue(response.getBody(), ForumPostLikeResponseDto.class);
+            return sidecarClient.exchange(SidecarEndpoint.FORUM, HttpMethod.POST, uri, entity, ForumPostLikeResponseDto.class);
         } catch (Exception e) {
             log.error("게시글 좋아요 토글 중 오류: {}", e.getMessage());
             return null;
@@ -588,7 +589,7 @@ public class ForumEsService {
      */
     public ForumPostLikeResponseDto toggleCommentLike(Integer commentId, Long memberId, String postId) {
         try {
-            URI uri = new URI(flaskBaseUrl + "/forum/comment/" + commentId + "/like");
+            URI uri = new URI(sidecarClient.getBaseUrl() + "/forum/comment/" + commentId + "/like");
             String jsonBody = "{\"memberId\": " + memberId + ", \"postId\": \"" + postId + "\"}";
             // 주의: 댓글 좋아요의 경우, 어느 게시글의 댓글인지도 필요하므로 postId를 함께 보냅니다.
 
@@ -596,10 +597,7 @@ public class ForumEsService {
             headers.setContentType(MediaType.APPLICATION_JSON);
             HttpEntity<String> entity = new HttpEntity<>(jsonBody, headers);
 
-            ResponseEntity<String> response = restTemplate.postForEntity(uri, entity, String.class);
-            log.info("toggleCommentLike 응답: {}", response);
-
-            return objectMapper.readValue(response.getBody(), ForumPostLikeResponseDto.class);
+            return sidecarClient.exchange(SidecarEndpoint.FORUM, HttpMethod.POST, uri, entity, ForumPostLikeResponseDto.class);
         } catch (Exception e) {
             log.error("댓글 좋아요 토글 중 오류: {}", e.getMessage());
             return null;
@@ -610,12 +608,10 @@ public class ForumEsService {
     public List<ForumPostResponseDto> searchPostsByMember(Long memberId, int page, int size) {
         try {
             // Flask에 새 검색 엔드포인트 호출 (예: /forum/searchByMember)
-            String url = flaskBaseUrl + "/forum/searchByMember?memberId=" + memberId
+            String url = sidecarClient.getBaseUrl() + "/forum/searchByMember?memberId=" + memberId
                     + "&page=" + (page + 1) + "&size=" + size;
             URI uri = new URI(url);
-            ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-            ForumPostResponseDto[] array = objectMapper.readValue(response.getBody(), ForumPostResponseDto[].class);
-            return Arrays.asList(array);
+            return sidecarClient.get(SidecarEndpoint.FORUM, uri, sidecarClient.listOf(ForumPostResponseDto.class));
         } catch(Exception e) {
             log.error("게시글 member 검색 중 오류: {}", e.getMessage());
             return new ArrayList<>();
@@ -626,12 +622,10 @@ public class ForumEsService {
     public List<ForumPostCommentResponseDto> searchCommentsByMember(Long memberId, int page, int size) {
         try {
             // Flask에 새 검색 엔드포인트 호출 (예: /forum/comments/searchByMember)
-            String url = flaskBaseUrl + "/forum/comments/searchByMember?memberId=" + memberId
+            String url = sidecarClient.getBaseUrl() + "/forum/comments/searchByMember?memberId=" + memberId
                     + "&page=" + (page + 1) + "&size=" + size;
             URI uri = new URI(url);
-            ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-            ForumPostCommentResponseDto[] array = objectMapper.readValue(response.getBody(), ForumPostCommentResponseDto[].class);
-            return Arrays.asList(array);
+            return sidecarClient.get(SidecarEndpoint.FORUM, uri, sidecarClient.listOf(ForumPostCommentResponseDto.class));
         } catch(Exception e) {
             log.error("댓글 member 검색 중 오류: {}", e.getMessage());
             return new ArrayList<>();
@@ -641,7 +635,7 @@ public class ForumEsService {
 //    public MyContentResponseDto getMyContent(Long memberId, int postPage, int postSize, int commentPage, int commentSize) {
 //        try {
 //            // Flask의 /forum/my 엔드포인트와 쿼리 파라미터
-//            String url = flaskBaseUrl + "/forum/my"
+//            String url = sidecarClient.getBaseUrl() + "/forum/my"
 //                    + "?memberId=" + memberId
 //                    + "&postPage=" + postPage
 //                    + "&postSize=" + postSize
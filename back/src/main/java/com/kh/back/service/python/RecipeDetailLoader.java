@@ -0,0 +1,135 @@
+package com.kh.back.service.python;
+
+import com.kh.back.dto.python.SearchResDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 레시피 상세 단건 조회 합치기 (DataLoader 방식)
+ * - 짧은 시간창(window) 동안 들어온 같은 타입의 단건 조회를 모아
+ *   ElasticService.multiDetail (Flask /batch/detail) 한 번으로 처리합니다.
+ * - 같은 id 를 동시에 요청하면 하나의 Future(같은 DTO 인스턴스)를 공유합니다. 읽기 전용으로 사용하세요.
+ * - 배치가 max-batch 에 도달하면 시간창을 기다리지 않고 바로 보냅니다.
+ */
+@Slf4j
+@Component
+public class RecipeDetailLoader {
+
+	private final ElasticService elasticService;
+	private final Executor sidecarExecutor;
+	private final long windowMs;
+	private final int maxBatch;
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "recipe-detail-loader");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Object lock = new Object();
+	private final Map<String, Batch> pending = new HashMap<>(); // type -> 모으는 중인 배치
+
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder batchedIds = new LongAdder();
+
+	public RecipeDetailLoader(ElasticService elasticService,
+							  @Qualifier("sidecarExecutor") Executor sidecarExecutor,
+							  @Value("${recipe.detail-loader.window-ms:5}") long windowMs,
+							  @Value("${recipe.detail-loader.max-batch:50}") int maxBatch) {
+		this.elasticService = elasticService;
+		this.sidecarExecutor = sidecarExecutor;
+		this.windowMs = windowMs;
+		this.maxBatch = maxBatch;
+	}
+
+	/**
+	 * 상세 조회를 예약합니다. 문서가 없으면 null 로, 조회에 실패하면 예외로 완료됩니다. (completeExceptionally)
+	 */
+	public CompletableFuture<SearchResDto> load(String id, String type) {
+		requests.increment();
+		Batch full = null;
+		CompletableFuture<SearchResDto> future;
+		synchronized (lock) {
+			Batch batch = pending.get(type);
+			if (batch == null) {
+				batch = new Batch(type);
+				pending.put(type, batch);
+				Batch scheduled = batch;
+				scheduler.schedule(() -> flush(scheduled), windowMs, TimeUnit.MILLISECONDS);
+			}
+			future = batch.futures.computeIfAbsent(id, key -> new CompletableFuture<>());
+			if (batch.futures.size() >= maxBatch) {
+				pending.remove(type);
+				full = batch;
+			}
+		}
+		if (full != null) {
+			dispatch(full);
+		}
+		return future;
+	}
+
+	private void flush(Batch batch) {
+		synchronized (lock) {
+			if (pending.get(batch.type) == batch) {
+				pending.remove(batch.type);
+			}
+		}
+		dispatch(batch);
+	}
+
+	private void dispatch(Batch batch) {
+		if (!batch.dispatched.compareAndSet(false, true)) {
+			return; // 가득 차서 이미 보낸 배치의 예약 flush
+		}
+		batches.increment();
+		batchedIds.add(batch.futures.size());
+		try {
+			sidecarExecutor.execute(() -> complete(batch));
+		} catch (RejectedExecutionException e) {
+			log.warn("[RecipeDetailLoader] sidecarExecutor 포화로 배치 거절: type={}, ids={}", batch.type, batch.futures.size());
+			batch.futures.values().forEach(future -> future.completeExceptionally(e));
+		}
+	}
+
+	private void complete(Batch batch) {
+		try {
+			Map<String, SearchResDto> result = elasticService.multiDetail(batch.futures.keySet(), batch.type);
+			batch.futures.forEach((id, future) -> future.complete(result.get(id)));
+		} catch (RuntimeException e) {
+			batch.futures.values().forEach(future -> future.completeExceptionally(e));
+		}
+	}
+
+	public Map<String, Object> stats() {
+		long batchCount = batches.sum();
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("requests", requests.sum());
+		map.put("batches", batchCount);
+		map.put("avgBatchSize", batchCount == 0 ? 0 : (double) batchedIds.sum() / batchCount);
+		return map;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		scheduler.shutdown();
+	}
+
+	private static class Batch {
+		private final String type;
+		private final Map<String, CompletableFuture<SearchResDto>> futures = new LinkedHashMap<>();
+		private final AtomicBoolean dispatched = new AtomicBoolean();
+
+		Batch(String type) {
+			this.type = type;
+		}
+	}
+}
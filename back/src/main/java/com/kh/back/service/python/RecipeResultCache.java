@@ -0,0 +1,312 @@
+package com.kh.back.service.python;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 레시피 검색/상세 결과 2단 캐시
+ * - L1 : 프로세스 내 Guava Cache (최대 개수 + TTL 만료)
+ * - L2 : Redis (기존 RedisTemplate, Flask 응답 JSON 문자열 그대로 저장)
+ *
+ * 무효화 규칙
+ * - 상세 : (type, id) 단위로 정확히 삭제
+ * - 검색 : 캐시할 때 결과에 포함된 문서 id 별로 역색인(Redis Set)을 남겨두고,
+ *          좋아요/신고 반영 등으로 문서가 바뀌면 그 문서를 포함한 검색 결과만 삭제
+ * - 레시피 등록/수정 : 어떤 검색 결과에 새로 포함될지 알 수 없으므로 타입별 세대(generation)를 올려
+ *          해당 타입의 기존 검색 키를 모두 무효화 (이전 세대 키는 TTL 로 자연 소멸)
+ *
+ * Redis 장애 시에는 L1 만으로 동작하며, L1 TTL 이 노드 간 최대 불일치 시간이 됩니다.
+ *
+ * 사이드카 장애 대비로 마지막 정상 응답(stale)을 별도 로컬 캐시에 더 오래 보관합니다.
+ * 무효화와 무관하게 사이드카 호출이 실패했을 때만 getStale() 로 사용합니다.
+ */
+@Slf4j
+@Component
+public class RecipeResultCache {
+
+	private static final String PREFIX = "recipe-cache:";
+	private static final String SEARCH = PREFIX + "search:";
+	private static final String DETAIL = PREFIX + "detail:";
+	private static final String DOC_INDEX = PREFIX + "doc:";
+	private static final String GENERATION = PREFIX + "gen:";
+
+	private final RedisTemplate<String, Object> redisTemplate;
+	private final Cache<String, String> l1;
+	private final Cache<String, Long> generations;
+	private final Cache<String, String> stale;
+	private final Duration l2Ttl;
+
+	private final LongAdder l1Hits = new LongAdder();
+	private final LongAdder l2Hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+	private final LongAdder l2Errors = new LongAdder();
+	private final LongAdder staleHits = new LongAdder();
+
+	public RecipeResultCache(RedisTemplate<String, Object> redisTemplate,
+							 @Value("${recipe.cache.l1.max-size:10000}") long l1MaxSize,
+							 @Value("${recipe.cache.l1.ttl-sec:30}") long l1TtlSec,
+							 @Value("${recipe.cache.l2.ttl-sec:300}") long l2TtlSec,
+							 @Value("${recipe.cache.stale.max-size:2000}") long staleMaxSize,
+							 @Value("${recipe.cache.stale.ttl-sec:3600}") long staleTtlSec) {
+		this.redisTemplate = redisTemplate;
+		this.l1 = CacheBuilder.newBuilder()
+				.maximumSize(l1MaxSize)
+				.expireAfterWrite(l1TtlSec, TimeUnit.SECONDS)
+				.recordStats()
+				.build();
+		// 타입별 세대 값은 짧게만 로컬에 들고 있음 (다른 노드의 등록/수정을 수 초 내 반영)
+		this.generations = CacheBuilder.newBuilder()
+				.expireAfterWrite(5, TimeUnit.SECONDS)
+				.build();
+		this.stale = CacheBuilder.newBuilder()
+				.maximumSize(staleMaxSize)
+				.expireAfterWrite(staleTtlSec, TimeUnit.SECONDS)
+				.build();
+		this.l2Ttl = Duration.ofSeconds(l2TtlSec);
+	}
+
+	// === 키 ===
+
+	/**
+	 * 검색 파라미터를 정규화하여 캐시 키를 만듭니다.
+	 * - 검색어는 앞뒤 공백 제거 + 연속 공백 축약 + 소문자
+	 * - null / 빈 값은 동일하게 취급, page/size 는 Flask 기본값(1/20)으로 채움
+	 */
+	public String searchKey(String q, String type, String category, String cookingMethod, Integer page, Integer size) {
+		String normalizedType = normalize(type);
+		return SEARCH + normalizedType + ":" + generation(normalizedType) + ":"
+				+ normalize(q) + "|" + normalize(category) + "|" + normalize(cookingMethod) + "|"
+				+ (page != null ? page : 1) + "|" + (size != null ? size : 20);
+	}
+
+	public String detailKey(String id, String type) {
+		return DETAIL + normalize(type) + ":" + id;
+	}
+
+	private static String normalize(String value) {
+		if (value == null) return "";
+		return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+	}
+
+	// === 조회 / 저장 ===
+
+	/**
+	 * L1 -> L2 순서로 조회합니다. L2 적중 시 L1 을 채웁니다.
+	 * @return 캐시된 Flask 응답 본문, 없으면 null
+	 */
+	public String get(String key) {
+		String body = l1.getIfPresent(key);
+		if (body != null) {
+			l1Hits.increment();
+			return body;
+		}
+		try {
+			body = (String) redisTemplate.opsForValue().get(key);
+		} catch (Exception e) {
+			l2Errors.increment();
+			log.warn("[RecipeResultCache] L2 조회 실패 (key={}): {}", key, e.getMessage());
+		}
+		if (body != null) {
+			l2Hits.increment();
+			l1.put(key, body);
+			return body;
+		}
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * 사이드카 호출 실패 시 폴백용: 무효화/만료된 뒤에도 남아 있는 마지막 정상 응답
+	 */
+	public String getStale(String key) {
+		String body = stale.getIfPresent(key);
+		if (body != null) {
+			staleHits.increment();
+		}
+		return body;
+	}
+
+	public void putDetail(String key, String body) {
+		l1.put(key, body);
+		stale.put(key, body);
+		try {
+			redisTemplate.opsForValue().set(key, body, l2Ttl);
+		} catch (Exception e) {
+			l2Errors.increment();
+			log.warn("[RecipeResultCache] L2 저장 실패 (key={}): {}", key, e.getMessage());
+		}
+	}
+
+	/**
+	 * 검색 결과를 저장하고, 결과에 포함된 문서별 역색인을 남깁니다.
+	 * - 결과 저장과 문서별 SADD/EXPIRE 를 파이프라인 한 번으로 보내 문서 수만큼 왕복하지 않습니다.
+	 */
+	public void putSearch(String key, String type, String body, Collection<String> docIds) {
+		l1.put(key, body);
+		stale.put(key, body);
+		try {
+			String normalizedType = normalize(type);
+			byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+			long ttlSeconds = l2Ttl.getSeconds();
+			redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+				connection.setEx(rawKey, ttlSeconds, body.getBytes(StandardCharsets.UTF_8));
+				for (String docId : docIds) {
+					if (docId == null) continue;
+					byte[] indexKey = (DOC_INDEX + normalizedType + ":" + docId).getBytes(StandardCharsets.UTF_8);
+					connection.sAdd(indexKey, rawKey);
+					connection.expire(indexKey, ttlSeconds);
+				}
+				return null;
+			});
+		} catch (Exception e) {
+			l2Errors.increment();
+			log.warn("[RecipeResultCache] L2 저장 실패 (key={}): {}", key, e.getMessage());
+		}
+	}
+
+	// === 무효화 ===
+
+	/**
+	 * 문서 하나가 바뀌었을 때 (좋아요/신고 반영 등)
+	 * - 해당 문서의 상세 캐시와, 그 문서를 포함한 검색 결과 캐시만 삭제합니다.
+	 */
+	public void evictDocument(String type, String id) {
+		String normalizedType = normalize(type);
+		String detailKey = detailKey(id, normalizedType);
+		String indexKey = DOC_INDEX + normalizedType + ":" + id;
+		l1.invalidate(detailKey);
+		invalidations.increment();
+		try {
+			List<String> keys = new ArrayList<>();
+			keys.add(detailKey);
+			keys.add(indexKey);
+			Set<Object> searchKeys = redisTemplate.opsForSet().members(indexKey);
+			if (searchKeys != null) {
+				for (Object searchKey : searchKeys) {
+					l1.invalidate((String) searchKey);
+					keys.add((String) searchKey);
+					invalidations.increment();
+				}
+			}
+			redisTemplate.delete(keys);
+		} catch (Exception e) {
+			l2Errors.increment();
+			log.warn("[RecipeResultCache] L2 무효화 실패 (type={}, id={}): {}", type, id, e.getMessage());
+		}
+	}
+
+	/**
+	 * 여러 문서를 한꺼번에 무효화합니다. (좋아요/신고 청크 반영 후)
+	 * - 역색인 조회(SMEMBERS)는 파이프라인 한 번, 삭제는 DEL 한 번으로 처리하여
+	 *   문서 수만큼 왕복하지 않습니다.
+	 *
+	 * @param idsByType type -> 문서 id 목록
+	 */
+	public void evictDocuments(Map<String, ? extends Collection<String>> idsByType) {
+		List<String> detailKeys = new ArrayList<>();
+		List<String> indexKeys = new ArrayList<>();
+		idsByType.forEach((type, ids) -> {
+			String normalizedType = normalize(type);
+			for (String id : ids) {
+				detailKeys.add(detailKey(id, normalizedType));
+				indexKeys.add(DOC_INDEX + normalizedType + ":" + id);
+			}
+		});
+		if (detailKeys.isEmpty()) return;
+		l1.invalidateAll(detailKeys);
+		invalidations.add(detailKeys.size());
+		try {
+			List<Object> members = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+				for (String indexKey : indexKeys) {
+					connection.sMembers(indexKey.getBytes(StandardCharsets.UTF_8));
+				}
+				return null;
+			});
+			Set<String> searchKeys = new HashSet<>();
+			for (Object result : members) {
+				if (!(result instanceof Collection)) continue;
+				for (Object searchKey : (Collection<?>) result) {
+					searchKeys.add((String) searchKey);
+				}
+			}
+			l1.invalidateAll(searchKeys);
+			invalidations.add(searchKeys.size());
+
+			List<String> keys = new ArrayList<>(detailKeys.size() + indexKeys.size() + searchKeys.size());
+			keys.addAll(detailKeys);
+			keys.addAll(indexKeys);
+			keys.addAll(searchKeys);
+			redisTemplate.delete(keys);
+		} catch (Exception e) {
+			l2Errors.increment();
+			log.warn("[RecipeResultCache] L2 일괄 무효화 실패 (docs={}): {}", detailKeys.size(), e.getMessage());
+		}
+	}
+
+	/**
+	 * 레시피 등록/수정 시: 해당 타입의 검색 결과 전체를 무효화합니다. (세대 증가)
+	 * 수정인 경우 id 를 넘기면 상세 캐시도 함께 삭제합니다.
+	 */
+	public void evictType(String type, String id) {
+		String normalizedType = normalize(type);
+		if (id != null) {
+			evictDocument(normalizedType, id);
+		}
+		String prefix = SEARCH + normalizedType + ":";
+		l1.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+		generations.invalidate(normalizedType);
+		invalidations.increment();
+		try {
+			redisTemplate.opsForValue().increment(GENERATION + normalizedType);
+		} catch (Exception e) {
+			l2Errors.increment();
+			log.warn("[RecipeResultCache] 세대 증가 실패 (type={}): {}", type, e.getMessage());
+		}
+	}
+
+	private long generation(String normalizedType) {
+		Long cached = generations.getIfPresent(normalizedType);
+		if (cached != null) return cached;
+		long gen = 0L;
+		try {
+			Object value = redisTemplate.opsForValue().get(GENERATION + normalizedType);
+			if (value != null) gen = Long.parseLong(value.toString());
+		} catch (Exception e) {
+			l2Errors.increment();
+			log.warn("[RecipeResultCache] 세대 조회 실패 (type={}): {}", normalizedType, e.getMessage());
+		}
+		generations.put(normalizedType, gen);
+		return gen;
+	}
+
+	public Map<String, Object> stats() {
+		CacheStats l1Stats = l1.stats();
+		long l1HitCount = l1Hits.sum(), l2HitCount = l2Hits.sum(), missCount = misses.sum();
+		long total = l1HitCount + l2HitCount + missCount;
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("l1Size", l1.size());
+		map.put("l1Hits", l1HitCount);
+		map.put("l2Hits", l2HitCount);
+		map.put("misses", missCount);
+		map.put("hitRatio", total == 0 ? 0 : (double) (l1HitCount + l2HitCount) / total);
+		map.put("l1Evictions", l1Stats.evictionCount());
+		map.put("invalidations", invalidations.sum());
+		map.put("l2Errors", l2Errors.sum());
+		map.put("staleSize", stale.size());
+		map.put("staleHits", staleHits.sum());
+		return map;
+	}
+}
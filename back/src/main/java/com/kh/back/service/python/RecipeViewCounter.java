@@ -0,0 +1,159 @@
+package com.kh.back.service.python;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 레시피 조회수 버퍼
+ * - 상세 조회가 캐시(RecipeResultCache)에서 응답되면 Flask /detail 을 거치지 않으므로, 조회수는 여기서 따로 셉니다.
+ * - (type, id) 별 LongAdder 에 모았다가 주기(recipe.view.flush-ms)마다 증감분을 Flask /update/views 로 한 번에 보냅니다.
+ * - 전송 묶음마다 deltaId 를 붙이고, 실패하면 같은 deltaId 로 재전송합니다. (Flask 가 문서 필드별 최근 deltaId 32개로 중복 반영을 막음,
+ *   노드가 여러 개여도 재시도 사이에 다른 묶음이 32개 넘게 반영되지 않는 한 한 번만 반영)
+ * - 노드마다 자기 버퍼를 보내므로 Redis 는 거치지 않습니다.
+ */
+@Slf4j
+@Component
+public class RecipeViewCounter {
+
+	private static final int CHUNK_SIZE = 500;
+
+	private final SidecarClient sidecarClient;
+	private final ObjectMapper objectMapper;
+
+	// (type, id) -> 누적 조회수. 레시피 수만큼만 생기므로 지우지 않음 (지우면 동시에 증가한 값이 유실될 수 있음)
+	private final ConcurrentHashMap<RecipeKey, Counter> counters = new ConcurrentHashMap<>();
+	private final ReentrantLock flushLock = new ReentrantLock();
+	private volatile Batch inflight; // 전송에 실패하여 재시도할 묶음 (flushLock 안에서만 갱신)
+
+	private final LongAdder views = new LongAdder();
+	private final LongAdder shipped = new LongAdder();
+	private final LongAdder flushes = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+
+	public RecipeViewCounter(SidecarClient sidecarClient, ObjectMapper objectMapper) {
+		this.sidecarClient = sidecarClient;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * 상세 조회 한 건을 기록합니다. (요청 스레드에서는 메모리만 갱신)
+	 */
+	public void record(String id, String type) {
+		if (id == null || id.isEmpty() || type == null || type.isEmpty()) return;
+		counters.computeIfAbsent(new RecipeKey(type, id), key -> new Counter()).total.increment();
+		views.increment();
+	}
+
+	@Scheduled(fixedDelayString = "${recipe.view.flush-ms:5000}")
+	public void flush() {
+		flushLock.lock();
+		try {
+			if (inflight == null) {
+				Map<RecipeKey, Long> deltas = new HashMap<>();
+				counters.forEach((key, counter) -> {
+					long delta = counter.take();
+					if (delta > 0) deltas.put(key, delta);
+				});
+				if (deltas.isEmpty()) return;
+				inflight = new Batch(UUID.randomUUID().toString(), deltas);
+			}
+			if (ship(inflight)) {
+				inflight = null;
+			}
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	private boolean ship(Batch batch) {
+		List<Map.Entry<RecipeKey, Long>> entries = new ArrayList<>(batch.deltas.entrySet());
+		for (int from = 0; from < entries.size(); from += CHUNK_SIZE) {
+			List<Map.Entry<RecipeKey, Long>> chunk = entries.subList(from, Math.min(from + CHUNK_SIZE, entries.size()));
+			if (!shipChunk(batch.deltaId, chunk)) {
+				failures.increment();
+				log.warn("[RecipeViewCounter] 조회수 묶음 {} 전송 실패, 다음 주기에 재시도 ({}건)", batch.deltaId, entries.size());
+				return false;
+			}
+		}
+		flushes.increment();
+		shipped.add(batch.deltas.values().stream().mapToLong(Long::longValue).sum());
+		log.info("[RecipeViewCounter] 조회수 묶음 {} 전송 ({}건)", batch.deltaId, entries.size());
+		return true;
+	}
+
+	private boolean shipChunk(String deltaId, List<Map.Entry<RecipeKey, Long>> chunk) {
+		try {
+			URI uri = new URI(sidecarClient.getBaseUrl() + "/update/views");
+			List<Map<String, Object>> views = new ArrayList<>(chunk.size());
+			for (Map.Entry<RecipeKey, Long> entry : chunk) {
+				views.add(Map.of("postId", entry.getKey().id(), "type", entry.getKey().type(), "value", entry.getValue()));
+			}
+			String jsonBody = objectMapper.writeValueAsString(Map.of("delta_id", deltaId, "views", views));
+
+			HttpHeaders headers = new HttpHeaders();
+			headers.setContentType(MediaType.APPLICATION_JSON);
+			HttpEntity<String> entity = new HttpEntity<>(jsonBody, headers);
+
+			sidecarClient.run(SidecarEndpoint.SYNC, rest -> rest.postForEntity(uri, entity, String.class));
+			return true;
+		} catch (Exception e) {
+			log.error("레시피 조회수 일괄 반영 중 오류: {}", e.getMessage());
+			return false;
+		}
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("recipes", counters.size());
+		map.put("views", views.sum());
+		map.put("shipped", shipped.sum());
+		map.put("flushes", flushes.sum());
+		map.put("failures", failures.sum());
+		map.put("retrying", inflight != null);
+		return map;
+	}
+
+	// 종료 시 남은 조회수 전송
+	@PreDestroy
+	public void drain() {
+		log.info("[RecipeViewCounter] 종료 전 남은 조회수 전송");
+		flush();
+	}
+
+	private record RecipeKey(String type, String id) {
+	}
+
+	private static final class Counter {
+		private final LongAdder total = new LongAdder(); // 요청 스레드들이 경합 없이 증가
+		private long taken;                               // 이미 꺼낸 값 (flushLock 안에서만 갱신)
+
+		long take() {
+			long current = total.sum();
+			long delta = current - taken;
+			taken = current;
+			return delta;
+		}
+	}
+
+	private static final class Batch {
+		private final String deltaId;
+		private final Map<RecipeKey, Long> deltas;
+
+		Batch(String deltaId, Map<RecipeKey, Long> deltas) {
+			this.deltaId = deltaId;
+			this.deltas = deltas;
+		}
+	}
+}
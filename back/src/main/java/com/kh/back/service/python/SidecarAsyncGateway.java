@@ -0,0 +1,90 @@
+package com.kh.back.service.python;
+
+import com.kh.back.dto.forum.response.ForumPostCommentResponseDto;
+import com.kh.back.dto.forum.response.ForumPostPageDto;
+import com.kh.back.dto.forum.response.ForumPostResponseDto;
+import com.kh.back.dto.python.SearchListResDto;
+import com.kh.back.dto.python.SearchResDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Flask 사이드카 비동기 게이트웨이
+ * - ElasticService / ForumEsService 의 조회 메서드를 sidecarExecutor 에서 실행하고
+ *   CompletableFuture 로 돌려줍니다.
+ * - 컨트롤러는 Future 를 그대로 반환하여 Tomcat 요청 스레드를 즉시 반환합니다.
+ * - sidecarExecutor 가 가득 차면 실패한 Future 를 반환합니다. (요청 스레드에서 대신 실행하지 않음)
+ */
+@Slf4j
+@Service
+public class SidecarAsyncGateway {
+
+	private final ElasticService elasticService;
+	private final ForumEsService forumEsService;
+	private final Executor sidecarExecutor;
+
+	public SidecarAsyncGateway(ElasticService elasticService,
+							   ForumEsService forumEsService,
+							   @Qualifier("sidecarExecutor") Executor sidecarExecutor) {
+		this.elasticService = elasticService;
+		this.forumEsService = forumEsService;
+		this.sidecarExecutor = sidecarExecutor;
+	}
+
+	// === 레시피 ===
+
+	public CompletableFuture<List<SearchListResDto>> search(String q, String type, String category, String cookingMethod, Integer page, Integer size) {
+		return submit(() -> elasticService.search(q, type, category, cookingMethod, page, size));
+	}
+
+	public CompletableFuture<SearchResDto> detail(String id, String type) {
+		return submit(() -> elasticService.detail(id, type));
+	}
+
+	public CompletableFuture<List<Map<String, Object>>> getUserRecipes(Long memberId, int page, int size) {
+		return submit(() -> elasticService.getUserRecipes(memberId, page, size));
+	}
+
+	// === 포럼 ===
+
+	public CompletableFuture<ForumPostPageDto> categoryPage(String category, int page, int size, String cursor) {
+		return submit(() -> forumEsService.categoryPage(category, page, size, cursor));
+	}
+
+	public CompletableFuture<List<ForumPostResponseDto>> stickyPosts(String category) {
+		return submit(() -> forumEsService.stickyPosts(category));
+	}
+
+	public CompletableFuture<ForumPostResponseDto> postDetail(String postId) {
+		return submit(() -> forumEsService.detail(postId));
+	}
+
+	public CompletableFuture<List<ForumPostCommentResponseDto>> commentsForPost(String postId) {
+		return submit(() -> forumEsService.searchCommentsForPost(postId));
+	}
+
+	public CompletableFuture<List<ForumPostResponseDto>> postsByMember(Long memberId, int page, int size) {
+		return submit(() -> forumEsService.searchPostsByMember(memberId, page, size));
+	}
+
+	public CompletableFuture<List<ForumPostCommentResponseDto>> commentsByMember(Long memberId, int page, int size) {
+		return submit(() -> forumEsService.searchCommentsByMember(memberId, page, size));
+	}
+
+	private <T> CompletableFuture<T> submit(Supplier<T> task) {
+		try {
+			return CompletableFuture.supplyAsync(task, sidecarExecutor);
+		} catch (RejectedExecutionException e) {
+			log.warn("[SidecarAsyncGateway] sidecarExecutor 포화로 요청 거절: {}", e.getMessage());
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.kh.back.service.python;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 엔드포인트 그룹별 서킷 브레이커 (횟수 기반 슬라이딩 윈도우)
+ * - CLOSED    : 최근 window 개 호출 중 실패율이 threshold 이상이면 OPEN
+ * - OPEN      : open-ms 동안 호출을 보내지 않고 즉시 실패
+ * - HALF_OPEN : 시험 호출 halfOpenCalls 개만 허용, 모두 성공하면 CLOSED / 하나라도 실패하면 다시 OPEN
+ *
+ * 호출 자체(수 ms~수 초)에 비해 상태 전이 비용이 작으므로 단순 동기화로 구현합니다.
+ */
+@Slf4j
+class SidecarCircuitBreaker {
+
+	enum State { CLOSED, OPEN, HALF_OPEN }
+
+	private final SidecarEndpoint endpoint;
+	private final boolean[] outcomes; // true = 실패
+	private final int minimumCalls;
+	private final double failureRateThreshold;
+	private final long openMillis;
+	private final int halfOpenCalls;
+
+	private State state = State.CLOSED;
+	private int index;
+	private int recorded;
+	private int failures;
+	private long openedAt;
+	private int halfOpenPermits;
+	private int halfOpenSuccesses;
+	private long rejected;
+	private long openedCount;
+
+	SidecarCircuitBreaker(SidecarEndpoint endpoint, int window, int minimumCalls, double failureRateThreshold,
+						  long openMillis, int halfOpenCalls) {
+		this.endpoint = endpoint;
+		this.outcomes = new boolean[window];
+		this.minimumCalls = minimumCalls;
+		this.failureRateThreshold = failureRateThreshold;
+		this.openMillis = openMillis;
+		this.halfOpenCalls = halfOpenCalls;
+	}
+
+	/**
+	 * 호출을 보내도 되는지 확인합니다. false 면 호출하지 말고 즉시 실패 처리해야 합니다.
+	 */
+	synchronized boolean tryAcquire() {
+		if (state == State.OPEN) {
+			if (System.currentTimeMillis() - openedAt < openMillis) {
+				rejected++;
+				return false;
+			}
+			transition(State.HALF_OPEN);
+		}
+		if (state == State.HALF_OPEN) {
+			if (halfOpenPermits >= halfOpenCalls) {
+				rejected++;
+				return false;
+			}
+			halfOpenPermits++;
+		}
+		return true;
+	}
+
+	synchronized void onSuccess() {
+		if (state == State.HALF_OPEN) {
+			if (++halfOpenSuccesses >= halfOpenCalls) {
+				transition(State.CLOSED);
+			}
+			return;
+		}
+		record(false);
+	}
+
+	synchronized void onFailure() {
+		if (state == State.HALF_OPEN) {
+			transition(State.OPEN);
+			return;
+		}
+		record(true);
+		if (state == State.CLOSED && recorded >= minimumCalls
+				&& (double) failures / recorded >= failureRateThreshold) {
+			transition(State.OPEN);
+		}
+	}
+
+	private void record(boolean failed) {
+		if (recorded == outcomes.length) {
+			if (outcomes[index]) failures--;
+		} else {
+			recorded++;
+		}
+		outcomes[index] = failed;
+		if (failed) failures++;
+		index = (index + 1) % outcomes.length;
+	}
+
+	private void transition(State next) {
+		log.warn("[SidecarCircuitBreaker] {} : {} -> {}", endpoint.getKey(), state, next);
+		state = next;
+		halfOpenPermits = 0;
+		halfOpenSuccesses = 0;
+		if (next == State.OPEN) {
+			openedAt = System.currentTimeMillis();
+			openedCount++;
+		}
+		if (next == State.CLOSED) {
+			index = 0;
+			recorded = 0;
+			failures = 0;
+		}
+	}
+
+	synchronized State state() {
+		return state;
+	}
+
+	synchronized Map<String, Object> toMap() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("state", state.name());
+		map.put("failureRate", recorded == 0 ? 0 : (double) failures / recorded);
+		map.put("rejected", rejected);
+		map.put("opened", openedCount);
+		return map;
+	}
+}
@@ -0,0 +1,265 @@
+package com.kh.back.service.python;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kh.back.config.HttpClient5RequestFactory;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Flask 사이드카 공용 클라이언트
+ * - 모든 서비스가 하나의 커넥션 풀(keep-alive)을 공유하고,
+ *   엔드포인트 그룹(SidecarEndpoint)별로 타임아웃이 다른 RestTemplate 을 사용합니다.
+ * - 엔드포인트 그룹별 동시 호출 한도(bulkhead)와 서킷 브레이커를 적용합니다.
+ *   한도 초과 / 브레이커 OPEN 이면 호출 없이 SidecarUnavailableException 으로 즉시 실패합니다.
+ * - 호출 수/오류 수/누적 지연시간, 브레이커 상태와 풀 상태를 stats()로 제공합니다.
+ */
+@Slf4j
+@Component
+public class SidecarClient {
+
+	@Getter
+	private final String baseUrl;
+	private final PoolingHttpClientConnectionManager connectionManager;
+	private final Map<SidecarEndpoint, RestTemplate> templates = new EnumMap<>(SidecarEndpoint.class);
+	private final Map<SidecarEndpoint, EndpointStats> endpointStats = new EnumMap<>(SidecarEndpoint.class);
+	private final Map<SidecarEndpoint, Semaphore> bulkheads = new EnumMap<>(SidecarEndpoint.class);
+	private final Map<SidecarEndpoint, Integer> concurrencyLimits = new EnumMap<>(SidecarEndpoint.class);
+	private final Map<SidecarEndpoint, SidecarCircuitBreaker> breakers = new EnumMap<>(SidecarEndpoint.class);
+	private final long bulkheadWaitMs;
+	private final ObjectMapper objectMapper;
+	private final double bodyLogSampleRate;
+
+	public SidecarClient(@Value("${flask.base-url:http://localhost:5001}") String baseUrl,
+						 @Value("${sidecar.pool.lease-timeout-ms:2000}") long leaseTimeoutMs,
+						 PoolingHttpClientConnectionManager sidecarConnectionManager,
+						 CloseableHttpClient sidecarHttpClient,
+						 RestTemplateBuilder restTemplateBuilder,
+						 ObjectMapper objectMapper,
+						 Environment env) {
+		this.baseUrl = baseUrl;
+		this.objectMapper = objectMapper;
+		this.bodyLogSampleRate = env.getProperty("sidecar.log.body-sample-rate", Double.class, 0.01);
+		this.connectionManager = sidecarConnectionManager;
+		this.bulkheadWaitMs = env.getProperty("sidecar.bulkhead.wait-ms", Long.class, 50L);
+		int window = env.getProperty("sidecar.breaker.window", Integer.class, 20);
+		int minimumCalls = env.getProperty("sidecar.breaker.minimum-calls", Integer.class, 10);
+		double failureRate = env.getProperty("sidecar.breaker.failure-rate", Double.class, 0.5);
+		long openMs = env.getProperty("sidecar.breaker.open-ms", Long.class, 10000L);
+		int halfOpenCalls = env.getProperty("sidecar.breaker.half-open-calls", Integer.class, 3);
+		for (SidecarEndpoint endpoint : SidecarEndpoint.values()) {
+			String prefix = "sidecar.endpoint." + endpoint.getKey();
+			long connectMs = env.getProperty(prefix + ".connect-timeout-ms", Long.class, endpoint.getConnectTimeoutMs());
+			long readMs = env.getProperty(prefix + ".read-timeout-ms", Long.class, endpoint.getReadTimeoutMs());
+			int maxConcurrent = env.getProperty(prefix + ".max-concurrent", Integer.class, endpoint.getMaxConcurrent());
+			templates.put(endpoint, restTemplateBuilder
+					.requestFactory(() -> new HttpClient5RequestFactory(sidecarHttpClient, requestConfig(leaseTimeoutMs, connectMs, readMs)))
+					.build());
+			endpointStats.put(endpoint, new EndpointStats());
+			bulkheads.put(endpoint, new Semaphore(maxConcurrent));
+			concurrencyLimits.put(endpoint, maxConcurrent);
+			breakers.put(endpoint, new SidecarCircuitBreaker(endpoint, window, minimumCalls, failureRate, openMs, halfOpenCalls));
+			log.info("[SidecarClient] {} connect={}ms read={}ms maxConcurrent={}", endpoint, connectMs, readMs, maxConcurrent);
+		}
+	}
+
+	@SuppressWarnings("deprecation") // httpclient 5.2: 연결 타임아웃은 요청 단위로만 엔드포인트별 지정 가능
+	private static RequestConfig requestConfig(long leaseTimeoutMs, long connectMs, long readMs) {
+		return RequestConfig.custom()
+				.setConnectionRequestTimeout(Timeout.ofMilliseconds(leaseTimeoutMs))
+				.setConnectTimeout(Timeout.ofMilliseconds(connectMs))
+				.setResponseTimeout(Timeout.ofMilliseconds(readMs))
+				.build();
+	}
+
+	/**
+	 * 엔드포인트 그룹에 맞는 RestTemplate 으로 호출을 수행하고 통계를 기록합니다.
+	 * - 동시 호출 한도를 bulkhead-wait-ms 안에 얻지 못하거나 브레이커가 열려 있으면 즉시 실패합니다.
+	 * - 연결/응답 타임아웃(ResourceAccessException)과 5xx 만 브레이커 실패로 집계합니다. (4xx 는 정상 응답)
+	 */
+	public <T> T call(SidecarEndpoint endpoint, Function<RestTemplate, T> call) {
+		EndpointStats stats = endpointStats.get(endpoint);
+		Semaphore bulkhead = bulkheads.get(endpoint);
+		SidecarCircuitBreaker breaker = breakers.get(endpoint);
+		if (!acquire(bulkhead)) {
+			stats.bulkheadRejected.increment();
+			throw new SidecarUnavailableException(endpoint, "동시 호출 한도 초과");
+		}
+		try {
+			if (!breaker.tryAcquire()) {
+				stats.breakerRejected.increment();
+				throw new SidecarUnavailableException(endpoint, "서킷 브레이커 OPEN");
+			}
+			long start = System.nanoTime();
+			try {
+				T result = call.apply(templates.get(endpoint));
+				breaker.onSuccess();
+				return result;
+			} catch (ResourceAccessException | HttpServerErrorException e) {
+				breaker.onFailure();
+				stats.errors.increment();
+				throw e;
+			} catch (RuntimeException e) {
+				breaker.onSuccess(); // 사이드카는 응답함 (4xx, 응답 변환 오류 등)
+				stats.errors.increment();
+				throw e;
+			} finally {
+				stats.calls.increment();
+				stats.totalNanos.add(System.nanoTime() - start);
+			}
+		} finally {
+			bulkhead.release();
+		}
+	}
+
+	private boolean acquire(Semaphore bulkhead) {
+		try {
+			return bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * 브레이커가 열려 있어 호출해도 바로 실패할 상태인지 (호출 전 폴백 판단용)
+	 */
+	public boolean isOpen(SidecarEndpoint endpoint) {
+		return breakers.get(endpoint).state() == SidecarCircuitBreaker.State.OPEN;
+	}
+
+	/**
+	 * 요청을 보내고 응답 본문을 String 으로 받지 않고 InputStream 에서 바로 DTO 로 역직렬화합니다.
+	 * - 응답 본문 로깅은 DEBUG 레벨에서 sidecar.log.body-sample-rate 비율로만 수행합니다.
+	 * - 역직렬화 실패는 RestClientException 으로 던집니다. (IOException 그대로 두면 RestTemplate 이
+	 *   ResourceAccessException 으로 감싸 브레이커 실패/stale 폴백으로 잘못 처리됨)
+	 *
+	 * @param entity 요청 본문/헤더 (없으면 null)
+	 */
+	public <T> T exchange(SidecarEndpoint endpoint, HttpMethod method, URI uri, HttpEntity<?> entity, JavaType type) {
+		return call(endpoint, rest -> rest.execute(uri, method, rest.httpEntityCallback(entity),
+				response -> decode(endpoint, uri, response.getBody(), type)));
+	}
+
+	public <T> T exchange(SidecarEndpoint endpoint, HttpMethod method, URI uri, HttpEntity<?> entity, Class<T> type) {
+		return exchange(endpoint, method, uri, entity, objectMapper.constructType(type));
+	}
+
+	public <T> T exchange(SidecarEndpoint endpoint, HttpMethod method, URI uri, HttpEntity<?> entity, TypeReference<T> type) {
+		return exchange(endpoint, method, uri, entity, objectMapper.getTypeFactory().constructType(type));
+	}
+
+	public <T> T get(SidecarEndpoint endpoint, URI uri, Class<T> type) {
+		return exchange(endpoint, HttpMethod.GET, uri, null, type);
+	}
+
+	public <T> T get(SidecarEndpoint endpoint, URI uri, JavaType type) {
+		return exchange(endpoint, HttpMethod.GET, uri, null, type);
+	}
+
+	public <T> T get(SidecarEndpoint endpoint, URI uri, TypeReference<T> type) {
+		return exchange(endpoint, HttpMethod.GET, uri, null, type);
+	}
+
+	public JavaType listOf(Class<?> elementType) {
+		return objectMapper.getTypeFactory().constructCollectionType(List.class, elementType);
+	}
+
+	// 소켓 읽기 오류(IOException)는 그대로 던지고, 응답 형식 오류(JsonProcessingException)만 변환
+	private <T> T decode(SidecarEndpoint endpoint, URI uri, InputStream body, JavaType type) throws IOException {
+		try {
+			if (log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < bodyLogSampleRate) {
+				byte[] bytes = StreamUtils.copyToByteArray(body);
+				log.debug("[SidecarClient] {} {} 응답 (샘플): {}", endpoint.getKey(), uri, new String(bytes, StandardCharsets.UTF_8));
+				return objectMapper.readValue(bytes, type);
+			}
+			return objectMapper.readValue(body, type);
+		} catch (JsonProcessingException e) {
+			throw new RestClientException("사이드카 응답 변환 실패 (" + endpoint.getKey() + " " + uri + "): " + e.getOriginalMessage(), e);
+		}
+	}
+
+	public void run(SidecarEndpoint endpoint, Consumer<RestTemplate> call) {
+		call(endpoint, rest -> {
+			call.accept(rest);
+			return null;
+		});
+	}
+
+	public String url(String path) {
+		return baseUrl + path;
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		PoolStats pool = connectionManager.getTotalStats();
+		Map<String, Object> poolMap = new LinkedHashMap<>();
+		poolMap.put("leased", pool.getLeased());
+		poolMap.put("available", pool.getAvailable());
+		poolMap.put("pending", pool.getPending());
+		poolMap.put("max", pool.getMax());
+		result.put("pool", poolMap);
+
+		Map<String, Object> endpoints = new LinkedHashMap<>();
+		endpointStats.forEach((endpoint, stats) -> {
+			Map<String, Object> map = stats.toMap();
+			map.put("inFlight", concurrencyLimits.get(endpoint) - bulkheads.get(endpoint).availablePermits());
+			map.put("breaker", breakers.get(endpoint).toMap());
+			endpoints.put(endpoint.getKey(), map);
+		});
+		result.put("endpoints", endpoints);
+		return result;
+	}
+
+	private static class EndpointStats {
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAdder bulkheadRejected = new LongAdder();
+		private final LongAdder breakerRejected = new LongAdder();
+
+		Map<String, Object> toMap() {
+			long count = calls.sum();
+			Map<String, Object> map = new LinkedHashMap<>();
+			map.put("calls", count);
+			map.put("errors", errors.sum());
+			map.put("avgMillis", count == 0 ? 0 : totalNanos.sum() / count / 1_000_000.0);
+			map.put("bulkheadRejected", bulkheadRejected.sum());
+			map.put("breakerRejected", breakerRejected.sum());
+			return map;
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.kh.back.service.python;
+
+import lombok.Getter;
+
+/**
+ * Flask 사이드카 엔드포인트 그룹
+ * - 그룹마다 연결/응답 타임아웃(단위: ms)과 동시 호출 한도(bulkhead)를 따로 가집니다.
+ *   한 그룹이 느려져도 다른 그룹(예: FAQ 검색 -> 레시피 검색)의 호출 슬롯을 잡아먹지 않습니다.
+ * - sidecar.endpoint.{key}.connect-timeout-ms / read-timeout-ms / max-concurrent 프로퍼티로 덮어쓸 수 있습니다.
+ */
+@Getter
+public enum SidecarEndpoint {
+	SEARCH("search", 500, 3000, 40),      // /search, /detail, /api/profile/recipes
+	BATCH("batch", 500, 5000, 20),        // /batch/detail, /check
+	WRITE("write", 500, 10000, 10),       // /upload/one, /update/one
+	SYNC("sync", 1000, 30000, 2),         // /update/likes-reports, /upload/json, /forum/posts/views
+	FORUM("forum", 500, 5000, 30),        // /forum/**
+	FAQ("faq", 500, 3000, 10),            // /search/faq, /total/page, /faq/**
+	CHART("chart", 500, 5000, 5),         // /popular
+	BOT("bot", 500, 10000, 10);           // /bot
+
+	private final String key;
+	private final long connectTimeoutMs;
+	private final long readTimeoutMs;
+	private final int maxConcurrent;
+
+	SidecarEndpoint(String key, long connectTimeoutMs, long readTimeoutMs, int maxConcurrent) {
+		this.key = key;
+		this.connectTimeoutMs = connectTimeoutMs;
+		this.readTimeoutMs = readTimeoutMs;
+		this.maxConcurrent = maxConcurrent;
+	}
+}
@@ -0,0 +1,12 @@
+package com.kh.back.service.python;
+
+/**
+ * 사이드카 호출을 보내지 않고 즉시 실패시킬 때 사용하는 예외
+ * - 서킷 브레이커가 열려 있거나, 엔드포인트 동시 호출 한도(bulkhead)가 찼을 때
+ */
+public class SidecarUnavailableException extends RuntimeException {
+
+	public SidecarUnavailableException(SidecarEndpoint endpoint, String reason) {
+		super("Flask 사이드카 호출 차단 (" + endpoint.getKey() + "): " + reason);
+	}
+}
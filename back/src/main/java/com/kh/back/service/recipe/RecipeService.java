@@ -7,6 +7,7 @@ import com.kh.back.dto.recipe.res.CocktailResDto;
 import com.kh.back.dto.recipe.res.FoodListResDto;
 import com.kh.back.dto.recipe.res.FoodResDto;
 import com.kh.back.service.python.ElasticService;
+import com.kh.back.service.python.SidecarAsyncGateway;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -14,6 +15,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -25,6 +27,7 @@ import java.util.stream.Collectors;
 public class RecipeService {
 
     private final ElasticService elasticService;
+    private final SidecarAsyncGateway sidecarAsyncGateway;
 
     /**
      * 레시피 검색
@@ -39,7 +42,19 @@ public class RecipeService {
      */
     public List<?> searchRecipes(String q, String type, String category, String cookingMethod, int page, int size) {
         // ElasticService의 search 메서드에 모든 파라미터 전달
-        List<SearchListResDto> rawList = elasticService.search(q, type, category, cookingMethod, page, size);
+        return castSearchList(elasticService.search(q, type, category, cookingMethod, page, size), type);
+    }
+
+    /**
+     * 레시피 검색 (비동기)
+     * - 사이드카 호출을 sidecarExecutor 에서 수행하여 요청 스레드를 점유하지 않습니다.
+     */
+    public CompletableFuture<List<?>> searchRecipesAsync(String q, String type, String category, String cookingMethod, int page, int size) {
+        return sidecarAsyncGateway.search(q, type, category, cookingMethod, page, size)
+                .thenApply(rawList -> castSearchList(rawList, type));
+    }
+
+    private List<?> castSearchList(List<SearchListResDto> rawList, String type) {
         if (rawList == null) {
             return Collections.emptyList();
         }
@@ -64,7 +79,18 @@ public class RecipeService {
      * @return 상세 레시피 데이터
      */
     public Object getRecipeDetail(String id, String type) {
-        SearchResDto res = elasticService.detail(id, type);
+        return castDetail(elasticService.detail(id, type), type);
+    }
+
+    /**
+     * 레시피 상세 조회 (비동기)
+     */
+    public CompletableFuture<Object> getRecipeDetailAsync(String id, String type) {
+        return sidecarAsyncGateway.detail(id, type)
+                .thenApply(res -> castDetail(res, type));
+    }
+
+    private Object castDetail(SearchResDto res, String type) {
         if ("food".equalsIgnoreCase(type)) {
             return (FoodResDto) res;
         } else if ("cocktail".equalsIgnoreCase(type)) {
@@ -83,8 +109,18 @@ public class RecipeService {
      * @return 레시피 목록 (id, title, content_type)
      */
     public List<Map<String, Object>> getUserRecipes(Long memberId, int page, int size) {
-        List<Map<String, Object>> rawList = elasticService.getUserRecipes(memberId, page, size);
+        return toUserRecipeList(elasticService.getUserRecipes(memberId, page, size));
+    }
+
+    /**
+     * 특정 유저가 작성한 레시피 목록 조회 (비동기)
+     */
+    public CompletableFuture<List<Map<String, Object>>> getUserRecipesAsync(Long memberId, int page, int size) {
+        return sidecarAsyncGateway.getUserRecipes(memberId, page, size)
+                .thenApply(this::toUserRecipeList);
+    }
 
+    private List<Map<String, Object>> toUserRecipeList(List<Map<String, Object>> rawList) {
         return rawList.stream()
                 .map(recipe -> {
                     Map<String, Object> recipeMap = new HashMap<>();
@@ -1,16 +1,23 @@
 package com.kh.back.service.redis;
 
+import com.kh.back.constant.Action;
+import com.kh.back.dto.python.LikeReportDeltaDto;
 import com.kh.back.service.action.ReActionService;
 import com.kh.back.service.member.MemberService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 @Service @RequiredArgsConstructor
 @Slf4j
@@ -90,20 +97,38 @@ public class RedisService {
 //		}
 //	}
 
+	/**
+	 * 좋아요/신고 토글
+	 * - Lua 스크립트 한 번으로 "게시글별 반응 회원 집합" 갱신과 증감분 기록을 원자적으로 처리합니다.
+	 * - 이미 누른 상태에서 다시 누르거나(중복), 누르지 않은 상태에서 취소하면 false 를 반환합니다.
+	 * - Reaction 테이블 반영은 ReActionService 대기열을 통해 비동기로 일괄 처리됩니다.
+	 * - 대기열이 가득 찬 채 DB 반영이 실패하고 있으면 토글하지 않고 false 를 반환합니다.
+	 */
 	public boolean updateRecipeCount(Authentication authentication, String action, String postId, String type, boolean increase) {
 		try {
-			String key = action + ":" + postId + ":" + type; // ex) likes:123:recipe 또는 reports:123:recipe
-			if (increase) {
-				redisTemplate.opsForValue().increment(key, 1); // +1 증가
-				log.info("Increased value in Redis for key: {}", key);  // 로그 추가
-				reActionService.updateAction(authentication, action, postId);
-			} else {
-				String value = Optional.ofNullable((String) redisTemplate.opsForValue().get(key)).orElse("0");
-				redisTemplate.opsForValue().set(key, value); // null일 경우 0으로 설정
-				redisTemplate.opsForValue().decrement(key, 1); // -1 감소
-				log.info("Decreased value in Redis for key: {}", key);  // 로그 추가
-				reActionService.deleteAction(authentication, postId, action);
+			Long memberId = Long.parseLong(authentication.getName());
+			Action reactionAction = Action.valueOf(action);
+			String membersKey = REACTION_MEMBERS_PREFIX + action + ":" + postId + ":" + type;
+			String field = action + ":" + postId + ":" + type; // ex) likes:123:food 또는 reports:123:cocktail
+			List<String> keys = List.of(membersKey, PENDING_DELTAS);
+			if (!reActionService.isAccepting()) {
+				// DB 반영이 밀려 버퍼가 가득 참: Redis 에 확정하지 않고 거절
+				log.warn("Rejected {} toggle for member {} on {}: reaction write-behind buffer is full", action, memberId, field);
+				return false;
 			}
+
+			Long result = redisTemplate.execute(TOGGLE_SCRIPT, keys, memberId.toString(), field, increase ? "1" : "0");
+			if (result != null && result == TOGGLE_NOT_LOADED) {
+				// 처음 토글되는 게시글: DB 의 기존 반응으로 회원 집합을 채운 뒤 다시 시도
+				seedReactionMembers(membersKey, postId, reactionAction);
+				result = redisTemplate.execute(TOGGLE_SCRIPT, keys, memberId.toString(), field, increase ? "1" : "0");
+			}
+			if (result == null || result != TOGGLE_APPLIED) {
+				log.info("Rejected {} toggle for member {} on {}", increase ? "duplicate" : "missing", memberId, field);
+				return false;
+			}
+			log.info("{} value in Redis for field: {}", increase ? "Increased" : "Decreased", field);  // 로그 추가
+			reActionService.enqueue(memberId, postId, reactionAction, increase);
 			return true;  // 성공
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -111,59 +136,172 @@ public class RedisService {
 		}
 	}
 
+	private static final String REACTION_MEMBERS_PREFIX = "reaction-members:";
+	private static final String MEMBERS_SENTINEL = "_"; // 반응한 회원이 없는 게시글도 "초기화됨"을 표시
+	private static final long TOGGLE_APPLIED = 1L;
+	private static final long TOGGLE_NOT_LOADED = -1L;
+
+	// KEYS[1]=게시글별 회원 집합, KEYS[2]=대기 해시 / ARGV[1]=회원 id, ARGV[2]=해시 필드, ARGV[3]=1(누르기)|0(취소)
+	private static final RedisScript<Long> TOGGLE_SCRIPT = new DefaultRedisScript<>(
+			"if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+			"local changed " +
+			"if ARGV[3] == '1' then changed = redis.call('SADD', KEYS[1], ARGV[1]) " +
+			"else changed = redis.call('SREM', KEYS[1], ARGV[1]) end " +
+			"if changed == 0 then return 0 end " +
+			"redis.call('HINCRBY', KEYS[2], ARGV[2], ARGV[3] == '1' and 1 or -1) " +
+			"return 1", Long.class);
+
+	// KEYS[1]=게시글별 회원 집합 / ARGV=회원 id 들. 집합이 이미 있으면(다른 요청/노드가 먼저 채움) 건드리지 않음
+	private static final RedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>(
+			"if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+			"for i = 1, #ARGV, 5000 do " +
+			"redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + 4999, #ARGV))) " +
+			"end " +
+			"return 1", Long.class);
+
+	// DB 반응 + 아직 DB 에 반영되지 않은 대기 변경으로 회원 집합을 채움.
+	// 집합이 없을 때만 채우므로, 그 사이 토글된 집합을 오래된 DB 목록으로 덮어쓰지 않음
+	private void seedReactionMembers(String membersKey, String postId, Action action) {
+		Collection<Long> memberIds = reActionService.getMemberIds(postId, action);
+		Object[] members = new Object[memberIds.size() + 1];
+		members[0] = MEMBERS_SENTINEL;
+		int i = 1;
+		for (Long memberId : memberIds) {
+			members[i++] = memberId.toString();
+		}
+		redisTemplate.execute(SEED_SCRIPT, Collections.singletonList(membersKey), members);
+	}
+
+	// === 좋아요/신고 증감분(delta) 전송 파이프라인 ===
+	// 1) 쓰기 : HINCRBY like-report:pending <action:postId:type> ±1
+	// 2) 교체 : 대기 해시를 like-report:shipping:<deltaId> 로 RENAME (Lua 로 원자 처리, 이후 증감은 새 대기 해시로)
+	// 3) 전송 : 전송 해시를 HSCAN 으로 청크 단위로 읽어 보내고, 성공한 필드만 HDEL
+	// 4) 완료 : 해시가 비면 전송 큐에서 제거. 실패하면 같은 deltaId 로 다음 주기에 남은 필드만 재전송
+	//    (Flask 는 문서별로 마지막 적용 deltaId 를 기록해 같은 청크를 두 번 반영하지 않음)
 
+	private static final String PENDING_DELTAS = "like-report:pending";
+	private static final String SHIPPING_PREFIX = "like-report:shipping:";
+	private static final String SHIPPING_QUEUE = "like-report:shipping-queue";
 
-	public List<Map<String, Object>> getAllLikesAndReports() {
-		List<Map<String, Object>> result = new ArrayList<>();
+	// 이미 전송 중(미완료)인 해시가 있으면 그것을, 없으면 대기 해시를 새 이름으로 교체하여 반환
+	private static final RedisScript<String> ROTATE_SCRIPT = new DefaultRedisScript<>(
+			"local inflight = redis.call('LINDEX', KEYS[2], 0) " +
+			"if inflight then return inflight end " +
+			"if redis.call('EXISTS', KEYS[1]) == 0 then return false end " +
+			"redis.call('RENAME', KEYS[1], KEYS[3]) " +
+			"redis.call('RPUSH', KEYS[2], KEYS[3]) " +
+			"return KEYS[3]", String.class);
 
-		// Redis에서 "likes:*" 패턴에 맞는 모든 키를 찾기
-		Set<String> likeKeys = redisTemplate.keys("likes:*");
-		if (likeKeys != null) {
-			for (String key : likeKeys) {
-				// 키에서 postId와 type 추출
-				String[] parts = key.split(":");
-				String postId = parts[1]; // Elasticsearch의 _id
-				String type = parts[2];   // type (cocktail 또는 food)
+	// 예전 방식(문자열 키 likes:id:type)으로 남아 있는 카운터를 GETDEL 로 꺼내 대기 해시로 옮김
+	private static final RedisScript<Long> MIGRATE_SCRIPT = new DefaultRedisScript<>(
+			"local moved = 0 " +
+			"for i = 2, #KEYS do " +
+			"  local v = redis.call('GETDEL', KEYS[i]) " +
+			"  if v then redis.call('HINCRBY', KEYS[1], KEYS[i], v) moved = moved + 1 end " +
+			"end " +
+			"return moved", Long.class);
 
-				// Redis에서 해당 키의 값을 가져오기
-				String value = (String) redisTemplate.opsForValue().get(key);
-				if (value != null) {
-					Map<String, Object> entry = new HashMap<>();
-					entry.put("postId", postId); // Elasticsearch의 _id
-					entry.put("type", type);     // type
-					entry.put("value", Long.parseLong(value)); // 값
-					entry.put("keyType", "like"); // 좋아요인지 신고인지 구분
-					result.add(entry);
+	/**
+	 * 예전 형식의 문자열 카운터(likes:postId:type, reports:postId:type)를 대기 해시로 옮깁니다.
+	 * KEYS 대신 커서 기반 SCAN 을 사용하므로 Redis 를 막지 않습니다.
+	 */
+	public long migrateLegacyLikeReportKeys(int scanCount) {
+		long moved = 0;
+		for (String pattern : List.of("likes:*:*", "reports:*:*")) {
+			List<String> batch = new ArrayList<>();
+			try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(pattern).count(scanCount).build())) {
+				while (cursor.hasNext()) {
+					String key = cursor.next();
+					if (key.split(":").length != 3) continue;
+					batch.add(key);
+					if (batch.size() >= scanCount) {
+						moved += moveLegacyKeys(batch);
+						batch.clear();
+					}
 				}
 			}
+			moved += moveLegacyKeys(batch);
 		}
-		// Redis에서 "reports:*" 패턴에 맞는 모든 키를 찾기
-		Set<String> reportKeys = redisTemplate.keys("reports:*");
-		if (reportKeys != null) {
-			for (String key : reportKeys) {
-				// 키에서 postId와 type 추출
-				String[] parts = key.split(":");
-				String postId = parts[1]; // Elasticsearch의 _id
-				String type = parts[2];   // type (cocktail 또는 food)
-
-				// Redis에서 해당 키의 값을 가져오기
-				String value = (String) redisTemplate.opsForValue().get(key);
-				if (value != null) {
-					Map<String, Object> entry = new HashMap<>();
-					entry.put("postId", postId); // Elasticsearch의 _id
-					entry.put("type", type);     // type
-					entry.put("value", Long.parseLong(value)); // 값
-					entry.put("keyType", "report"); // 좋아요인지 신고인지 구분
-					result.add(entry);
-				}
-			}
+		if (moved > 0) {
+			log.info("[migrateLegacyLikeReportKeys] {}개의 기존 카운터를 대기 해시로 이동", moved);
 		}
+		return moved;
+	}
 
-		return result;
+	private long moveLegacyKeys(List<String> keys) {
+		if (keys.isEmpty()) return 0;
+		List<String> scriptKeys = new ArrayList<>(keys.size() + 1);
+		scriptKeys.add(PENDING_DELTAS);
+		scriptKeys.addAll(keys);
+		Long moved = redisTemplate.execute(MIGRATE_SCRIPT, scriptKeys);
+		return moved != null ? moved : 0;
 	}
 
+	/**
+	 * 대기 중인 증감분을 전송용 해시로 원자적으로 교체합니다.
+	 * @return 전송할 해시 키 (보낼 것이 없으면 null)
+	 */
+	public String rotateLikeReportDeltas() {
+		String target = SHIPPING_PREFIX + UUID.randomUUID();
+		return redisTemplate.execute(ROTATE_SCRIPT, List.of(PENDING_DELTAS, SHIPPING_QUEUE, target));
+	}
+
+	// 전송 해시 키에서 멱등키(deltaId) 추출
+	public String deltaId(String shippingKey) {
+		return shippingKey.substring(SHIPPING_PREFIX.length());
+	}
+
+	/**
+	 * 전송 해시를 청크 단위로 읽어 shipper 에 넘기고, 성공한 청크의 필드만 삭제합니다.
+	 * shipper 가 false 를 반환하면 중단하고 남은 필드는 다음 주기에 재시도합니다.
+	 *
+	 * @return 모두 전송되어 전송 큐에서 제거되었으면 true
+	 */
+	public boolean drainLikeReportDeltas(String shippingKey, int chunkSize, Predicate<List<LikeReportDeltaDto>> shipper) {
+		List<LikeReportDeltaDto> chunk = new ArrayList<>(chunkSize);
+		List<Object> fields = new ArrayList<>(chunkSize);
+		try (Cursor<Map.Entry<Object, Object>> cursor = redisTemplate.opsForHash()
+				.scan(shippingKey, ScanOptions.scanOptions().count(chunkSize).build())) {
+			while (cursor.hasNext()) {
+				Map.Entry<Object, Object> entry = cursor.next();
+				fields.add(entry.getKey());
+				LikeReportDeltaDto delta = toDelta((String) entry.getKey(), (String) entry.getValue());
+				if (delta != null) chunk.add(delta);
+				if (fields.size() >= chunkSize) {
+					if (!shipChunk(shippingKey, chunk, fields, shipper)) return false;
+					chunk = new ArrayList<>(chunkSize);
+					fields = new ArrayList<>(chunkSize);
+				}
+			}
+		}
+		if (!shipChunk(shippingKey, chunk, fields, shipper)) return false;
 
+		// 빈 해시는 Redis 가 자동 삭제하므로 남은 필드가 없으면 큐에서 제거
+		Long remaining = redisTemplate.opsForHash().size(shippingKey);
+		if (remaining == null || remaining == 0) {
+			redisTemplate.opsForList().remove(SHIPPING_QUEUE, 1, shippingKey);
+			return true;
+		}
+		return false;
+	}
 
+	private boolean shipChunk(String shippingKey, List<LikeReportDeltaDto> chunk, List<Object> fields,
+							  Predicate<List<LikeReportDeltaDto>> shipper) {
+		if (fields.isEmpty()) return true;
+		if (!chunk.isEmpty() && !shipper.test(chunk)) return false;
+		redisTemplate.opsForHash().delete(shippingKey, fields.toArray());
+		return true;
+	}
 
+	// "likes:123:food" = "3" -> {postId, type, value, keyType}
+	private LikeReportDeltaDto toDelta(String field, String value) {
+		String[] parts = field.split(":");
+		long delta = Long.parseLong(value);
+		if (parts.length != 3 || delta == 0) {
+			return null; // 형식이 잘못되었거나 +1/-1 이 상쇄된 항목은 보낼 필요 없음
+		}
+		// 좋아요인지 신고인지 구분
+		return new LikeReportDeltaDto(parts[1], parts[2], delta, "likes".equals(parts[0]) ? "like" : "report");
+	}
 }
 
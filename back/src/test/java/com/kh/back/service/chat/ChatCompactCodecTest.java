@@ -0,0 +1,91 @@
+package com.kh.back.service.chat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kh.back.constant.MsgType;
+import com.kh.back.dto.chat.request.ChatDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChatCompactCodec 압축 형식(chat.compact.v1) 읽기/쓰기 테스트
+ */
+class ChatCompactCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ChatCompactCodec codec = new ChatCompactCodec(objectMapper);
+
+    @Test
+    void decodesCompactArray() throws IOException {
+        ChatDto msg = codec.decode("[\"TALK\",\"room-1\",42,\"hello\"]");
+
+        assertEquals(MsgType.TALK, msg.getType());
+        assertEquals("room-1", msg.getRoomId());
+        assertEquals(42L, msg.getMemberId());
+        assertEquals("hello", msg.getMsg());
+        assertNull(msg.getId());
+    }
+
+    @Test
+    void decodesLegacyObject() throws IOException {
+        ChatDto msg = codec.decode("{\"type\":\"ENTER\",\"roomId\":\"room-1\",\"memberId\":7,\"msg\":\"hi\"}");
+
+        assertEquals(MsgType.ENTER, msg.getType());
+        assertEquals("room-1", msg.getRoomId());
+        assertEquals(7L, msg.getMemberId());
+        assertEquals("hi", msg.getMsg());
+    }
+
+    @Test
+    void missingOrMistypedArrayElementsBecomeNull() throws IOException {
+        ChatDto shortArray = codec.decode("[\"TALK\"]");
+        assertEquals(MsgType.TALK, shortArray.getType());
+        assertNull(shortArray.getRoomId());
+        assertNull(shortArray.getMemberId());
+        assertNull(shortArray.getMsg());
+
+        ChatDto mistyped = codec.decode("[null,123,\"42\",{\"text\":\"x\"}]");
+        assertNull(mistyped.getType());
+        assertNull(mistyped.getRoomId(), "숫자 roomId 는 받지 않음");
+        assertNull(mistyped.getMemberId(), "문자열 memberId 는 받지 않음");
+        assertNull(mistyped.getMsg());
+    }
+
+    @Test
+    void unknownTypeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("[\"SHOUT\",\"room-1\",1,\"x\"]"));
+    }
+
+    @Test
+    void malformedJsonIsRejected() {
+        assertThrows(JsonProcessingException.class, () -> codec.decode("[\"TALK\",\"room-1\""));
+    }
+
+    @Test
+    void compactEncodingIsPositionalAndSharesJson() throws IOException {
+        LocalDateTime regDate = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+        ChatDto msg = new ChatDto(MsgType.TALK, 10L, "room-1", 42L, "hello", null, regDate);
+
+        ChatPayload payload = codec.payload(msg);
+
+        long epochMillis = regDate.atZone(ZoneId.of("Asia/Seoul")).toInstant().toEpochMilli();
+        assertEquals("[\"TALK\",10,42,\"hello\",null," + epochMillis + "]", payload.compact());
+        assertEquals(objectMapper.writeValueAsString(msg), payload.json().getPayload());
+        // 다른 노드에서 받은 JSON 으로 만든 압축 형식도 같음
+        assertEquals(payload.compact(), codec.payload(payload.json().getPayload()).compact());
+    }
+
+    @Test
+    void rawPayloadIsNotReencoded() {
+        String json = "{\"type\":\"THROTTLED\",\"retryAfterMs\":200}";
+        ChatPayload payload = codec.raw(json);
+
+        assertEquals(json, payload.compact());
+        assertEquals(json, payload.json().getPayload());
+    }
+}
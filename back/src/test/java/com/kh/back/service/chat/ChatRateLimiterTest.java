@@ -0,0 +1,101 @@
+package com.kh.back.service.chat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChatRateLimiter GCRA 계산 테스트 (메모리 버킷)
+ * - 토큰 간격을 길게(100ms 이상) 잡아 테스트 실행 시간이 결과에 영향을 주지 않도록 합니다.
+ */
+class ChatRateLimiterTest {
+
+    private ChatRateLimiter limiter;
+
+    @AfterEach
+    void shutdown() {
+        if (limiter != null) {
+            limiter.shutdown();
+        }
+    }
+
+    @Test
+    void sessionAllowsExactlyBurstThenRejects() {
+        limiter = limiter(1, 3, 1000, 1000, 0);
+
+        assertTrue(limiter.tryAcquireSession("s1"));
+        assertTrue(limiter.tryAcquireSession("s1"));
+        assertTrue(limiter.tryAcquireSession("s1"));
+        assertFalse(limiter.tryAcquireSession("s1"), "burst 를 넘은 요청은 거절");
+
+        long retryAfter = limiter.retryAfterMs("s1");
+        assertTrue(retryAfter > 0 && retryAfter <= 1000, "다음 토큰까지 최대 한 간격: " + retryAfter);
+        assertTrue(limiter.tryAcquireSession("s2"), "세션 버킷은 세션별로 따로");
+    }
+
+    @Test
+    void burstOfOneAllowsFirstMessageWithoutDelay() {
+        limiter = limiter(1000, 1000, 10, 1, 0);
+
+        assertEquals(0, limiter.acquire("s1", "room"));
+        assertEquals(ChatRateLimiter.ROOM_LIMITED, limiter.acquire("s1", "room"));
+    }
+
+    @Test
+    void roomDelaysWithinMaxDelayThenRejects() {
+        // 방: 100ms 간격, 버스트 2, 최대 지연 250ms
+        limiter = limiter(1000, 1000, 10, 2, 250);
+
+        assertEquals(0, limiter.acquire("s1", "room"));
+        assertEquals(0, limiter.acquire("s2", "room"));
+        assertDelay(100, limiter.acquire("s3", "room"));
+        assertDelay(200, limiter.acquire("s4", "room"));
+        assertEquals(ChatRateLimiter.ROOM_LIMITED, limiter.acquire("s5", "room"), "최대 지연(250ms)을 넘으면 거절");
+        assertEquals(0, limiter.acquire("s6", "other-room"), "방 버킷은 방별로 따로");
+
+        assertEquals(1L, limiter.stats().get("roomRejected"));
+        assertEquals(2L, limiter.stats().get("delayed"));
+    }
+
+    @Test
+    void sessionLimitIsCheckedBeforeRoomLimit() {
+        limiter = limiter(1, 1, 1000, 1000, 0);
+
+        assertEquals(0, limiter.acquire("s1", "room"));
+        assertEquals(ChatRateLimiter.SESSION_LIMITED, limiter.acquire("s1", "room"));
+        assertEquals(1L, limiter.stats().get("sessionRejected"));
+        assertEquals(1L, limiter.stats().get("allowed"));
+    }
+
+    @Test
+    void tokenRefillsAfterInterval() throws InterruptedException {
+        limiter = limiter(10, 1, 1000, 1000, 0);
+
+        assertTrue(limiter.tryAcquireSession("s1"));
+        assertFalse(limiter.tryAcquireSession("s1"));
+        Thread.sleep(150);
+        assertTrue(limiter.tryAcquireSession("s1"), "한 간격(100ms)이 지나면 다시 허용");
+    }
+
+    @Test
+    void removedSessionStartsWithFullBucket() {
+        limiter = limiter(1, 1, 1000, 1000, 0);
+
+        assertTrue(limiter.tryAcquireSession("s1"));
+        assertFalse(limiter.tryAcquireSession("s1"));
+        limiter.removeSession("s1");
+        assertTrue(limiter.tryAcquireSession("s1"));
+        assertEquals(0, limiter.retryAfterMs("unknown"));
+    }
+
+    private static ChatRateLimiter limiter(double sessionPerSec, int sessionBurst,
+                                           double roomPerSec, int roomBurst, long roomMaxDelayMs) {
+        return new ChatRateLimiter(null, sessionPerSec, sessionBurst, roomPerSec, roomBurst, roomMaxDelayMs, false);
+    }
+
+    // 호출 사이에 흐른 시간만큼 짧아질 수 있음
+    private static void assertDelay(long expectedMs, long actualMs) {
+        assertTrue(actualMs > expectedMs - 20 && actualMs <= expectedMs, "지연 " + expectedMs + "ms 예상, 실제 " + actualMs + "ms");
+    }
+}
@@ -0,0 +1,96 @@
+package com.kh.back.service.chat;
+
+import com.kh.back.constant.MsgType;
+import com.kh.back.dto.chat.request.ChatDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChatRecentMessages 링 버퍼 테스트
+ */
+class ChatRecentMessagesTest {
+
+    private static final String ROOM_ID = "room";
+
+    @Test
+    void snapshotIsNullUntilWarmed() {
+        ChatRecentMessages recent = new ChatRecentMessages(3);
+        recent.append(ROOM_ID, message(1L, "ignored"));
+
+        assertFalse(recent.isWarm(ROOM_ID));
+        assertNull(recent.snapshot(ROOM_ID));
+    }
+
+    @Test
+    void keepsLatestMessagesOldestFirst() {
+        ChatRecentMessages recent = new ChatRecentMessages(3);
+        recent.warm(ROOM_ID, List.of(message(1L, "a"), message(2L, "b")));
+        recent.append(ROOM_ID, message(3L, "c"));
+        recent.append(ROOM_ID, message(4L, "d"));
+        recent.append(ROOM_ID, message(5L, "e"));
+
+        assertEquals(List.of(3L, 4L, 5L), ids(recent.snapshot(ROOM_ID)));
+    }
+
+    @Test
+    void warmKeepsExistingBuffer() {
+        ChatRecentMessages recent = new ChatRecentMessages(3);
+        recent.warm(ROOM_ID, List.of(message(1L, "a")));
+        recent.append(ROOM_ID, message(2L, "b"));
+        recent.warm(ROOM_ID, List.of(message(9L, "stale")));
+
+        assertEquals(List.of(1L, 2L), ids(recent.snapshot(ROOM_ID)));
+    }
+
+    @Test
+    void fullBufferOfUnsavedMessagesIsStillServed() {
+        ChatRecentMessages recent = new ChatRecentMessages(3);
+        recent.warm(ROOM_ID, List.of(message(1L, "a")));
+        recent.append(ROOM_ID, message(null, "not yet persisted"));
+        recent.append(ROOM_ID, message(null, "not yet persisted"));
+        recent.append(ROOM_ID, message(null, "not yet persisted"));
+
+        // 가장 오래된 메시지에 id 가 없어도 버퍼에서 응답 (이전 내역은 beforeSentAt 커서로 조회)
+        List<ChatDto> snapshot = recent.snapshot(ROOM_ID);
+        assertEquals(3, snapshot.size());
+        assertTrue(snapshot.stream().allMatch(message -> message.getId() == null));
+    }
+
+    @Test
+    void partialBufferWithoutIdsIsStillServed() {
+        ChatRecentMessages recent = new ChatRecentMessages(3);
+        recent.warm(ROOM_ID, List.of());
+        recent.append(ROOM_ID, message(null, "first"));
+
+        List<ChatDto> snapshot = recent.snapshot(ROOM_ID);
+        assertEquals(1, snapshot.size());
+        assertEquals("first", snapshot.get(0).getMsg());
+    }
+
+    @Test
+    void evictDropsBuffer() {
+        ChatRecentMessages recent = new ChatRecentMessages(3);
+        recent.warm(ROOM_ID, List.of(message(1L, "a")));
+        recent.evict(ROOM_ID);
+
+        assertFalse(recent.isWarm(ROOM_ID));
+        assertNull(recent.snapshot(ROOM_ID));
+    }
+
+    private static ChatDto message(Long id, String text) {
+        ChatDto message = new ChatDto();
+        message.setType(MsgType.TALK);
+        message.setId(id);
+        message.setRoomId(ROOM_ID);
+        message.setMsg(text);
+        return message;
+    }
+
+    private static List<Long> ids(List<ChatDto> messages) {
+        return messages.stream().map(ChatDto::getId).collect(Collectors.toList());
+    }
+}
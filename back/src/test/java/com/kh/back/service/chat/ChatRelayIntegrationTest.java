@@ -0,0 +1,298 @@
+package com.kh.back.service.chat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kh.back.config.RedisConfig;
+import com.kh.back.constant.ChatRoomType;
+import com.kh.back.constant.MsgType;
+import com.kh.back.dto.chat.request.ChatDto;
+import com.kh.back.dto.chat.res.ChatRoomResDto;
+import com.kh.back.entity.chat.ChatRoom;
+import com.kh.back.repository.chat.ChatRepository;
+import com.kh.back.repository.chat.ChatRoomRepository;
+import com.kh.back.service.ChatService;
+import com.kh.back.service.member.MemberService;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.web.socket.WebSocketSession;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 채팅 다중 노드 중계 통합 테스트
+ * - 내장 Redis 하나에 두 개의 스프링 컨텍스트(노드 a, b)를 붙여 ChatRelay pub/sub 과 ChatService 의 중계 처리를 확인합니다.
+ * - DB/회원/송신 큐 등 Redis 밖의 협력 객체는 목(mock)으로 대신합니다.
+ */
+class ChatRelayIntegrationTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    private static RedisServer redisServer;
+    private static int port;
+
+    private AnnotationConfigApplicationContext nodeA;
+    private AnnotationConfigApplicationContext nodeB;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = node("node-a");
+        nodeB = node("node-b");
+        RedisTemplate<?, ?> redisTemplate = nodeA.getBean("redisTemplate", RedisTemplate.class);
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.flushAll();
+            return null;
+        });
+        awaitTrue(() -> listening(nodeA) && listening(nodeB));
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void messagePublishedOnOneNodeReachesOnlyOtherSubscribedNodes() {
+        String roomId = "room-message";
+        register(nodeA, roomId);
+        register(nodeB, roomId);
+        nodeA.getBean(ChatRecentMessages.class).warm(roomId, List.of());
+        nodeB.getBean(ChatRecentMessages.class).warm(roomId, List.of());
+        nodeA.getBean(ChatRelay.class).sessionJoined(roomId);
+        nodeB.getBean(ChatRelay.class).sessionJoined(roomId);
+
+        String json = "{\"type\":\"TALK\",\"id\":1,\"roomId\":\"" + roomId + "\",\"memberId\":7,\"msg\":\"hello\"}";
+        ChatRecentMessages recentB = nodeB.getBean(ChatRecentMessages.class);
+        // 방 채널 구독은 비동기로 붙으므로 받을 때까지 다시 발행
+        publishUntil(() -> nodeA.getBean(ChatRelay.class).publish(roomId, json),
+                () -> !recentB.snapshot(roomId).isEmpty());
+
+        ChatDto received = recentB.snapshot(roomId).get(0);
+        assertEquals(MsgType.TALK, received.getType());
+        assertEquals("hello", received.getMsg());
+        assertEquals(7L, received.getMemberId());
+        // 보낸 노드는 자기 메시지를 중계로 다시 받지 않음 (자기 세션에는 호출 측이 직접 전달)
+        assertTrue(nodeA.getBean(ChatRecentMessages.class).snapshot(roomId).isEmpty());
+    }
+
+    @Test
+    void nodeWithoutSessionsDoesNotReceiveRoomMessages() {
+        String roomId = "room-unsubscribed";
+        register(nodeA, roomId);
+        register(nodeB, roomId);
+        nodeB.getBean(ChatRecentMessages.class).warm(roomId, List.of());
+        nodeB.getBean(ChatRelay.class).sessionJoined(roomId);
+        nodeB.getBean(ChatRelay.class).sessionLeft(roomId);
+
+        ChatRelay relayA = nodeA.getBean(ChatRelay.class);
+        for (int i = 0; i < 5; i++) {
+            relayA.publish(roomId, "{\"type\":\"TALK\",\"msg\":\"ignored\"}");
+        }
+        sleep(300);
+        assertTrue(nodeB.getBean(ChatRecentMessages.class).snapshot(roomId).isEmpty());
+    }
+
+    @Test
+    void clusterSessionCountSumsEveryNode() {
+        String roomId = "room-count";
+        ChatRelay relayA = nodeA.getBean(ChatRelay.class);
+        ChatRelay relayB = nodeB.getBean(ChatRelay.class);
+        relayA.sessionJoined(roomId);
+        relayB.sessionJoined(roomId);
+        relayB.sessionJoined(roomId);
+
+        assertEquals(3, relayA.clusterSessionCount(roomId));
+        assertEquals(3, relayB.clusterSessionCount(roomId));
+
+        relayB.sessionLeft(roomId);
+        assertEquals(2, relayA.clusterSessionCount(roomId));
+
+        // 재시작한 노드는 이전 실행이 남긴 자기 몫만 지움
+        relayB.resetNode(List.of(roomId));
+        assertEquals(1, relayA.clusterSessionCount(roomId));
+    }
+
+    @Test
+    void removeRoomOnNodeThatNeverLoadedTheRoomRemovesItEverywhere() {
+        String roomId = "room-created-on-b";
+        register(nodeB, roomId);
+        ChatRoom entity = new ChatRoom();
+        entity.setId(roomId);
+        entity.setRoomName("created on b");
+        entity.setRegDate(LocalDateTime.now());
+        entity.setRoomType(ChatRoomType.GROUP);
+        entity.setPersonCnt(10);
+        ChatRoomRepository repositoryA = nodeA.getBean(ChatRoomRepository.class);
+        when(repositoryA.findById(roomId)).thenReturn(Optional.of(entity));
+        assertNull(nodeA.getBean(ChatRoomRegistry.class).get(roomId));
+
+        assertTrue(nodeA.getBean(ChatService.class).removeRoom(roomId));
+
+        verify(repositoryA).delete(entity);
+        assertNull(nodeA.getBean(ChatRoomRegistry.class).get(roomId));
+        ChatRoomRegistry registryB = nodeB.getBean(ChatRoomRegistry.class);
+        awaitTrue(() -> registryB.get(roomId) == null);
+    }
+
+    @Test
+    void removeRoomKeepsRoomWithLocalSessions() {
+        String roomId = "room-busy";
+        register(nodeA, roomId);
+        ChatRoom entity = new ChatRoom();
+        entity.setId(roomId);
+        entity.setRoomName("busy");
+        entity.setRoomType(ChatRoomType.GROUP);
+        entity.setPersonCnt(10);
+        when(nodeA.getBean(ChatRoomRepository.class).findById(roomId)).thenReturn(Optional.of(entity));
+        assertTrue(nodeA.getBean(ChatRoomRegistry.class).join(roomId, Mockito.mock(WebSocketSession.class)));
+
+        assertFalse(nodeA.getBean(ChatService.class).removeRoom(roomId));
+        assertNotNull(nodeA.getBean(ChatRoomRegistry.class).get(roomId));
+    }
+
+    private AnnotationConfigApplicationContext node(String nodeId) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("chat-node", Map.of(
+                "chat.cluster.enabled", "true",
+                "chat.node-id", nodeId,
+                "test.redis.port", String.valueOf(port))));
+        context.register(RedisConfig.class, NodeConfig.class, ChatRelay.class, ChatRoomRegistry.class,
+                ChatRecentMessages.class, ChatCompactCodec.class, ChatService.class);
+        context.refresh();
+        return context;
+    }
+
+    private static void register(AnnotationConfigApplicationContext node, String roomId) {
+        node.getBean(ChatRoomRegistry.class).putIfAbsent(ChatRoomResDto.builder()
+                .roomId(roomId)
+                .name(roomId)
+                .regDate(LocalDateTime.now())
+                .personCnt(10)
+                .build());
+    }
+
+    private static boolean listening(AnnotationConfigApplicationContext node) {
+        return node.getBean(RedisMessageListenerContainer.class).isListening();
+    }
+
+    private static void publishUntil(Runnable publish, BooleanSupplier received) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            publish.run();
+            if (waitFor(received, 100)) return;
+        }
+        fail("중계 메시지를 " + TIMEOUT_MS + "ms 안에 받지 못했습니다.");
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        assertTrue(waitFor(condition, TIMEOUT_MS), "조건이 " + TIMEOUT_MS + "ms 안에 충족되지 않았습니다.");
+    }
+
+    private static boolean waitFor(BooleanSupplier condition, long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) return true;
+            sleep(10);
+        }
+        return condition.getAsBoolean();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 노드 하나의 Redis 연결과 Redis 밖 협력 객체(목)
+     */
+    @Configuration
+    static class NodeConfig {
+
+        @Bean
+        LettuceConnectionFactory redisConnectionFactory(@Value("${test.redis.port}") int port) {
+            return new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+
+        @Bean
+        MemberService memberService() {
+            return Mockito.mock(MemberService.class);
+        }
+
+        @Bean
+        ChatRoomRepository chatRoomRepository() {
+            return Mockito.mock(ChatRoomRepository.class);
+        }
+
+        @Bean
+        ChatRepository chatRepository() {
+            return Mockito.mock(ChatRepository.class);
+        }
+
+        @Bean
+        ChatFanout chatFanout() {
+            return Mockito.mock(ChatFanout.class);
+        }
+
+        @Bean
+        ChatPersister chatPersister() {
+            return Mockito.mock(ChatPersister.class);
+        }
+
+        @Bean
+        ChatBot chatBot() {
+            return Mockito.mock(ChatBot.class);
+        }
+
+        @Bean
+        ChatRateLimiter chatRateLimiter() {
+            return Mockito.mock(ChatRateLimiter.class);
+        }
+
+        @Bean
+        ChatPresence chatPresence() {
+            return Mockito.mock(ChatPresence.class);
+        }
+    }
+}
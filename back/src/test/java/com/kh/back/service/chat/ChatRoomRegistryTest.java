@@ -0,0 +1,175 @@
+package com.kh.back.service.chat;
+
+import com.kh.back.dto.chat.res.ChatRoomResDto;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChatRoomRegistry 참조 카운트(join / removeIfEmpty CAS) 테스트
+ */
+class ChatRoomRegistryTest {
+
+    private static final String ROOM_ID = "room";
+
+    @Test
+    void joinAndLeaveTrackActiveSessions() {
+        ChatRoomRegistry registry = new ChatRoomRegistry();
+        registry.putIfAbsent(room(ROOM_ID));
+        WebSocketSession first = Mockito.mock(WebSocketSession.class);
+        WebSocketSession second = Mockito.mock(WebSocketSession.class);
+
+        assertTrue(registry.join(ROOM_ID, first));
+        assertTrue(registry.join(ROOM_ID, second));
+        assertFalse(registry.join(ROOM_ID, first), "같은 세션은 두 번 입장하지 않음");
+        assertEquals(2, registry.activeSessions(ROOM_ID));
+
+        assertTrue(registry.leave(ROOM_ID, first));
+        assertFalse(registry.leave(ROOM_ID, first));
+        assertEquals(1, registry.activeSessions(ROOM_ID));
+        assertFalse(registry.removeIfEmpty(ROOM_ID), "세션이 남아 있으면 제거하지 않음");
+
+        assertTrue(registry.leave(ROOM_ID, second));
+        assertTrue(registry.removeIfEmpty(ROOM_ID));
+        assertNull(registry.get(ROOM_ID));
+        assertFalse(registry.join(ROOM_ID, first), "제거된 방에는 입장할 수 없음");
+    }
+
+    @Test
+    void putIfAbsentKeepsExistingRoom() {
+        ChatRoomRegistry registry = new ChatRoomRegistry();
+        ChatRoomResDto original = registry.putIfAbsent(room(ROOM_ID));
+        ChatRoomResDto duplicate = registry.putIfAbsent(room(ROOM_ID));
+        assertSame(original, duplicate);
+        assertEquals(1, registry.rooms().size());
+    }
+
+    @Test
+    void removeClosesRoomEvenWithSessions() {
+        ChatRoomRegistry registry = new ChatRoomRegistry();
+        registry.putIfAbsent(room(ROOM_ID));
+        assertTrue(registry.join(ROOM_ID, Mockito.mock(WebSocketSession.class)));
+
+        registry.remove(ROOM_ID);
+
+        assertNull(registry.get(ROOM_ID));
+        assertEquals(0, registry.activeSessions(ROOM_ID));
+    }
+
+    /**
+     * 입장 스레드들과 빈 방 삭제 스레드를 동시에 출발시켜,
+     * 삭제가 성공했다면 어떤 입장도 성공하지 않았고(삭제된 방에 세션이 남지 않음),
+     * 입장이 하나라도 성공했다면 삭제가 실패했는지 확인합니다.
+     */
+    @RepeatedTest(200)
+    void concurrentJoinAndRemoveNeverLeavesSessionInRemovedRoom() throws Exception {
+        ChatRoomRegistry registry = new ChatRoomRegistry();
+        ChatRoomResDto room = registry.putIfAbsent(room(ROOM_ID));
+        int joiners = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(joiners + 1);
+        CountDownLatch ready = new CountDownLatch(joiners + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger joined = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < joiners; i++) {
+                futures.add(executor.submit(() -> {
+                    WebSocketSession session = Mockito.mock(WebSocketSession.class);
+                    ready.countDown();
+                    await(start);
+                    if (registry.join(ROOM_ID, session)) {
+                        joined.incrementAndGet();
+                    }
+                }));
+            }
+            Future<Boolean> removed = executor.submit(() -> {
+                ready.countDown();
+                await(start);
+                return registry.removeIfEmpty(ROOM_ID);
+            });
+
+            assertTrue(ready.await(5, TimeUnit.SECONDS));
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+
+            if (removed.get(5, TimeUnit.SECONDS)) {
+                assertEquals(0, joined.get(), "삭제된 방에 입장한 세션이 있음");
+                assertNull(registry.get(ROOM_ID));
+                assertTrue(room.getSessions().isEmpty());
+            } else {
+                assertTrue(joined.get() > 0, "삭제도 입장도 되지 않음");
+                assertSame(room, registry.get(ROOM_ID));
+                assertEquals(joined.get(), registry.activeSessions(ROOM_ID));
+                assertEquals(joined.get(), room.getSessions().size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 여러 스레드가 입장/퇴장을 반복한 뒤 참조 카운트가 실제 세션 수와 일치하고,
+     * 모두 나간 뒤에는 방을 제거할 수 있는지 확인합니다.
+     */
+    @Test
+    void refCountMatchesSessionsAfterConcurrentJoinLeave() throws Exception {
+        ChatRoomRegistry registry = new ChatRoomRegistry();
+        ChatRoomResDto room = registry.putIfAbsent(room(ROOM_ID));
+        int threads = 8;
+        int rounds = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    WebSocketSession session = Mockito.mock(WebSocketSession.class);
+                    await(start);
+                    for (int i = 0; i < rounds; i++) {
+                        assertTrue(registry.join(ROOM_ID, session));
+                        assertTrue(room.getSessions().contains(session));
+                        assertTrue(registry.leave(ROOM_ID, session));
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS); // 작업 스레드의 검증 실패도 여기서 드러남
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, registry.activeSessions(ROOM_ID));
+        assertTrue(room.getSessions().isEmpty());
+        assertTrue(registry.removeIfEmpty(ROOM_ID));
+    }
+
+    private static ChatRoomResDto room(String roomId) {
+        return ChatRoomResDto.builder()
+                .roomId(roomId)
+                .name("test")
+                .regDate(LocalDateTime.now())
+                .personCnt(10)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
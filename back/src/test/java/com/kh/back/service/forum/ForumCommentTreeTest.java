@@ -0,0 +1,145 @@
+package com.kh.back.service.forum;
+
+import com.kh.back.dto.forum.response.ForumCommentThreadDto;
+import com.kh.back.dto.forum.response.ForumCommentThreadPageDto;
+import com.kh.back.dto.forum.response.ForumPostCommentResponseDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ForumCommentTree 스레드 묶기 / 커서 페이지 테스트
+ */
+class ForumCommentTreeTest {
+
+    @Test
+    void groupsRepliesUnderRootInDepthFirstOrder() {
+        ForumCommentTree tree = ForumCommentTree.build(List.of(
+                comment(1, null),
+                comment(2, 1L),
+                comment(3, 2L),
+                comment(4, null),
+                comment(5, 1L)));
+
+        ForumCommentThreadPageDto page = tree.page(null, 10, 10);
+
+        assertEquals(List.of(1, 4), rootIds(page));
+        assertEquals(2, page.getTotalThreads());
+        assertEquals(5, page.getTotalComments());
+        ForumCommentThreadDto first = page.getThreads().get(0);
+        assertEquals(List.of(2, 3, 5), ids(first.getReplies()), "답글의 답글은 부모 바로 뒤에");
+        assertEquals(3, first.getReplyCount());
+        assertNull(first.getNextReplyCursor());
+        assertTrue(page.getThreads().get(1).getReplies().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void orphanAndSelfParentedCommentsBecomeRoots() {
+        ForumCommentTree tree = ForumCommentTree.build(List.of(
+                comment(1, null),
+                comment(2, 99L), // 부모가 하드 삭제됨
+                comment(3, 3L),  // 자기 자신을 부모로 가리킴
+                comment(4, 2L)));
+
+        ForumCommentThreadPageDto page = tree.page(null, 10, 10);
+
+        assertEquals(List.of(1, 2, 3), rootIds(page));
+        assertEquals(List.of(4), ids(page.getThreads().get(1).getReplies()));
+        assertEquals(4, page.getTotalComments());
+    }
+
+    @Test
+    void cycleMembersAreNotDropped() {
+        ForumCommentTree tree = ForumCommentTree.build(List.of(
+                comment(1, null),
+                comment(10, 11L),
+                comment(11, 10L),
+                comment(12, 11L)));
+
+        ForumCommentThreadPageDto page = tree.page(null, 10, 10);
+
+        assertEquals(List.of(1, 10), rootIds(page));
+        assertEquals(List.of(11, 12), ids(page.getThreads().get(1).getReplies()));
+        int shown = page.getThreads().stream().mapToInt(thread -> 1 + thread.getReplies().size()).sum();
+        assertEquals(4, shown, "모든 댓글이 정확히 한 번씩 나타남");
+    }
+
+    @Test
+    void pagesThreadsByRootCursor() {
+        ForumCommentTree tree = ForumCommentTree.build(List.of(
+                comment(1, null),
+                comment(2, null),
+                comment(3, 1L),
+                comment(4, null),
+                comment(5, null)));
+
+        ForumCommentThreadPageDto first = tree.page(null, 2, 0);
+        assertEquals(List.of(1, 2), rootIds(first));
+        assertEquals(2, first.getNextCursor());
+
+        ForumCommentThreadPageDto second = tree.page(first.getNextCursor(), 2, 0);
+        assertEquals(List.of(4, 5), rootIds(second));
+        assertNull(second.getNextCursor(), "마지막 페이지");
+
+        assertTrue(tree.page(999, 2, 0).getThreads().isEmpty(), "모르는 커서는 빈 페이지");
+        assertTrue(tree.page(null, 0, 0).getThreads().isEmpty());
+        assertNull(tree.page(null, 0, 0).getNextCursor());
+    }
+
+    @Test
+    void inlineRepliesAndReplyCursor() {
+        ForumCommentTree tree = ForumCommentTree.build(List.of(
+                comment(1, null),
+                comment(2, 1L),
+                comment(3, 1L),
+                comment(4, 1L),
+                comment(5, 1L),
+                comment(6, 1L)));
+
+        ForumCommentThreadDto inline = tree.page(null, 10, 2).getThreads().get(0);
+        assertEquals(List.of(2, 3), ids(inline.getReplies()));
+        assertEquals(5, inline.getReplyCount());
+        assertEquals(3, inline.getNextReplyCursor());
+
+        ForumCommentThreadDto next = tree.replies(1, inline.getNextReplyCursor(), 2);
+        assertEquals(List.of(4, 5), ids(next.getReplies()));
+        assertEquals(5, next.getNextReplyCursor());
+
+        ForumCommentThreadDto last = tree.replies(1, next.getNextReplyCursor(), 2);
+        assertEquals(List.of(6), ids(last.getReplies()));
+        assertNull(last.getNextReplyCursor());
+
+        assertEquals(List.of(2, 3, 4, 5, 6), ids(tree.replies(1, null, 10).getReplies()));
+        assertNull(tree.replies(42, null, 10), "없는 스레드");
+    }
+
+    @Test
+    void emptyListBuildsEmptyTree() {
+        ForumCommentThreadPageDto page = ForumCommentTree.build(List.of()).page(null, 10, 3);
+
+        assertTrue(page.getThreads().isEmpty());
+        assertEquals(0, page.getTotalThreads());
+        assertEquals(0, page.getTotalComments());
+        assertNull(page.getNextCursor());
+    }
+
+    private static ForumPostCommentResponseDto comment(int id, Long parentCommentId) {
+        return ForumPostCommentResponseDto.builder()
+                .id(id)
+                .content("comment " + id)
+                .parentCommentId(parentCommentId)
+                .build();
+    }
+
+    private static List<Integer> rootIds(ForumCommentThreadPageDto page) {
+        return page.getThreads().stream().map(thread -> thread.getComment().getId()).collect(Collectors.toList());
+    }
+
+    private static List<Integer> ids(List<ForumPostCommentResponseDto> comments) {
+        return comments.stream().map(ForumPostCommentResponseDto::getId).collect(Collectors.toList());
+    }
+}
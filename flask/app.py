@@ -1,9 +1,13 @@
+import base64
 import math
+import threading
+import time
 import traceback
+import uuid
 from urllib.parse import unquote
 from redis import Redis
 from rq import Queue
-from flask import Flask, request, jsonify
+from flask import Flask, Response, request, jsonify
 from elasticsearch import Elasticsearch
 import json
 import os
@@ -82,6 +86,17 @@ def get_index_and_mapping(file_type: str):
     return index_mapping.get(file_type, (None, None))
 
 
+def index_forum_post(index_name, data):
+    """
+    게시글 문서를 저장하는 함수
+    KR: 문서 ID 를 직접 만들어 postId 필드에도 같은 값을 넣습니다.
+        목록 정렬의 동순위 기준(FORUM_LIST_SORT)으로 _id 대신 doc_values 가 있는 postId 를 씁니다.
+    """
+    post_id = uuid.uuid4().hex
+    data["postId"] = post_id
+    return es.index(index=index_name, id=post_id, body=data)
+
+
 # ================================================================
 # 기존 도메인(칵테일, 음식 등) 관련 엔드포인트 (변경 없이 그대로 유지)
 # ================================================================
@@ -105,10 +120,39 @@ def upload_one():
             create_index_if_not_exists(index_name, mapping_file)
 
         # 데이터 삽입
-        es.index(index=index_name, body=data)
+        if file_type == "forum_post":
+            index_forum_post(index_name, data)
+        else:
+            es.index(index=index_name, body=data)
         return jsonify({"message": "Data uploaded successfully"}), 200
     except Exception as e:
         return jsonify({"error": str(e)}), 500
+
+
+# 좋아요/신고/조회수 증감 스크립트: 같은 delta_id 가 이미 반영된 필드면 아무것도 하지 않음
+# 필드마다 최근 delta_id 를 DELTA_MARK_LIMIT 개까지 기억합니다. 마지막 하나만 기억하면 여러 노드가 각자 묶음을 보낼 때
+# 한 노드의 시도와 재시도 사이에 다른 노드의 묶음이 반영되어 재시도가 두 번 반영됨
+# (그 사이 다른 묶음이 DELTA_MARK_LIMIT 개 넘게 반영되면 중복을 막지 못함)
+DELTA_MARK_LIMIT = 32
+LIKE_REPORT_DELTA_SCRIPT = """
+if (ctx._source.delta_marks == null) { ctx._source.delta_marks = [:]; }
+def marks = ctx._source.delta_marks[params.field];
+if (marks instanceof String) { marks = [marks]; }
+if (marks == null) { marks = []; }
+if (params.delta_id != null && marks.contains(params.delta_id)) {
+  ctx.op = 'noop';
+} else {
+  def current = ctx._source[params.field];
+  ctx._source[params.field] = (current == null ? 0 : current) + params.value;
+  if (params.delta_id != null) {
+    marks.add(params.delta_id);
+    if (marks.size() > %d) { marks = new ArrayList(marks.subList(marks.size() - %d, marks.size())); }
+    ctx._source.delta_marks[params.field] = marks;
+  }
+}
+""" % (DELTA_MARK_LIMIT, DELTA_MARK_LIMIT)
+
+
 @app.route("/update/likes-reports", methods=["POST"])
 def update_likes_reports():
     """
@@ -124,13 +168,17 @@ def update_likes_reports():
         if not like_report_data:
             return jsonify({"error": "No like or report data provided"}), 400
 
+        # 같은 청크가 재전송되어도 한 번만 반영되도록 문서에 필드별 마지막 delta_id 를 기록
+        delta_id = data.get("delta_id")
+
+        actions = []
         for entry in like_report_data:
             post_id = entry.get("postId")  # Elasticsearch의 _id
             content_type = entry.get("type")  # "cocktail" 또는 "food"
-            value = entry.get("value")  # Redis에서 받은 증가값
+            value = entry.get("value")  # Redis에서 받은 증감값
             key_type = entry.get("keyType")  # "like" 또는 "report"
 
-            if not post_id or not content_type or value is None or not key_type:
+            if not post_id or not content_type or value is None or key_type not in ("like", "report"):
                 app.logger.warning(f"Skipping entry due to missing fields: {entry}")
                 continue  # 필수 정보가 없으면 넘어감
 
@@ -140,31 +188,27 @@ def update_likes_reports():
                 app.logger.error(f"Invalid content type: {content_type}")
                 continue  # 유효한 인덱스가 없으면 건너뜀
 
-            try:
-                app.logger.info(f"Fetching document {post_id} from index {index_name}")
-                doc = es.get(index=index_name, id=post_id, ignore=404)
-
-                # 'found' 키를 안전하게 확인하고, 문서가 존재하는지 확인
-                if doc.get("found", False):
-                    current_like = doc["_source"].get("like", 0)
-                    current_report = doc["_source"].get("report", 0)
-
-                    # 기존 값에 Redis에서 받은 값 추가
-                    update_data = {}
-                    if key_type == "like":
-                        update_data["like"] = current_like + value
-                    elif key_type == "report":
-                        update_data["report"] = current_report + value
-
-                    if update_data:
-                        app.logger.info(f"Updating document {post_id} in index {index_name} with {update_data}")
-                        es.update(index=index_name, id=post_id, body={"doc": update_data})
-                else:
-                    app.logger.error(f"Document with ID {post_id} not found in index {index_name}")
-            except Exception as e:
-                error_message = traceback.format_exc()  # 전체 에러 스택 트레이스
-                app.logger.error(
-                    f"Elasticsearch update error for document {post_id} in index {index_name}:\n{error_message}")
+            # 읽고-더해서-쓰기(get 후 update) 대신 스크립트로 원자적으로 증감
+            actions.append({"update": {"_index": index_name, "_id": post_id, "retry_on_conflict": 3}})
+            actions.append({"script": {"source": LIKE_REPORT_DELTA_SCRIPT,
+                                       "params": {"field": key_type, "value": value, "delta_id": delta_id}}})
+
+        if actions:
+            response = es.bulk(body=actions)
+            if response.get("errors"):
+                retryable = False
+                for item in response.get("items", []):
+                    result = item.get("update", {})
+                    if "error" not in result:
+                        continue
+                    if result.get("status") == 404:
+                        app.logger.error(f"Document with ID {result.get('_id')} not found in index {result.get('_index')}")
+                    else:
+                        retryable = True
+                        app.logger.error(f"Elasticsearch update error for document {result.get('_id')}: {result.get('error')}")
+                if retryable:
+                    # 적용된 항목은 delta_id 로 걸러지므로 청크 전체를 재시도해도 안전
+                    return jsonify({"error": "Some updates failed, retry the chunk"}), 500
 
         return jsonify({"message": "Likes and Reports updated successfully"}), 200
     except Exception as e:
@@ -173,6 +217,51 @@ def update_likes_reports():
         return jsonify({"error": str(e)}), 500
 
 
+@app.route("/update/views", methods=["POST"])
+def update_recipe_views():
+    """
+    레시피 조회수 증감분 일괄 반영 엔드포인트
+    - Spring 이 모아 보낸 {"delta_id", "views": [{"postId", "type", "value"}]} 를 bulk 스크립트 update 로 반영합니다.
+    - 좋아요/신고와 같은 스크립트로 문서에 마지막 delta_id 를 기록하므로 같은 묶음이 재전송되어도 한 번만 더해집니다.
+    """
+    try:
+        data = request.json or {}
+        delta_id = data.get("delta_id")
+        views = data.get("views", [])
+        if not delta_id or not views:
+            return jsonify({"error": "delta_id and views are required"}), 400
+
+        actions = []
+        for entry in views:
+            post_id = entry.get("postId")
+            value = entry.get("value")
+            content_type = entry.get("type")
+            index_name, _ = get_index_and_mapping(content_type)
+            if not post_id or not value or content_type not in ("cocktail", "food"):
+                app.logger.warning(f"Skipping view entry due to missing fields: {entry}")
+                continue
+            actions.append({"update": {"_index": index_name, "_id": post_id, "retry_on_conflict": 3}})
+            actions.append({"script": {"source": LIKE_REPORT_DELTA_SCRIPT,
+                                       "params": {"field": "view", "value": value, "delta_id": delta_id}}})
+
+        if actions:
+            response = es.bulk(body=actions)
+            if response.get("errors"):
+                retryable = False
+                for item in response.get("items", []):
+                    result = item.get("update", {})
+                    if "error" in result and result.get("status") != 404:  # 삭제된 레시피는 건너뜀
+                        retryable = True
+                        app.logger.error(f"View count update error for recipe {result.get('_id')}: {result.get('error')}")
+                if retryable:
+                    return jsonify({"error": "Some updates failed, retry the chunk"}), 500
+
+        return jsonify({"message": "View counts updated", "count": len(actions) // 2}), 200
+    except Exception as e:
+        app.logger.error(f"Unhandled error in /update/views:\n{traceback.format_exc()}")
+        return jsonify({"error": str(e)}), 500
+
+
 @app.route("/upload/json", methods=["POST"])
 def upload_json():
     try:
@@ -195,7 +284,10 @@ def upload_json():
         # JSON 데이터 읽기
         data = json.load(file)
         for item in data:
-            es.index(index=index_name, body=item)
+            if file_type == "forum_post":
+                index_forum_post(index_name, item)
+            else:
+                es.index(index=index_name, body=item)
 
         return jsonify({"message": "Data uploaded successfully"}), 200
     except Exception as e:
@@ -334,12 +426,13 @@ def detail(doc_id):
         # ES에서 해당 ID 문서 검색
         response = es.get(index=index_name, id=doc_id)
 
-        # 조회수 증가
-        es.update(
-            index=index_name,
-            id=doc_id,
-            body={"script": "ctx._source.view = (ctx._source.view ?: 0) + 1"}
-        )
+        # 조회수 증가 (Spring 은 count=false 로 호출하고 /update/views 로 모아서 반영)
+        if request.args.get("count", "true").lower() != "false":
+            es.update(
+                index=index_name,
+                id=doc_id,
+                body={"script": "ctx._source.view = (ctx._source.view ?: 0) + 1"}
+            )
 
         return jsonify(response["_source"])
     except Exception as e:
@@ -386,10 +479,21 @@ def batch_detail():
         if not index_name:
             return jsonify({"error": "잘못된 type 값입니다."}), 400
 
+        # full=true 이면 /detail 과 같은 전체 _source 를 돌려줌 (Spring 의 detail 멀티겟 용)
+        # 조회수는 증가시키지 않음
+        full = bool(request_data.get("full", False))
+
+        # 문서별 es.get 대신 mget 한 번으로 조회, 없는 문서는 건너뜀
+        response = es.mget(index=index_name, body={"ids": ids})
         results = []
-        for doc_id in ids:
-            response = es.get(index=index_name, id=doc_id)
-            source = response["_source"]
+        for doc in response.get("docs", []):
+            if not doc.get("found"):
+                continue
+            doc_id = doc["_id"]
+            source = doc["_source"]
+            if full:
+                results.append({"id": doc_id, "source": source})
+                continue
 
             # food와 cocktail에 대한 이미지 필드 선택
             image_field = None
@@ -613,7 +717,7 @@ def create_forum_post():
         data.setdefault("updatedAt", now)
 
         # 요청 데이터에 contentJSON, authorName 등 새로운 필드가 있다면 그대로 저장됩니다.
-        res = es.index(index=index_name, body=data)
+        res = index_forum_post(index_name, data)
 
         # 인덱스 새로고침 (문서가 즉시 검색될 수 있도록)
         es.indices.refresh(index=index_name)
@@ -624,6 +728,143 @@ def create_forum_post():
 
 
 
+FORUM_LIST_SOURCE = [
+    "title", "content", "authorName", "contentJSON", "viewsCount", "likesCount",
+    "createdAt", "updatedAt", "category", "comments", "sticky", "memberId"
+]
+# 최신순. 같은 시각의 글은 postId(keyword, doc_values) 로 순서를 고정하여 search_after 커서가 중복/누락 없이 이어지도록 함
+# (_id 정렬은 doc_values 가 없어 필드 데이터를 힙에 올리므로 쓰지 않음)
+# postId 가 아직 없는 예전 문서는 뒤로 보내고, 매핑에 postId 가 없는 예전 인덱스에서도 오류가 나지 않도록 함
+FORUM_LIST_SORT = [
+    {"createdAt": {"order": "desc"}},
+    {"postId": {"order": "asc", "missing": "_last", "unmapped_type": "keyword"}}
+]
+forum_post_id_lock = threading.Lock()
+
+
+def backfill_forum_post_ids():
+    """
+    예전 게시글에 postId 를 채우는 함수 (마이그레이션)
+    KR: postId 매핑을 추가하고, postId 가 없는 문서에 _id 값을 넣습니다. 채운 문서 수를 반환합니다.
+        요청 처리(FORUM 읽기 타임아웃) 안에서 실행하지 않도록 기동 시 백그라운드 스레드 또는 관리용 엔드포인트에서만 호출합니다.
+    """
+    index_name, _ = get_index_and_mapping("forum_post")
+    if not es.indices.exists(index=index_name):
+        return 0
+    es.indices.put_mapping(index=index_name, body={"properties": {"postId": {"type": "keyword"}}})
+    res = es.update_by_query(index=index_name, conflicts="proceed", refresh=True, body={
+        "query": {"bool": {"must_not": [{"exists": {"field": "postId"}}]}},
+        "script": {"source": "ctx._source.postId = ctx._id", "lang": "painless"}
+    })
+    updated = res.get("updated", 0)
+    if updated:
+        app.logger.info(f"[forum] postId 채움: {updated}건")
+    return updated
+
+
+def backfill_forum_post_ids_on_startup(attempts=10, delay_sec=30):
+    # Elasticsearch 가 늦게 뜰 수 있으므로 몇 번 재시도
+    for attempt in range(1, attempts + 1):
+        with forum_post_id_lock:
+            try:
+                backfill_forum_post_ids()
+                return
+            except Exception as e:
+                app.logger.warning(f"[forum] postId 채우기 실패 ({attempt}/{attempts}): {e}")
+        time.sleep(delay_sec)
+    app.logger.error("[forum] postId 채우기를 포기합니다. POST /forum/posts/backfill-ids 로 다시 실행하세요.")
+
+
+# 관리용: 예전 게시글 postId 채우기 (기동 시 자동 실행이 실패했을 때)
+@app.route("/forum/posts/backfill-ids", methods=["POST"])
+def forum_posts_backfill_ids():
+    if not forum_post_id_lock.acquire(blocking=False):
+        return jsonify({"message": "이미 실행 중입니다."}), 409
+    try:
+        return jsonify({"updated": backfill_forum_post_ids()}), 200
+    except Exception as e:
+        return jsonify({"error": str(e)}), 500
+    finally:
+        forum_post_id_lock.release()
+
+
+def forum_list_item(hit):
+    doc = {"id": hit["_id"], **hit["_source"]}
+    comments = doc.get("comments", [])
+    doc["latestComment"] = max(comments, key=lambda c: c.get("createdAt", ""), default=None)
+    return doc
+
+
+def encode_cursor(sort_values):
+    return base64.urlsafe_b64encode(json.dumps(sort_values).encode("utf-8")).decode("ascii")
+
+
+def decode_cursor(cursor):
+    return json.loads(base64.urlsafe_b64decode(cursor.encode("ascii")).decode("utf-8"))
+
+
+# Forum 카테고리별 게시글 목록 (고정 게시글 제외)
+@app.route("/forum/posts/page", methods=["GET"])
+def forum_posts_page():
+    """
+    카테고리별 게시글 목록 (최신순)
+    KR: cursor 가 있으면 search_after 로 이어서 조회하여 깊은 페이지도 첫 페이지와 같은 비용으로 가져옵니다.
+        cursor 가 없으면 page(0부터) 오프셋으로 조회합니다. total 은 전체 건수(track_total_hits)입니다.
+        고정 게시글은 /forum/posts/sticky 로 따로 조회합니다.
+    """
+    try:
+        category = request.args.get("category", "")
+        size = request.args.get("size", 10, type=int)
+        page = request.args.get("page", 0, type=int)
+        cursor = request.args.get("cursor", "")
+
+        filters = [{"term": {"category": category}}] if category else []
+        body = {
+            "size": size,
+            "_source": FORUM_LIST_SOURCE,
+            "track_total_hits": True,
+            "sort": FORUM_LIST_SORT,
+            "query": {"bool": {"filter": filters, "must_not": [{"term": {"sticky": True}}]}}
+        }
+        if cursor:
+            body["search_after"] = decode_cursor(cursor)
+        else:
+            body["from"] = max(page, 0) * size
+
+        index_name, _ = get_index_and_mapping("forum_post")
+        res = es.search(index=index_name, body=body)
+        hits = res["hits"]["hits"]
+        next_cursor = encode_cursor(hits[-1]["sort"]) if len(hits) == size else None
+        return jsonify({
+            "items": [forum_list_item(hit) for hit in hits],
+            "total": res["hits"]["total"]["value"],
+            "nextCursor": next_cursor
+        }), 200
+    except Exception as e:
+        return jsonify({"error": str(e)}), 500
+
+
+# Forum 카테고리별 고정 게시글
+@app.route("/forum/posts/sticky", methods=["GET"])
+def forum_posts_sticky():
+    try:
+        category = request.args.get("category", "")
+        size = request.args.get("size", 20, type=int)
+        filters = [{"term": {"sticky": True}}]
+        if category:
+            filters.append({"term": {"category": category}})
+        index_name, _ = get_index_and_mapping("forum_post")
+        res = es.search(index=index_name, body={
+            "size": size,
+            "_source": FORUM_LIST_SOURCE,
+            "sort": FORUM_LIST_SORT,
+            "query": {"bool": {"filter": filters}}
+        })
+        return jsonify([forum_list_item(hit) for hit in res["hits"]["hits"]]), 200
+    except Exception as e:
+        return jsonify({"error": str(e)}), 500
+
+
 # Forum 게시글 상세 조회
 @app.route("/forum/post/<doc_id>", methods=["GET"], endpoint="forum_post_detail")
 def get_forum_post(doc_id):
@@ -653,6 +894,24 @@ def get_forum_post(doc_id):
         return jsonify({"error": str(e)}), 404
 
 
+# Forum 게시글 메타데이터 (권한 확인용)
+@app.route("/forum/post/<doc_id>/meta", methods=["GET"])
+def get_forum_post_meta(doc_id):
+    """
+    게시글 메타데이터 조회
+    KR: 본문/댓글 없이 작성자와 숨김/삭제 상태만 _source 필터로 가져옵니다. (Spring 권한 확인용)
+    """
+    try:
+        index_name, _ = get_index_and_mapping("forum_post")
+        res = es.get(index=index_name, id=doc_id,
+                     source_includes=["memberId", "authorName", "hidden", "removedBy", "category"])
+        data = res["_source"]
+        data["id"] = res["_id"]
+        return jsonify(data)
+    except Exception as e:
+        return jsonify({"error": str(e)}), 404
+
+
 # Forum 게시글 제목 수정 (수정된 버전)
 @app.route("/forum/post/<doc_id>/title", methods=["PUT"])
 def update_forum_post_title(doc_id):
@@ -1291,6 +1550,49 @@ def increment_view_count(doc_id):
     except Exception as e:
         return jsonify({"error": str(e)}), 500
 
+
+@app.route("/forum/posts/views", methods=["POST"])
+def increment_view_counts():
+    """
+    게시글 조회수 증감분 일괄 반영 엔드포인트
+    - Spring 이 모아 보낸 {"delta_id", "views": [{"postId", "value"}]} 를 bulk 스크립트 update 로 반영합니다.
+    - 문서에 마지막 delta_id 를 기록하므로 같은 묶음이 재전송되어도 한 번만 더해집니다. (updatedAt 은 건드리지 않음)
+    """
+    try:
+        data = request.json or {}
+        delta_id = data.get("delta_id")
+        views = data.get("views", [])
+        if not delta_id or not views:
+            return jsonify({"error": "delta_id and views are required"}), 400
+
+        index_name, _ = get_index_and_mapping("forum_post")
+        actions = []
+        for entry in views:
+            post_id = entry.get("postId")
+            value = entry.get("value")
+            if not post_id or not value:
+                continue
+            actions.append({"update": {"_index": index_name, "_id": post_id, "retry_on_conflict": 3}})
+            actions.append({"script": {"source": LIKE_REPORT_DELTA_SCRIPT,
+                                       "params": {"field": "viewsCount", "value": value, "delta_id": delta_id}}})
+
+        if actions:
+            response = es.bulk(body=actions)
+            if response.get("errors"):
+                retryable = False
+                for item in response.get("items", []):
+                    result = item.get("update", {})
+                    if "error" in result and result.get("status") != 404:  # 삭제된 게시글은 건너뜀
+                        retryable = True
+                        app.logger.error(f"View count update error for post {result.get('_id')}: {result.get('error')}")
+                if retryable:
+                    return jsonify({"error": "Some updates failed, retry the chunk"}), 500
+
+        return jsonify({"message": "View counts updated", "count": len(actions) // 2}), 200
+    except Exception as e:
+        app.logger.error(f"Unhandled error in /forum/posts/views:\n{traceback.format_exc()}")
+        return jsonify({"error": str(e)}), 500
+
 # (예시) /forum/searchByMember - 특정 유저가 작성한 게시글만 조회# 게시글/댓글 조회
 # # @app.route("/forum/my", methods=["GET"])
 # # def get_my_content():
@@ -1637,6 +1939,45 @@ def update_one():
         return jsonify({"error": str(e)}), 500
 
 
+def stream_bot_answers(message, size):
+    """
+    챗봇 답변을 찾는 대로 한 줄씩 내보냅니다.
+    1단계: 제목 구문 일치 1건 (퍼지 검색보다 가벼워 첫 답변이 빨리 나감)
+    2단계: 기존 퍼지 검색으로 나머지 (이미 보낸 문서는 제외, 최대 size 건)
+    검색 중 오류가 나면 마지막 줄로 {"error": ...} 를 보냅니다.
+    """
+    sent = set()
+    try:
+        first = es.search(index="faq", body={"query": {"match_phrase": {"title": message}}, "size": 1})
+        for hit in first['hits']['hits']:
+            sent.add(hit['_id'])
+            yield json.dumps({"title": hit['_source']['title'], "content": hit['_source']['content']}, ensure_ascii=False) + "\n"
+
+        query = {
+            "query": {
+                "multi_match": {
+                    "query": message,
+                    "fields": ["title^3", "content"],
+                    "operator": "or",
+                    "fuzziness": "AUTO"
+                }
+            },
+            "size": size
+        }
+        response = es.search(index="faq", body=query)
+        for hit in response['hits']['hits']:
+            if len(sent) >= size:
+                break
+            if hit['_id'] in sent:
+                continue
+            sent.add(hit['_id'])
+            yield json.dumps({"title": hit['_source']['title'], "content": hit['_source']['content']}, ensure_ascii=False) + "\n"
+    except Exception as e:
+        # 응답 상태는 이미 보냈으므로 오류 줄을 보내 실패를 알림 (클라이언트는 이 결과를 캐시하지 않음)
+        app.logger.error(f"[bot] 스트리밍 중 오류: {e}")
+        yield json.dumps({"error": str(e)}, ensure_ascii=False) + "\n"
+
+
 @app.route("/bot", methods=["GET"])
 def chat_bot():
     try:
@@ -1649,6 +1990,10 @@ def chat_bot():
         if not message:
             return jsonify({"message": "message is required"}), 400
 
+        # stream=1 : 답변을 찾는 대로 한 줄씩(NDJSON) 전송
+        if request.args.get("stream") == "1":
+            return Response(stream_bot_answers(message, size), mimetype="application/x-ndjson")
+
         # Elasticsearch 쿼리 작성
         query = {
             "query": {
@@ -1680,4 +2025,5 @@ def chat_bot():
         return jsonify({"message": str(e)}), 500
 
 if __name__ == '__main__':
+    threading.Thread(target=backfill_forum_post_ids_on_startup, name="forum-post-id-backfill", daemon=True).start()
     app.run(host='0.0.0.0', port=5000)
\ No newline at end of file
@@ -1,6 +1,7 @@
 import styled from "styled-components";
-import { useState, ChangeEvent, useEffect } from "react";
+import { useState, ChangeEvent, useEffect, useRef } from "react";
 import ChatApi from "../../api/ChatApi";
+import Commons from "../../util/Common";
 import React from "react";
 
 const ChattingRoomBg = styled.div`
@@ -114,16 +115,40 @@ const ChatBot = () => {
   const [message, setMessage] = useState("");
   const [currentIndex, setCurrentIndex] = useState(0);
   const [displayedText, setDisplayedText] = useState("");
+  const [done, setDone] = useState(true);
+  const [error, setError] = useState<string | null>(null);
+  const ws = useRef<WebSocket | null>(null);
 
+  // 답변은 WebSocket 으로 도착하는 대로 받음 (연결이 안 되면 HTTP 로 한 번에 받음)
   useEffect(() => {
-    if (response && response.length > 0 && currentIndex < response.length) {
-      setDisplayedText(response[currentIndex].content[0]);
+    const socket = new WebSocket(Commons.WEBSOCKET_URL);
+    socket.onmessage = msg => {
+      const data = JSON.parse(msg.data);
+      if (data.type !== "BOT") return;
+      if (data.done) {
+        setDone(true);
+        // 검색 실패/요청 거절은 결과 없음과 구분해서 보여줌
+        setError(data.error ?? null);
+      } else {
+        setResponse(prev => [...(prev ?? []), { title: data.title, content: data.content }]);
+      }
+    };
+    ws.current = socket;
+    return () => socket.close();
+  }, []);
+
+  // 답변이 추가로 도착해도 보고 있는 답변의 타이핑 효과는 다시 시작하지 않음
+  const current = response && currentIndex < response.length ? response[currentIndex] : null;
+
+  useEffect(() => {
+    if (current) {
+      setDisplayedText(current.content[0]);
 
       const interval = setInterval(() => {
         setDisplayedText((prevText) => {
           const nextIndex = prevText.length;
-          if (nextIndex < response[currentIndex].content.length) {
-            return prevText + response[currentIndex].content[nextIndex];
+          if (nextIndex < current.content.length) {
+            return prevText + current.content[nextIndex];
           } else {
             clearInterval(interval);
             return prevText;
@@ -133,18 +158,29 @@ const ChatBot = () => {
 
       return () => clearInterval(interval);
     }
-  }, [currentIndex, response]);
+  }, [current]);
 
   const onClickSendChat = async () => {
     if (!message.trim()) return;
     setChat(message);
     setMessage("");
+    setCurrentIndex(0);
+    setError(null);
+    if (ws.current && ws.current.readyState === WebSocket.OPEN) {
+      setResponse([]);
+      setDone(false);
+      ws.current.send(JSON.stringify({ type: "BOT", msg: message }));
+      return;
+    }
     try {
       const rsp = await ChatApi.getAi(message);
       setResponse(rsp.data);
-      setCurrentIndex(0);
+      setDone(true);
     } catch (error) {
       console.error("Error fetching message: ", error);
+      setResponse([]);
+      setDone(true);
+      setError("답변을 가져오지 못했습니다. 잠시 후 다시 시도해 주세요.");
     }
   };
 
@@ -159,7 +195,7 @@ const ChatBot = () => {
         {chat && <MessageBoxContainer isSender={true}>
           <Message isSender={true}>{chat}</Message>
         </MessageBoxContainer>}
-        {response && response.length > 0 && (
+        {response && (response.length > 0 || error) && (
           <MessageBoxContainer isSender={false}>
             <Message isSender={false}>
               {currentIndex < response.length ?
@@ -174,7 +210,7 @@ const ChatBot = () => {
                     {displayedText}
                   </ContentContainer>
                 </ResponseContainer>
-                : "죄송합니다. 제가 이해하지 못했네요."}
+                : error ?? (done ? "죄송합니다. 제가 이해하지 못했네요." : "다음 답변을 찾는 중이에요...")}
             </Message>
             {currentIndex < response.length  && (
               <SendButton onClick={onNextResponse}>다음 응답</SendButton>
@@ -270,6 +270,11 @@ const Chatting = () => {
 
         ws.current.onmessage = msg => {
             const data = JSON.parse(msg.data);
+            if (data.type === "PRESENCE") return; // 입장/퇴장 알림은 대화 목록에 넣지 않음
+            if (data.type === "THROTTLED") { // 전송 한도 초과로 버려진 메시지
+                console.warn("메시지를 너무 빠르게 보내고 있습니다.", data);
+                return;
+            }
             if (!data.regDate) {
                 data.regDate = new Date().toLocaleString();
             }
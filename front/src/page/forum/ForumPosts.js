@@ -63,8 +63,11 @@ const ForumPosts = () => {
         console.warn("검색 결과가 없습니다. (게시글 목록이 비어 있음)");
       }
 
-      // 고정 게시글과 일반 게시글 분리
-      setStickyPosts(postList.filter((post) => post.sticky));
+      // 고정 게시글은 첫 페이지 응답의 sticky 필드로 따로 옵니다. (data 에는 일반 게시글만)
+      const stickyList = Array.isArray(data.sticky)
+        ? data.sticky
+        : postList.filter((post) => post.sticky);
+      setStickyPosts(stickyList);
       setPosts(postList.filter((post) => !post.sticky));
 
       // 단순 카테고리 정보 조회: getCategoryById 호출